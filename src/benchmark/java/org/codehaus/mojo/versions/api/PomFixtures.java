@@ -0,0 +1,151 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Generates poms of different sizes for the benchmarks, so that no megabyte fixtures need to be checked in. Every
+ * dependency, plugin and property has a distinct coordinate, the last of each being the worst case for a rewrite which
+ * has to scan the whole pom to find it.
+ */
+public enum PomFixtures
+{
+    /**
+     * About 1KB: a handful of dependencies.
+     */
+    SMALL( 5, 0, 0 ),
+
+    /**
+     * About 100KB: 500 dependencies, a few profiles.
+     */
+    MEDIUM( 500, 10, 20 ),
+
+    /**
+     * About 2MB: 5000 dependencies and many profiles.
+     */
+    LARGE( 5000, 100, 80 );
+
+    private final int dependencies;
+
+    private final int profiles;
+
+    private final int profileDependencies;
+
+    PomFixtures( int dependencies, int profiles, int profileDependencies )
+    {
+        this.dependencies = dependencies;
+        this.profiles = profiles;
+        this.profileDependencies = profileDependencies;
+    }
+
+    /**
+     * Returns the number of dependencies of the project, outside of the profiles.
+     *
+     * @return the number of dependencies.
+     */
+    public int getDependencies()
+    {
+        return dependencies;
+    }
+
+    /**
+     * Returns the artifactId of a dependency of the project.
+     *
+     * @param i the index of the dependency.
+     * @return the artifactId.
+     */
+    public static String dependency( int i )
+    {
+        return "artifact-" + i;
+    }
+
+    /**
+     * Returns the version of a dependency of the project.
+     *
+     * @param i the index of the dependency.
+     * @return the version.
+     */
+    public static String version( int i )
+    {
+        return "1.0." + i;
+    }
+
+    /**
+     * Generates the pom.
+     *
+     * @return the pom.
+     */
+    public String generate()
+    {
+        StringBuilder pom = new StringBuilder( 256 + 150 * ( dependencies + profiles * profileDependencies ) );
+        pom.append( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" );
+        pom.append( "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n" );
+        pom.append( "  <modelVersion>4.0.0</modelVersion>\n" );
+        pom.append( "  <groupId>org.example</groupId>\n" );
+        pom.append( "  <artifactId>fixture</artifactId>\n" );
+        pom.append( "  <version>1.0-SNAPSHOT</version>\n" );
+        pom.append( "  <properties>\n" );
+        for ( int i = 0; i < profiles; i++ )
+        {
+            pom.append( "    <profile" ).append( i ).append( ".version>1.0</profile" ).append( i ).append(
+                ".version>\n" );
+        }
+        pom.append( "    <last.version>1.0</last.version>\n" );
+        pom.append( "  </properties>\n" );
+        appendDependencies( pom, "  ", "", dependencies );
+        pom.append( "  <build>\n" );
+        pom.append( "    <plugins>\n" );
+        pom.append( "      <plugin>\n" );
+        pom.append( "        <groupId>org.apache.maven.plugins</groupId>\n" );
+        pom.append( "        <artifactId>maven-compiler-plugin</artifactId>\n" );
+        pom.append( "        <version>3.1</version>\n" );
+        pom.append( "      </plugin>\n" );
+        pom.append( "    </plugins>\n" );
+        pom.append( "  </build>\n" );
+        if ( profiles > 0 )
+        {
+            pom.append( "  <profiles>\n" );
+            for ( int i = 0; i < profiles; i++ )
+            {
+                pom.append( "    <profile>\n" );
+                pom.append( "      <id>profile-" ).append( i ).append( "</id>\n" );
+                appendDependencies( pom, "      ", "profile" + i + "-", profileDependencies );
+                pom.append( "    </profile>\n" );
+            }
+            pom.append( "  </profiles>\n" );
+        }
+        pom.append( "</project>\n" );
+        return pom.toString();
+    }
+
+    private static void appendDependencies( StringBuilder pom, String indent, String prefix, int count )
+    {
+        pom.append( indent ).append( "<dependencies>\n" );
+        for ( int i = 0; i < count; i++ )
+        {
+            pom.append( indent ).append( "  <dependency>\n" );
+            pom.append( indent ).append( "    <groupId>org.example.group" ).append( i % 50 ).append( "</groupId>\n" );
+            pom.append( indent ).append( "    <artifactId>" ).append( prefix ).append( dependency( i ) ).append(
+                "</artifactId>\n" );
+            pom.append( indent ).append( "    <version>" ).append( version( i ) ).append( "</version>\n" );
+            pom.append( indent ).append( "  </dependency>\n" );
+        }
+        pom.append( indent ).append( "</dependencies>\n" );
+    }
+}
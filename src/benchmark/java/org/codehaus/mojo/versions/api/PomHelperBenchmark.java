@@ -0,0 +1,175 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.mojo.versions.change.VersionChange;
+import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rewrites of {@link PomHelper} on generated poms of different sizes, see {@link PomFixtures}. Every
+ * rewrite starts from a fresh copy of the pom, so {@link #open()} is the baseline the other benchmarks include. Run
+ * with <code>mvn -Pbenchmarks verify</code>, which also profiles the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PomHelperBenchmark
+{
+    /**
+     * How many dependencies {@link #setDependencyVersionOneByOne()} sets, a pass each.
+     */
+    private static final int ONE_BY_ONE = 50;
+
+    @Param({ "SMALL", "MEDIUM", "LARGE" })
+    private PomFixtures size;
+
+    private XMLInputFactory inputFactory;
+
+    private String pom;
+
+    private List<VersionChange> changes;
+
+    private ModifiedPomXMLEventReader reader;
+
+    @Setup
+    public void setUp()
+        throws XMLStreamException
+    {
+        inputFactory = XMLInputFactory2.newInstance();
+        inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
+        pom = size.generate();
+        changes = new ArrayList<VersionChange>( size.getDependencies() );
+        for ( int i = 0; i < size.getDependencies(); i++ )
+        {
+            changes.add( new VersionChange( "org.example.group" + ( i % 50 ), PomFixtures.dependency( i ),
+                                            PomFixtures.version( i ), PomFixtures.version( i ) + "-1" ) );
+        }
+        reader = open();
+    }
+
+    @Benchmark
+    public ModifiedPomXMLEventReader open()
+        throws XMLStreamException
+    {
+        return new ModifiedPomXMLEventReader( new StringBuilder( pom ), inputFactory );
+    }
+
+    @Benchmark
+    public void rewind()
+        throws XMLStreamException
+    {
+        reader.rewind();
+    }
+
+    @Benchmark
+    public void rewindAndScan( Blackhole blackhole )
+        throws XMLStreamException
+    {
+        reader.rewind();
+        while ( reader.hasNext() )
+        {
+            blackhole.consume( reader.nextEvent() );
+        }
+    }
+
+    @Benchmark
+    public boolean setPropertyVersion()
+        throws XMLStreamException
+    {
+        return PomHelper.setPropertyVersion( open(), null, "last.version", "2.0" );
+    }
+
+    @Benchmark
+    public boolean setDependencyVersion()
+        throws XMLStreamException
+    {
+        int last = size.getDependencies() - 1;
+        return PomHelper.setDependencyVersion( open(), "org.example.group" + ( last % 50 ),
+                                               PomFixtures.dependency( last ), PomFixtures.version( last ), "2.0" );
+    }
+
+    @Benchmark
+    public boolean setPluginVersion()
+        throws XMLStreamException
+    {
+        return PomHelper.setPluginVersion( open(), "org.apache.maven.plugins", "maven-compiler-plugin", "3.1",
+                                           "3.8.0" );
+    }
+
+    @Benchmark
+    public boolean setProjectVersion()
+        throws XMLStreamException
+    {
+        return PomHelper.setProjectVersion( open(), "2.0-SNAPSHOT" );
+    }
+
+    /**
+     * Sets the version of every dependency in a single pass.
+     */
+    @Benchmark
+    public Set<VersionChange> setDependencyVersions()
+        throws XMLStreamException
+    {
+        return PomHelper.setDependencyVersions( open(), changes );
+    }
+
+    /**
+     * Sets the versions of the first dependencies a pass each, the way goals updating one artifact at a time do.
+     */
+    @Benchmark
+    public int setDependencyVersionOneByOne()
+        throws XMLStreamException
+    {
+        ModifiedPomXMLEventReader pom = open();
+        int count = 0;
+        for ( VersionChange change : changes.subList( 0, Math.min( ONE_BY_ONE, changes.size() ) ) )
+        {
+            if ( PomHelper.setDependencyVersion( pom, change.getGroupId(), change.getArtifactId(),
+                                                 change.getOldVersion(), change.getNewVersion() ) )
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+}
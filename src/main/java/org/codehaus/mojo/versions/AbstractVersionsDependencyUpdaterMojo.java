@@ -22,19 +22,30 @@ package org.codehaus.mojo.versions;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import javax.xml.stream.XMLStreamException;
 
-import org.apache.commons.lang.StringUtils;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.artifact.filter.PatternExcludesArtifactFilter;
 import org.apache.maven.shared.artifact.filter.PatternIncludesArtifactFilter;
+import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.change.VersionChange;
+import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.mojo.versions.utils.Instrumentation;
 
 /**
  * Base class for a mojo that updates dependency versions.
@@ -51,6 +62,15 @@ public abstract class AbstractVersionsDependencyUpdaterMojo
 
     private static final String START_RANGE_CHARS = "[(";
 
+    /**
+     * The <code>groupId:artifactId</code> of every project in the reactor of a build, so that checking whether a
+     * dependency is produced by the reactor does not scan every project of the reactor for every dependency of every
+     * module.
+     *
+     * @since 1.0.1
+     */
+    private static final Map<MavenSession, Set<String>> REACTOR_INDEXES = new WeakHashMap<MavenSession, Set<String>>();
+
     /**
      * A comma separated list of artifact patterns to include. Follows the pattern
      * "groupId:artifactId:type:classifier:version". Designed to allow specifing the set of includes from the command
@@ -139,6 +159,21 @@ public abstract class AbstractVersionsDependencyUpdaterMojo
     @Parameter(property = "excludeReactor", defaultValue = "true")
     private Boolean excludeReactor;
 
+    /**
+     * The index of the reactor, if {@link #session} is not known.
+     */
+    private Set<String> reactorIndex;
+
+    /**
+     * The dependency artifacts of the project keyed by {@link #artifactKey(String, String, String, String)}.
+     */
+    private Map<List<String>, Artifact> dependencyArtifactIndex;
+
+    /**
+     * The dependency artifacts {@link #dependencyArtifactIndex} was built from.
+     */
+    private Set dependencyArtifactIndexSource;
+
     /**
      * Should the project/dependencies section of the pom be processed.
      *
@@ -196,20 +231,30 @@ public abstract class AbstractVersionsDependencyUpdaterMojo
      */
     protected Artifact findArtifact( Dependency dependency )
     {
-        if ( getProject().getDependencyArtifacts() == null )
+        Set dependencyArtifacts = getProject().getDependencyArtifacts();
+        if ( dependencyArtifacts == null )
         {
             return null;
         }
-        Iterator iter = getProject().getDependencyArtifacts().iterator();
-        while ( iter.hasNext() )
+        if ( dependencyArtifactIndex == null || dependencyArtifactIndexSource != dependencyArtifacts )
         {
-            Artifact artifact = (Artifact) iter.next();
-            if ( compare( artifact, dependency ) )
+            Map<List<String>, Artifact> index = new HashMap<List<String>, Artifact>( dependencyArtifacts.size() * 2 );
+            Iterator iter = dependencyArtifacts.iterator();
+            while ( iter.hasNext() )
             {
-                return artifact;
+                Artifact artifact = (Artifact) iter.next();
+                List<String> key = artifactKey( artifact.getGroupId(), artifact.getArtifactId(), artifact.getType(),
+                                                artifact.getClassifier() );
+                if ( !index.containsKey( key ) )
+                {
+                    index.put( key, artifact );
+                }
             }
+            dependencyArtifactIndex = index;
+            dependencyArtifactIndexSource = dependencyArtifacts;
         }
-        return null;
+        return dependencyArtifactIndex.get( artifactKey( dependency.getGroupId(), dependency.getArtifactId(),
+                                                         dependency.getType(), dependency.getClassifier() ) );
     }
 
     /**
@@ -266,74 +311,98 @@ public abstract class AbstractVersionsDependencyUpdaterMojo
     }
 
     /**
-     * Returns <code>true</code> if the dependency is produced by the current reactor.
+     * Applies the collected dependency version changes in a single pass over the pom and logs every dependency which
+     * was updated.
      *
-     * @param dependency the dependency to heck.
-     * @return <code>true</code> if the dependency is produced by the current reactor.
-     * @since 1.0-alpha-3
+     * @param pom the pom to update.
+     * @param changes the version change to apply for each dependency.
+     * @throws XMLStreamException when things go wrong with XML streaming.
      */
-    protected boolean isProducedByReactor( Dependency dependency )
+    protected void updateDependencyVersions( ModifiedPomXMLEventReader pom, Map<Dependency, VersionChange> changes )
+        throws XMLStreamException
     {
-        Iterator iter = reactorProjects.iterator();
-        while ( iter.hasNext() )
+        Set<VersionChange> applied = PomHelper.setDependencyVersions( pom, changes.values(), getLog() );
+        for ( Map.Entry<Dependency, VersionChange> change : changes.entrySet() )
         {
-            MavenProject project = (MavenProject) iter.next();
-            if ( compare( project, dependency ) )
+            if ( applied.contains( change.getValue() ) )
             {
-                return true;
+                getLog().info( "Updated " + toString( change.getKey() ) + " to version "
+                    + change.getValue().getNewVersion() );
             }
         }
-        return false;
-
     }
 
     /**
-     * Compare a project to a dependency. Returns true only if the groupId and artifactId are all equal.
+     * Returns <code>true</code> if the dependency is produced by the current reactor.
      *
-     * @param project the project
-     * @param dep the dependency
-     * @return true if project and dep refer to the same artifact
+     * @param dependency the dependency to heck.
+     * @return <code>true</code> if the dependency is produced by the current reactor.
+     * @since 1.0-alpha-3
      */
-    private boolean compare( MavenProject project, Dependency dep )
+    protected boolean isProducedByReactor( Dependency dependency )
     {
-        if ( !StringUtils.equals( project.getGroupId(), dep.getGroupId() ) )
-        {
-            return false;
-        }
-        if ( !StringUtils.equals( project.getArtifactId(), dep.getArtifactId() ) )
-        {
-            return false;
-        }
-        return true;
+        return getReactorIndex().contains( reactorKey( dependency.getGroupId(), dependency.getArtifactId() ) );
     }
 
     /**
-     * Compare and artifact to a dependency. Returns true only if the groupId, artifactId, type, and classifier are all
-     * equal.
+     * Returns the <code>groupId:artifactId</code> of every project in the reactor, built once per build.
      *
-     * @param artifact
-     * @param dep
-     * @return true if artifact and dep refer to the same artifact
+     * @return the <code>groupId:artifactId</code> of every project in the reactor.
      */
-    private boolean compare( Artifact artifact, Dependency dep )
+    private Set<String> getReactorIndex()
     {
-        if ( !StringUtils.equals( artifact.getGroupId(), dep.getGroupId() ) )
+        if ( session == null )
         {
-            return false;
-        }
-        if ( !StringUtils.equals( artifact.getArtifactId(), dep.getArtifactId() ) )
-        {
-            return false;
+            if ( reactorIndex == null )
+            {
+                reactorIndex = buildReactorIndex( reactorProjects );
+            }
+            return reactorIndex;
         }
-        if ( !StringUtils.equals( artifact.getType(), dep.getType() ) )
+        synchronized ( REACTOR_INDEXES )
         {
-            return false;
+            Set<String> index = REACTOR_INDEXES.get( session );
+            if ( index == null )
+            {
+                Instrumentation.miss( "reactor indexes" );
+                index = buildReactorIndex( reactorProjects );
+                REACTOR_INDEXES.put( session, index );
+            }
+            else
+            {
+                Instrumentation.hit( "reactor indexes" );
+            }
+            return index;
         }
-        if ( !StringUtils.equals( artifact.getClassifier(), dep.getClassifier() ) )
+    }
+
+    private static Set<String> buildReactorIndex( List reactorProjects )
+    {
+        Set<String> index = new HashSet<String>();
+        if ( reactorProjects != null )
         {
-            return false;
+            Iterator iter = reactorProjects.iterator();
+            while ( iter.hasNext() )
+            {
+                MavenProject project = (MavenProject) iter.next();
+                index.add( reactorKey( project.getGroupId(), project.getArtifactId() ) );
+            }
         }
-        return true;
+        return index;
+    }
+
+    private static String reactorKey( String groupId, String artifactId )
+    {
+        return groupId + ':' + artifactId;
+    }
+
+    /**
+     * Returns a key which is equal for two artifacts only if their groupId, artifactId, type and classifier are all
+     * equal.
+     */
+    private static List<String> artifactKey( String groupId, String artifactId, String type, String classifier )
+    {
+        return Arrays.asList( groupId, artifactId, type, classifier );
     }
 
     /**
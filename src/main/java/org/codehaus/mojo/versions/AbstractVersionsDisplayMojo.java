@@ -1,7 +1,10 @@
 package org.codehaus.mojo.versions;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -26,7 +29,9 @@ import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.codehaus.mojo.versions.utils.UpdatesWriter;
 import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
 
 /**
  * Abstract base class for the Display___ mojos.
@@ -60,8 +65,21 @@ public abstract class AbstractVersionsDisplayMojo
     @Parameter(property = "outputEncoding", defaultValue = "${project.reporting.outputEncoding}")
     private String outputEncoding;
 
+    /**
+     * The format of {@link #outputFile}: <code>text</code> for the same lines as the console, <code>json</code> for
+     * one JSON object per artifact or property (JSON Lines) or <code>csv</code> for one line of comma separated values
+     * per artifact or property. Each record has the fields <code>project</code>, <code>section</code>,
+     * <code>key</code>, <code>current</code> and <code>latest</code> and is written as soon as it is known.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.outputFormat", defaultValue = UpdatesWriter.TEXT)
+    private String outputFormat;
+
     private boolean outputFileError = false;
 
+    private UpdatesWriter updatesWriter;
+
     protected void logInit()
     {
         if ( outputFile != null && !outputFileError )
@@ -118,6 +136,94 @@ public abstract class AbstractVersionsDisplayMojo
                 getLog().warn( "File encoding has not been set, using platform encoding " + outputEncoding
                     + ", i.e. build is platform dependent!" );
             }
+            if ( !outputFileError && !isTextOutput() )
+            {
+                boolean empty = outputFile.length() == 0;
+                OutputStreamWriter out = null;
+                try
+                {
+                    out = new OutputStreamWriter( new FileOutputStream( outputFile, true ), outputEncoding );
+                    updatesWriter = UpdatesWriter.newInstance( outputFormat, new BufferedWriter( out ), empty );
+                }
+                catch ( IllegalArgumentException e )
+                {
+                    IOUtil.close( out );
+                    getLog().error( e.getMessage() );
+                    outputFileError = true;
+                }
+                catch ( IOException e )
+                {
+                    IOUtil.close( out );
+                    getLog().error( "Cannot send output to " + outputFile, e );
+                    outputFileError = true;
+                }
+            }
+        }
+        else if ( !isTextOutput() )
+        {
+            getLog().warn( "The " + outputFormat + " output format requires an output file, using "
+                + UpdatesWriter.TEXT );
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if {@link #outputFile}, if any, receives the lines logged by
+     * {@link #logLine(boolean, String)} rather than the records of {@link #logUpdate(String, String, String, String)}.
+     *
+     * @return <code>true</code> if the output is text.
+     * @since 1.0.1
+     */
+    protected boolean isTextOutput()
+    {
+        return StringUtils.isBlank( outputFormat ) || UpdatesWriter.TEXT.equalsIgnoreCase( outputFormat );
+    }
+
+    /**
+     * Writes the result for an artifact or property to {@link #outputFile} when its format is not text.
+     *
+     * @param section the part of the project, e.g. <code>Dependencies</code>.
+     * @param key the artifact, as <code>groupId:artifactId</code>, or the property, as <code>${name}</code>.
+     * @param currentVersion the version currently used.
+     * @param latestVersion the version to update to or <code>null</code> if the current version is the latest.
+     * @since 1.0.1
+     */
+    protected void logUpdate( String section, String key, String currentVersion, String latestVersion )
+    {
+        if ( updatesWriter == null )
+        {
+            return;
+        }
+        try
+        {
+            updatesWriter.write( getProject().getGroupId() + ":" + getProject().getArtifactId() + ":"
+                + getProject().getVersion(), section, key, currentVersion, latestVersion );
+        }
+        catch ( IOException e )
+        {
+            getLog().error( "Cannot send output to " + outputFile, e );
+            outputFileError = true;
+            logClose();
+        }
+    }
+
+    /**
+     * Closes {@link #outputFile} if {@link #logInit()} opened it.
+     *
+     * @since 1.0.1
+     */
+    protected void logClose()
+    {
+        if ( updatesWriter != null )
+        {
+            try
+            {
+                updatesWriter.close();
+            }
+            catch ( IOException e )
+            {
+                getLog().error( "Cannot send output to " + outputFile, e );
+            }
+            updatesWriter = null;
         }
     }
 
@@ -134,7 +240,7 @@ public abstract class AbstractVersionsDisplayMojo
                 getLog().info( line );
             }
         }
-        if ( outputFile != null && !outputFileError )
+        if ( outputFile != null && !outputFileError && isTextOutput() )
         {
             try
             {
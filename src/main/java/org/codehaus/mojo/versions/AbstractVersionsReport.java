@@ -42,9 +42,12 @@ import org.apache.maven.settings.Settings;
 import org.codehaus.mojo.versions.api.ArtifactVersions;
 import org.codehaus.mojo.versions.api.DefaultVersionsHelper;
 import org.codehaus.mojo.versions.api.VersionsHelper;
+import org.codehaus.mojo.versions.utils.Instrumentation;
+import org.codehaus.mojo.versions.utils.MetadataSources;
 import org.codehaus.plexus.i18n.I18N;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
 
@@ -167,6 +170,83 @@ public abstract class AbstractVersionsReport
     @Parameter(property = "maven.version.rules")
     private String rulesUri;
 
+    /**
+     * A repository on the local file system, in the default layout, to read the available versions of artifacts from
+     * instead of the remote repositories, e.g. a synchronized mirror in a build without network access. The versions
+     * are read from the <code>maven-metadata*.xml</code> files of each artifact.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.metadataDirectory")
+    private File metadataDirectory;
+
+    /**
+     * An index written by <code>versions:build-index</code> to look the available versions of artifacts up in before
+     * asking the repositories.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.indexFile")
+    private File indexFile;
+
+    /**
+     * How many seconds to wait for the repositories, which are asked concurrently, to answer a lookup of the
+     * available versions of an artifact, retries included, before giving up on those which have not answered,
+     * <code>0</code> to wait as long as it takes.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.lookupTimeout", defaultValue = "60")
+    private int lookupTimeout;
+
+    /**
+     * How many times to ask a repository again, with increasing delays, after it failed to answer a lookup.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.lookupRetries", defaultValue = "2")
+    private int lookupRetries;
+
+    /**
+     * How many lookups in a row a repository may fail before it is skipped for the rest of the build, <code>0</code>
+     * to never skip it.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.lookupFailureThreshold", defaultValue = "3")
+    private int lookupFailureThreshold;
+
+    /**
+     * Whether to fail when a repository fails to answer a lookup. By default the versions found in the other
+     * repositories are used and artifacts which could not be looked up at all are left out with a warning.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.failOnLookupError", defaultValue = "false")
+    private boolean failOnLookupError;
+
+    /**
+     * Whether to log, at the end of the report, a table of where the report spent its time: the lookups per
+     * repository and through the versions helper, loading the rules and rendering the report.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.timings", defaultValue = "false")
+    private boolean timings;
+
+    /**
+     * A file to write the timings of the report to as JSON at the end of the report, see {@link #timings}.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.timingsFile")
+    private File timingsFile;
+
+    /**
+     * Where the report spent its time, <code>null</code> unless asked for.
+     */
+    private Instrumentation instrumentation;
+
     /**
      * The versioning rule to use when comparing versions. Valid values are <code>maven</code>, <code>numeric</code>
      * which will handle long version numbers provided all components are numeric, or <code>mercury</code> which will
@@ -213,10 +293,23 @@ public abstract class AbstractVersionsReport
         {
             try
             {
-                helper = new DefaultVersionsHelper( artifactFactory, artifactResolver, artifactMetadataSource,
-                                                    remoteArtifactRepositories, remotePluginRepositories,
-                                                    localRepository, wagonManager, settings, serverId, rulesUri,
-                                                    getLog(), session, pathTranslator );
+                ArtifactMetadataSource metadataSource = getMetadataSource();
+                long start = getInstrumentation() == null ? 0 : getInstrumentation().start();
+                DefaultVersionsHelper helper =
+                    new DefaultVersionsHelper( artifactFactory, artifactResolver, metadataSource,
+                                               remoteArtifactRepositories, remotePluginRepositories,
+                                               localRepository, wagonManager, settings, serverId, rulesUri,
+                                               getLog(), session, pathTranslator );
+                helper.setFailOnLookupError( failOnLookupError );
+                if ( getInstrumentation() == null )
+                {
+                    this.helper = helper;
+                }
+                else
+                {
+                    getInstrumentation().stop( "rules loading", start );
+                    this.helper = getInstrumentation().wrap( VersionsHelper.class, helper, "helper." );
+                }
             }
             catch ( MojoExecutionException e )
             {
@@ -226,6 +319,29 @@ public abstract class AbstractVersionsReport
         return helper;
     }
 
+    /**
+     * Returns the source of the available versions of artifacts, see {@link #metadataDirectory},
+     * {@link #indexFile} and {@link #lookupTimeout}.
+     *
+     * @return the artifact metadata source.
+     * @throws MojoExecutionException if the index cannot be read.
+     * @since 1.0.1
+     */
+    protected ArtifactMetadataSource getMetadataSource()
+        throws MojoExecutionException
+    {
+        try
+        {
+            return MetadataSources.create( artifactMetadataSource, session, metadataDirectory, indexFile,
+                                           lookupTimeout, lookupRetries, lookupFailureThreshold, failOnLookupError,
+                                           getInstrumentation(), getLog() );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Could not read the version index " + indexFile, e );
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -234,6 +350,7 @@ public abstract class AbstractVersionsReport
     {
         if ( !Boolean.TRUE.equals( skip ) )
         {
+            long start = getInstrumentation() == null ? 0 : getInstrumentation().start();
             try
             {
                 doGenerateReport( locale, getSink() );
@@ -242,6 +359,37 @@ public abstract class AbstractVersionsReport
             {
                 throw new MavenReportException( e.getMessage(), e );
             }
+            finally
+            {
+                if ( getInstrumentation() != null )
+                {
+                    getInstrumentation().stop( "report", start );
+                }
+                reportInstrumentation();
+            }
+        }
+    }
+
+    /**
+     * Returns where the report spends its time, see {@link #timings} and {@link #timingsFile}.
+     *
+     * @return where the report spends its time or <code>null</code> if it is not recorded.
+     * @since 1.0.1
+     */
+    protected Instrumentation getInstrumentation()
+    {
+        if ( instrumentation == null )
+        {
+            instrumentation = Instrumentation.create( timings, timingsFile );
+        }
+        return instrumentation;
+    }
+
+    private void reportInstrumentation()
+    {
+        if ( instrumentation != null )
+        {
+            instrumentation.report( getLog(), timings, timingsFile );
         }
     }
 
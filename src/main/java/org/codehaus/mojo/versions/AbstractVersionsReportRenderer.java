@@ -32,6 +32,7 @@ import org.codehaus.mojo.versions.api.ArtifactAssociation;
 import org.codehaus.mojo.versions.api.ArtifactVersions;
 import org.codehaus.mojo.versions.api.PropertyVersions;
 import org.codehaus.mojo.versions.api.UpdateScope;
+import org.codehaus.mojo.versions.api.UpdatesSummary;
 import org.codehaus.plexus.i18n.I18N;
 import org.codehaus.plexus.util.StringUtils;
 
@@ -123,10 +124,28 @@ public abstract class AbstractVersionsReportRenderer
     protected void renderDependencySummaryTableRow( Dependency dependency, ArtifactVersions details,
                                                     boolean includeScope, boolean includeClassifier,
                                                     boolean includeType )
+    {
+        renderDependencySummaryTableRow( dependency, new UpdatesSummary( details ), includeScope, includeClassifier,
+                                         includeType );
+    }
+
+    /**
+     * Renders a row of the dependency summary table from the precomputed updates of the dependency.
+     *
+     * @param dependency The dependency.
+     * @param summary The updates of the dependency.
+     * @param includeScope Whether to render the scope.
+     * @param includeClassifier Whether to render the classifier.
+     * @param includeType Whether to render the type.
+     * @since 1.0.1
+     */
+    protected void renderDependencySummaryTableRow( Dependency dependency, UpdatesSummary summary,
+                                                    boolean includeScope, boolean includeClassifier,
+                                                    boolean includeType )
     {
         sink.tableRow();
         sink.tableCell();
-        ArtifactVersion[] allUpdates = details.getAllUpdates( UpdateScope.ANY );
+        ArtifactVersion[] allUpdates = summary.getAllUpdates();
         if ( allUpdates == null || allUpdates.length == 0 )
         {
             renderSuccessIcon();
@@ -165,37 +184,37 @@ public abstract class AbstractVersionsReportRenderer
         }
 
         sink.tableCell();
-        if ( details.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
         {
             safeBold();
-            sink.text( details.getOldestUpdate( UpdateScope.SUBINCREMENTAL ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ).toString() );
             safeBold_();
         }
         sink.tableCell_();
 
         sink.tableCell();
-        if ( details.getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
         {
             safeBold();
-            sink.text( details.getOldestUpdate( UpdateScope.INCREMENTAL ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.INCREMENTAL ).toString() );
             safeBold_();
         }
         sink.tableCell_();
 
         sink.tableCell();
-        if ( details.getOldestUpdate( UpdateScope.MINOR ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.MINOR ) != null )
         {
             safeBold();
-            sink.text( details.getOldestUpdate( UpdateScope.MINOR ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.MINOR ).toString() );
             safeBold_();
         }
         sink.tableCell_();
 
         sink.tableCell();
-        if ( details.getOldestUpdate( UpdateScope.MAJOR ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.MAJOR ) != null )
         {
             safeBold();
-            sink.text( details.getOldestUpdate( UpdateScope.MAJOR ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.MAJOR ).toString() );
             safeBold_();
         }
         sink.tableCell_();
@@ -312,6 +331,23 @@ public abstract class AbstractVersionsReportRenderer
 
     protected void renderDependencyDetailTable( Dependency dependency, ArtifactVersions details, boolean includeScope,
                                                 boolean includeClassifier, boolean includeType )
+    {
+        renderDependencyDetailTable( dependency, new UpdatesSummary( details ), includeScope, includeClassifier,
+                                     includeType );
+    }
+
+    /**
+     * Renders the detail table of a dependency from the precomputed updates of the dependency.
+     *
+     * @param dependency The dependency.
+     * @param summary The updates of the dependency.
+     * @param includeScope Whether to render the scope.
+     * @param includeClassifier Whether to render the classifier.
+     * @param includeType Whether to render the type.
+     * @since 1.0.1
+     */
+    protected void renderDependencyDetailTable( Dependency dependency, UpdatesSummary summary, boolean includeScope,
+                                                boolean includeClassifier, boolean includeType )
     {
         final SinkEventAttributes headerAttributes = new SinkEventAttributeSet();
         headerAttributes.addAttribute( SinkEventAttributes.WIDTH, "20%" );
@@ -324,26 +360,26 @@ public abstract class AbstractVersionsReportRenderer
         sink.text( getText( "report.status" ) );
         sink.tableHeaderCell_();
         sink.tableCell( cellAttributes );
-        ArtifactVersion[] versions = details.getAllUpdates( UpdateScope.ANY );
-        if ( details.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
+        ArtifactVersion[] versions = summary.getAllUpdates();
+        if ( summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
             sink.text( getText( "report.otherUpdatesAvailable" ) );
         }
-        else if ( details.getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
+        else if ( summary.getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
             sink.text( getText( "report.incrementalUpdatesAvailable" ) );
         }
-        else if ( details.getOldestUpdate( UpdateScope.MINOR ) != null )
+        else if ( summary.getOldestUpdate( UpdateScope.MINOR ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
             sink.text( getText( "report.minorUpdatesAvailable" ) );
         }
-        else if ( details.getOldestUpdate( UpdateScope.MAJOR ) != null )
+        else if ( summary.getOldestUpdate( UpdateScope.MAJOR ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
@@ -427,13 +463,13 @@ public abstract class AbstractVersionsReportRenderer
                 {
                     sink.lineBreak();
                 }
-                boolean bold = equals( versions[i], details.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) )
-                    || equals( versions[i], details.getOldestUpdate( UpdateScope.INCREMENTAL ) )
-                    || equals( versions[i], details.getNewestUpdate( UpdateScope.INCREMENTAL ) )
-                    || equals( versions[i], details.getOldestUpdate( UpdateScope.MINOR ) )
-                    || equals( versions[i], details.getNewestUpdate( UpdateScope.MINOR ) )
-                    || equals( versions[i], details.getOldestUpdate( UpdateScope.MAJOR ) )
-                    || equals( versions[i], details.getNewestUpdate( UpdateScope.MAJOR ) );
+                boolean bold = equals( versions[i], summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) )
+                    || equals( versions[i], summary.getOldestUpdate( UpdateScope.INCREMENTAL ) )
+                    || equals( versions[i], summary.getNewestUpdate( UpdateScope.INCREMENTAL ) )
+                    || equals( versions[i], summary.getOldestUpdate( UpdateScope.MINOR ) )
+                    || equals( versions[i], summary.getNewestUpdate( UpdateScope.MINOR ) )
+                    || equals( versions[i], summary.getOldestUpdate( UpdateScope.MAJOR ) )
+                    || equals( versions[i], summary.getNewestUpdate( UpdateScope.MAJOR ) );
                 if ( bold )
                 {
                     safeBold();
@@ -444,31 +480,31 @@ public abstract class AbstractVersionsReportRenderer
                     safeBold_();
                     sink.nonBreakingSpace();
                     safeItalic();
-                    if ( equals( versions[i], details.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) ) )
+                    if ( equals( versions[i], summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) ) )
                     {
                         sink.text( getText( "report.nextVersion" ) );
                     }
-                    else if ( equals( versions[i], details.getOldestUpdate( UpdateScope.INCREMENTAL ) ) )
+                    else if ( equals( versions[i], summary.getOldestUpdate( UpdateScope.INCREMENTAL ) ) )
                     {
                         sink.text( getText( "report.nextIncremental" ) );
                     }
-                    else if ( equals( versions[i], details.getNewestUpdate( UpdateScope.INCREMENTAL ) ) )
+                    else if ( equals( versions[i], summary.getNewestUpdate( UpdateScope.INCREMENTAL ) ) )
                     {
                         sink.text( getText( "report.latestIncremental" ) );
                     }
-                    else if ( equals( versions[i], details.getOldestUpdate( UpdateScope.MINOR ) ) )
+                    else if ( equals( versions[i], summary.getOldestUpdate( UpdateScope.MINOR ) ) )
                     {
                         sink.text( getText( "report.nextMinor" ) );
                     }
-                    else if ( equals( versions[i], details.getNewestUpdate( UpdateScope.MINOR ) ) )
+                    else if ( equals( versions[i], summary.getNewestUpdate( UpdateScope.MINOR ) ) )
                     {
                         sink.text( getText( "report.latestMinor" ) );
                     }
-                    else if ( equals( versions[i], details.getOldestUpdate( UpdateScope.MAJOR ) ) )
+                    else if ( equals( versions[i], summary.getOldestUpdate( UpdateScope.MAJOR ) ) )
                     {
                         sink.text( getText( "report.nextMajor" ) );
                     }
-                    else if ( equals( versions[i], details.getNewestUpdate( UpdateScope.MAJOR ) ) )
+                    else if ( equals( versions[i], summary.getNewestUpdate( UpdateScope.MAJOR ) ) )
                     {
                         sink.text( getText( "report.latestMajor" ) );
                     }
@@ -495,7 +531,31 @@ public abstract class AbstractVersionsReportRenderer
         renderDependencySummaryTableHeader( includeScope, includeClassifier, includeType );
         for ( Map.Entry<Dependency, ArtifactVersions> entry : map.entrySet() )
         {
-            renderDependencySummaryTableRow( entry.getKey(), entry.getValue(), includeScope, includeClassifier,
+            renderDependencySummaryTableRow( entry.getKey(), new UpdatesSummary( entry.getValue() ), includeScope,
+                                             includeClassifier, includeType );
+        }
+        renderDependencySummaryTableHeader( includeScope, includeClassifier, includeType );
+        sink.table_();
+    }
+
+    /**
+     * Renders the dependency summary table from the precomputed updates of each dependency, one row at a time.
+     *
+     * @param rows The dependencies and their updates.
+     * @param includeScope Whether to render the scope.
+     * @param includeClassifier Whether to render the classifier.
+     * @param includeType Whether to render the type.
+     * @since 1.0.1
+     */
+    protected void renderDependencySummaryTable( Iterable<Map.Entry<Dependency, UpdatesSummary>> rows,
+                                                 boolean includeScope, boolean includeClassifier,
+                                                 boolean includeType )
+    {
+        sink.table();
+        renderDependencySummaryTableHeader( includeScope, includeClassifier, includeType );
+        for ( Map.Entry<Dependency, UpdatesSummary> row : rows )
+        {
+            renderDependencySummaryTableRow( row.getKey(), row.getValue(), includeScope, includeClassifier,
                                              includeType );
         }
         renderDependencySummaryTableHeader( includeScope, includeClassifier, includeType );
@@ -516,9 +576,10 @@ public abstract class AbstractVersionsReportRenderer
 
     protected void renderPropertySummaryTableRow( Property property, PropertyVersions versions )
     {
+        final UpdatesSummary summary = new UpdatesSummary( versions );
         sink.tableRow();
         sink.tableCell();
-        if ( versions.getAllUpdates( UpdateScope.ANY ).length == 0 )
+        if ( summary.getAllUpdates().length == 0 )
         {
             renderSuccessIcon();
         }
@@ -531,41 +592,41 @@ public abstract class AbstractVersionsReportRenderer
         sink.text( "${" + property.getName() + "}" );
         sink.tableCell_();
         sink.tableCell();
-        sink.text( versions.getCurrentVersion().toString() );
+        sink.text( summary.getCurrentVersion().toString() );
         sink.tableCell_();
 
         sink.tableCell();
-        if ( versions.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
         {
             safeBold();
-            sink.text( versions.getOldestUpdate( UpdateScope.SUBINCREMENTAL ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ).toString() );
             safeBold_();
         }
         sink.tableCell_();
 
         sink.tableCell();
-        if ( versions.getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
         {
             safeBold();
-            sink.text( versions.getOldestUpdate( UpdateScope.INCREMENTAL ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.INCREMENTAL ).toString() );
             safeBold_();
         }
         sink.tableCell_();
 
         sink.tableCell();
-        if ( versions.getOldestUpdate( UpdateScope.MINOR ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.MINOR ) != null )
         {
             safeBold();
-            sink.text( versions.getOldestUpdate( UpdateScope.MINOR ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.MINOR ).toString() );
             safeBold_();
         }
         sink.tableCell_();
 
         sink.tableCell();
-        if ( versions.getOldestUpdate( UpdateScope.MAJOR ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.MAJOR ) != null )
         {
             safeBold();
-            sink.text( versions.getOldestUpdate( UpdateScope.MAJOR ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.MAJOR ).toString() );
             safeBold_();
         }
         sink.tableCell_();
@@ -614,27 +675,28 @@ public abstract class AbstractVersionsReportRenderer
         sink.tableHeaderCell_();
         sink.tableCell( cellAttributes );
         VersionRange range = null;
-        ArtifactVersion[] artifactVersions = versions.getAllUpdates( UpdateScope.ANY );
+        final UpdatesSummary summary = new UpdatesSummary( versions );
+        ArtifactVersion[] artifactVersions = summary.getAllUpdates();
         Set<String> rangeVersions = getVersionsInRange( property, versions, artifactVersions );
-        if ( versions.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
             sink.text( getText( "report.otherUpdatesAvailable" ) );
         }
-        else if ( versions.getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
+        else if ( summary.getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
             sink.text( getText( "report.incrementalUpdatesAvailable" ) );
         }
-        else if ( versions.getOldestUpdate( UpdateScope.MINOR ) != null )
+        else if ( summary.getOldestUpdate( UpdateScope.MINOR ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
             sink.text( getText( "report.minorUpdatesAvailable" ) );
         }
-        else if ( versions.getOldestUpdate( UpdateScope.MAJOR ) != null )
+        else if ( summary.getOldestUpdate( UpdateScope.MAJOR ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
@@ -679,7 +741,7 @@ public abstract class AbstractVersionsReportRenderer
         sink.text( getText( "report.currentVersion" ) );
         sink.tableHeaderCell_();
         sink.tableCell( cellAttributes );
-        sink.text( versions.getCurrentVersion().toString() );
+        sink.text( summary.getCurrentVersion().toString() );
         sink.tableCell_();
         sink.tableRow_();
         if ( artifactVersions.length > 0 )
@@ -697,13 +759,13 @@ public abstract class AbstractVersionsReportRenderer
                     sink.lineBreak();
                 }
                 boolean allowed = ( rangeVersions.contains( artifactVersions[i].toString() ) );
-                boolean bold = equals( artifactVersions[i], versions.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) )
-                    || equals( artifactVersions[i], versions.getOldestUpdate( UpdateScope.INCREMENTAL ) )
-                    || equals( artifactVersions[i], versions.getNewestUpdate( UpdateScope.INCREMENTAL ) )
-                    || equals( artifactVersions[i], versions.getOldestUpdate( UpdateScope.MINOR ) )
-                    || equals( artifactVersions[i], versions.getNewestUpdate( UpdateScope.MINOR ) )
-                    || equals( artifactVersions[i], versions.getOldestUpdate( UpdateScope.MAJOR ) )
-                    || equals( artifactVersions[i], versions.getNewestUpdate( UpdateScope.MAJOR ) );
+                boolean bold = equals( artifactVersions[i], summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) )
+                    || equals( artifactVersions[i], summary.getOldestUpdate( UpdateScope.INCREMENTAL ) )
+                    || equals( artifactVersions[i], summary.getNewestUpdate( UpdateScope.INCREMENTAL ) )
+                    || equals( artifactVersions[i], summary.getOldestUpdate( UpdateScope.MINOR ) )
+                    || equals( artifactVersions[i], summary.getNewestUpdate( UpdateScope.MINOR ) )
+                    || equals( artifactVersions[i], summary.getOldestUpdate( UpdateScope.MAJOR ) )
+                    || equals( artifactVersions[i], summary.getNewestUpdate( UpdateScope.MAJOR ) );
                 if ( !allowed )
                 {
                     sink.text( "* " );
@@ -722,31 +784,31 @@ public abstract class AbstractVersionsReportRenderer
                     }
                     sink.nonBreakingSpace();
                     safeItalic();
-                    if ( equals( artifactVersions[i], versions.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) ) )
+                    if ( equals( artifactVersions[i], summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) ) )
                     {
                         sink.text( getText( "report.nextVersion" ) );
                     }
-                    else if ( equals( artifactVersions[i], versions.getOldestUpdate( UpdateScope.INCREMENTAL ) ) )
+                    else if ( equals( artifactVersions[i], summary.getOldestUpdate( UpdateScope.INCREMENTAL ) ) )
                     {
                         sink.text( getText( "report.nextIncremental" ) );
                     }
-                    else if ( equals( artifactVersions[i], versions.getNewestUpdate( UpdateScope.INCREMENTAL ) ) )
+                    else if ( equals( artifactVersions[i], summary.getNewestUpdate( UpdateScope.INCREMENTAL ) ) )
                     {
                         sink.text( getText( "report.latestIncremental" ) );
                     }
-                    else if ( equals( artifactVersions[i], versions.getOldestUpdate( UpdateScope.MINOR ) ) )
+                    else if ( equals( artifactVersions[i], summary.getOldestUpdate( UpdateScope.MINOR ) ) )
                     {
                         sink.text( getText( "report.nextMinor" ) );
                     }
-                    else if ( equals( artifactVersions[i], versions.getNewestUpdate( UpdateScope.MINOR ) ) )
+                    else if ( equals( artifactVersions[i], summary.getNewestUpdate( UpdateScope.MINOR ) ) )
                     {
                         sink.text( getText( "report.latestMinor" ) );
                     }
-                    else if ( equals( artifactVersions[i], versions.getOldestUpdate( UpdateScope.MAJOR ) ) )
+                    else if ( equals( artifactVersions[i], summary.getOldestUpdate( UpdateScope.MAJOR ) ) )
                     {
                         sink.text( getText( "report.nextMajor" ) );
                     }
-                    else if ( equals( artifactVersions[i], versions.getNewestUpdate( UpdateScope.MAJOR ) ) )
+                    else if ( equals( artifactVersions[i], summary.getNewestUpdate( UpdateScope.MAJOR ) ) )
                     {
                         sink.text( getText( "report.latestMajor" ) );
                     }
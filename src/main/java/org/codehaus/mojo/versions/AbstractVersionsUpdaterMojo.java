@@ -45,6 +45,8 @@ import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.mojo.versions.api.PropertyVersions;
 import org.codehaus.mojo.versions.api.VersionsHelper;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.mojo.versions.utils.Instrumentation;
+import org.codehaus.mojo.versions.utils.MetadataSources;
 import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.WriterFactory;
@@ -131,7 +133,7 @@ public abstract class AbstractVersionsUpdaterMojo
      * @since 1.0-alpha-3
      */
     @Component
-    private WagonManager wagonManager;
+    protected WagonManager wagonManager;
 
     /**
      * @since 1.0-alpha-3
@@ -155,6 +157,78 @@ public abstract class AbstractVersionsUpdaterMojo
     @Parameter(property = "maven.version.rules")
     private String rulesUri;
 
+    /**
+     * A repository on the local file system, in the default layout, to read the available versions of artifacts from
+     * instead of the remote repositories, e.g. a synchronized mirror in a build without network access. The versions
+     * are read from the <code>maven-metadata*.xml</code> files of each artifact.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.metadataDirectory")
+    private File metadataDirectory;
+
+    /**
+     * An index written by <code>versions:build-index</code> to look the available versions of artifacts up in before
+     * asking the repositories.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.indexFile")
+    private File indexFile;
+
+    /**
+     * How many seconds to wait for the repositories, which are asked concurrently, to answer a lookup of the
+     * available versions of an artifact, retries included, before giving up on those which have not answered,
+     * <code>0</code> to wait as long as it takes.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.lookupTimeout", defaultValue = "60")
+    private int lookupTimeout;
+
+    /**
+     * How many times to ask a repository again, with increasing delays, after it failed to answer a lookup.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.lookupRetries", defaultValue = "2")
+    private int lookupRetries;
+
+    /**
+     * How many lookups in a row a repository may fail before it is skipped for the rest of the build, <code>0</code>
+     * to never skip it.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.lookupFailureThreshold", defaultValue = "3")
+    private int lookupFailureThreshold;
+
+    /**
+     * Whether to fail when a repository fails to answer a lookup. By default the versions found in the other
+     * repositories are used and artifacts which could not be looked up at all are left out with a warning.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.failOnLookupError", defaultValue = "false")
+    private boolean failOnLookupError;
+
+    /**
+     * Whether to log, at the end of the goal, a table of where the goal spent its time: the lookups per repository
+     * and through the versions helper, loading the rules and reading, updating and writing poms.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.timings", defaultValue = "false")
+    private boolean timings;
+
+    /**
+     * A file to write the timings of the goal to as JSON at the end of the goal, see {@link #timings}.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.timingsFile")
+    private File timingsFile;
+
     /**
      * Controls whether a backup pom should be created.
      *
@@ -176,6 +250,17 @@ public abstract class AbstractVersionsUpdaterMojo
      */
     private VersionsHelper helper;
 
+    /**
+     * Where the goal spent its time, <code>null</code> unless asked for.
+     */
+    private Instrumentation instrumentation;
+
+    /**
+     * The StAX input factory shared by every pom rewritten in this session. Looking a factory up scans the classpath
+     * for implementations, while a configured factory is thread-safe.
+     */
+    private static XMLInputFactory inputFactory;
+
     /**
      * The Maven Session.
      *
@@ -197,14 +282,76 @@ public abstract class AbstractVersionsUpdaterMojo
     {
         if ( helper == null )
         {
-            helper = new DefaultVersionsHelper( artifactFactory, artifactResolver, artifactMetadataSource,
-                                                remoteArtifactRepositories, remotePluginRepositories, localRepository,
-                                                wagonManager, settings, serverId, rulesUri, getLog(), session,
-                                                pathTranslator );
+            ArtifactMetadataSource metadataSource = getMetadataSource();
+            long start = getInstrumentation() == null ? 0 : getInstrumentation().start();
+            DefaultVersionsHelper helper =
+                new DefaultVersionsHelper( artifactFactory, artifactResolver, metadataSource,
+                                           remoteArtifactRepositories, remotePluginRepositories, localRepository,
+                                           wagonManager, settings, serverId, rulesUri, getLog(), session,
+                                           pathTranslator );
+            helper.setFailOnLookupError( failOnLookupError );
+            if ( getInstrumentation() == null )
+            {
+                this.helper = helper;
+            }
+            else
+            {
+                getInstrumentation().stop( "rules loading", start );
+                this.helper = getInstrumentation().wrap( VersionsHelper.class, helper, "helper." );
+            }
         }
         return helper;
     }
 
+    /**
+     * Returns the source of the available versions of artifacts, see {@link #metadataDirectory},
+     * {@link #indexFile} and {@link #lookupTimeout}.
+     *
+     * @return the artifact metadata source.
+     * @throws MojoExecutionException if the index cannot be read.
+     * @since 1.0.1
+     */
+    protected ArtifactMetadataSource getMetadataSource()
+        throws MojoExecutionException
+    {
+        try
+        {
+            return MetadataSources.create( artifactMetadataSource, session, metadataDirectory, indexFile,
+                                           lookupTimeout, lookupRetries, lookupFailureThreshold, failOnLookupError,
+                                           getInstrumentation(), getLog() );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Could not read the version index " + indexFile, e );
+        }
+    }
+
+    /**
+     * Returns where the goal spends its time, see {@link #timings} and {@link #timingsFile}.
+     *
+     * @return where the goal spends its time or <code>null</code> if it is not recorded.
+     * @since 1.0.1
+     */
+    protected Instrumentation getInstrumentation()
+    {
+        if ( instrumentation == null )
+        {
+            instrumentation = Instrumentation.create( timings, timingsFile );
+        }
+        return instrumentation;
+    }
+
+    /**
+     * Returns whether to fail when a repository fails to answer a lookup, see {@link #failOnLookupError}.
+     *
+     * @return whether to fail when a repository fails to answer a lookup.
+     * @since 1.0.1
+     */
+    protected boolean isFailOnLookupError()
+    {
+        return failOnLookupError;
+    }
+
     /**
      * Getter for property 'project'.
      *
@@ -242,11 +389,39 @@ public abstract class AbstractVersionsUpdaterMojo
      */
     public void execute()
         throws MojoExecutionException, MojoFailureException
+    {
+        try
+        {
+            doExecute();
+        }
+        finally
+        {
+            reportInstrumentation();
+        }
+    }
+
+    /**
+     * Executes the goal, by default updating the project's pom.
+     *
+     * @throws MojoExecutionException If things go wrong.
+     * @throws MojoFailureException If things go wrong.
+     * @since 1.0.1
+     */
+    protected void doExecute()
+        throws MojoExecutionException, MojoFailureException
     {
         File outFile = project.getFile();
         process( outFile );
     }
 
+    private void reportInstrumentation()
+    {
+        if ( instrumentation != null )
+        {
+            instrumentation.report( getLog(), timings, timingsFile );
+        }
+    }
+
     // -------------------------- OTHER METHODS --------------------------
 
     /**
@@ -305,10 +480,21 @@ public abstract class AbstractVersionsUpdaterMojo
     {
         try
         {
+            long start = getInstrumentation() == null ? 0 : getInstrumentation().start();
             StringBuilder input = PomHelper.readXmlFile( outFile );
+            if ( getInstrumentation() != null )
+            {
+                getInstrumentation().stop( "pom read", start, outFile.length() );
+            }
             ModifiedPomXMLEventReader newPom = newModifiedPomXER( input );
 
+            start = getInstrumentation() == null ? 0 : getInstrumentation().start();
             update( newPom );
+            newPom.close();
+            if ( getInstrumentation() != null )
+            {
+                getInstrumentation().stop( "pom update", start );
+            }
 
             if ( newPom.isModified() )
             {
@@ -356,19 +542,38 @@ public abstract class AbstractVersionsUpdaterMojo
     protected final ModifiedPomXMLEventReader newModifiedPomXER( StringBuilder input )
     {
         ModifiedPomXMLEventReader newPom = null;
+        long start = getInstrumentation() == null ? 0 : getInstrumentation().start();
         try
         {
-            XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
-            inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
-            newPom = new ModifiedPomXMLEventReader( input, inputFactory );
+            newPom = new ModifiedPomXMLEventReader( input, getInputFactory() );
         }
         catch ( XMLStreamException e )
         {
             getLog().error( e );
         }
+        if ( getInstrumentation() != null )
+        {
+            getInstrumentation().stop( "pom open", start, input.length() );
+        }
         return newPom;
     }
 
+    /**
+     * Gets the StAX input factory shared by all {@link ModifiedPomXMLEventReader}s, creating it on first use.
+     *
+     * @return the shared input factory.
+     */
+    private static synchronized XMLInputFactory getInputFactory()
+    {
+        if ( inputFactory == null )
+        {
+            XMLInputFactory factory = XMLInputFactory2.newInstance();
+            factory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
+            inputFactory = factory;
+        }
+        return inputFactory;
+    }
+
     /**
      * Writes a StringBuilder into a file.
      *
@@ -379,6 +584,7 @@ public abstract class AbstractVersionsUpdaterMojo
     protected final void writeFile( File outFile, StringBuilder input )
         throws IOException
     {
+        long start = getInstrumentation() == null ? 0 : getInstrumentation().start();
         Writer writer = WriterFactory.newXmlWriter( outFile );
         try
         {
@@ -387,6 +593,11 @@ public abstract class AbstractVersionsUpdaterMojo
         finally
         {
             IOUtil.close( writer );
+            PomHelper.invalidateRawModel( outFile );
+        }
+        if ( getInstrumentation() != null )
+        {
+            getInstrumentation().stop( "pom write", start, outFile.length() );
         }
     }
 
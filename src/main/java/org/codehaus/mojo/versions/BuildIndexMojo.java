@@ -0,0 +1,84 @@
+package org.codehaus.mojo.versions;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.codehaus.mojo.versions.utils.VersionIndex;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Scans a Maven repository on the local file system, e.g. a mirror, and writes the versions of every artifact into a
+ * single index file. Pointing <code>versions.indexFile</code> at the index makes the other goals look versions up in
+ * the index before asking the repositories.
+ *
+ * @since 1.0.1
+ */
+@Mojo(name = "build-index", requiresProject = false, requiresDirectInvocation = true)
+public class BuildIndexMojo
+    extends AbstractMojo
+{
+    /**
+     * The root of the repository to index, in the default layout.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.repositoryDirectory", defaultValue = "${settings.localRepository}",
+               required = true)
+    private File repositoryDirectory;
+
+    /**
+     * The index file to write.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.indexFile", defaultValue = "${basedir}/versions.idx", required = true)
+    private File indexFile;
+
+    /**
+     * Called when this mojo is executed.
+     *
+     * @throws MojoExecutionException when things go wrong.
+     */
+    public void execute()
+        throws MojoExecutionException
+    {
+        if ( !repositoryDirectory.isDirectory() )
+        {
+            throw new MojoExecutionException( repositoryDirectory + " is not a directory" );
+        }
+        getLog().info( "Indexing " + repositoryDirectory );
+        Map<String, Map<String, String>> artifacts = VersionIndex.scan( repositoryDirectory, getLog() );
+        try
+        {
+            VersionIndex.write( artifacts, indexFile );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Could not write " + indexFile, e );
+        }
+        getLog().info( "Wrote the versions of " + artifacts.size() + " artifacts to " + indexFile );
+    }
+}
@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +44,7 @@ import org.apache.maven.project.ProjectBuildingException;
 import org.codehaus.mojo.versions.api.ArtifactAssociation;
 import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.mojo.versions.api.PropertyVersions;
+import org.codehaus.mojo.versions.change.VersionChange;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
 /**
@@ -250,6 +252,7 @@ public class CompareDependenciesMojo
                                               throws MojoExecutionException, XMLStreamException
     {
         List<String> updates = new ArrayList<String>();
+        Map<Dependency, VersionChange> changes = new LinkedHashMap<Dependency, VersionChange>();
         for ( Dependency dep : dependencies )
         {
             Artifact artifact = this.toArtifact( dep );
@@ -269,17 +272,15 @@ public class CompareDependenciesMojo
                     updates.add( buf.toString() );
                     if ( !reportMode )
                     {
-                        if ( PomHelper.setDependencyVersion( pom, dep.getGroupId(), dep.getArtifactId(),
-                                                             dep.getVersion(), remoteVersion ) )
-                        {
-                            getLog().info( "Updated " + toString( dep ) + " to version " + remoteVersion );
-                        }
+                        changes.put( dep, new VersionChange( dep.getGroupId(), dep.getArtifactId(),
+                                                             dep.getVersion(), remoteVersion ) );
                     }
 
                 }
 
             }
         }
+        updateDependencyVersions( pom, changes );
 
         return updates;
 
@@ -22,8 +22,8 @@ package org.codehaus.mojo.versions;
 import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.model.Dependency;
-import org.codehaus.mojo.versions.api.ArtifactVersions;
 import org.codehaus.mojo.versions.api.UpdateScope;
+import org.codehaus.mojo.versions.api.UpdatesSummary;
 import org.codehaus.mojo.versions.utils.DependencyComparator;
 import org.codehaus.plexus.i18n.I18N;
 
@@ -38,13 +38,13 @@ public class DependencyUpdatesRenderer
     extends AbstractVersionsReportRenderer
 {
 
-    private final Map<Dependency, ArtifactVersions> dependencyUpdates;
+    private final Map<Dependency, UpdatesSummary> dependencyUpdates;
 
-    private final Map<Dependency, ArtifactVersions> dependencyManagementUpdates;
+    private final Map<Dependency, UpdatesSummary> dependencyManagementUpdates;
 
     public DependencyUpdatesRenderer( Sink sink, I18N i18n, String bundleName, Locale locale,
-                                      Map<Dependency, ArtifactVersions> dependencyUpdates,
-                                      Map<Dependency, ArtifactVersions> dependencyManagementUpdates )
+                                      Map<Dependency, UpdatesSummary> dependencyUpdates,
+                                      Map<Dependency, UpdatesSummary> dependencyManagementUpdates )
     {
         super( sink, bundleName, i18n, locale );
         this.dependencyUpdates = dependencyUpdates;
@@ -53,8 +53,8 @@ public class DependencyUpdatesRenderer
 
     protected void renderBody()
     {
-        Map<Dependency, ArtifactVersions> allUpdates =
-            new TreeMap<Dependency, ArtifactVersions>( new DependencyComparator() );
+        Map<Dependency, UpdatesSummary> allUpdates =
+            new TreeMap<Dependency, UpdatesSummary>( new DependencyComparator() );
         allUpdates.putAll( dependencyManagementUpdates );
         allUpdates.putAll( dependencyUpdates );
 
@@ -83,14 +83,14 @@ public class DependencyUpdatesRenderer
         sink.text( getText( "report.detail.text" ) );
         sink.paragraph_();
 
-        for ( Map.Entry<Dependency, ArtifactVersions> entry : allUpdates.entrySet() )
+        for ( Map.Entry<Dependency, UpdatesSummary> entry : allUpdates.entrySet() )
         {
             renderDependencyDetail( entry.getKey(), entry.getValue() );
         }
         sink.section1_();
     }
 
-    private void renderSummaryTable( String titleKey, Map<Dependency, ArtifactVersions> contents, String emptyKey )
+    private void renderSummaryTable( String titleKey, Map<Dependency, UpdatesSummary> contents, String emptyKey )
     {
         sink.section2();
         sink.sectionTitle2();
@@ -105,19 +105,19 @@ public class DependencyUpdatesRenderer
         }
         else
         {
-            renderDependencySummaryTable( contents );
+            renderDependencySummaryTable( contents.entrySet(), true, true, true );
         }
         sink.section2_();
     }
 
-    private void renderSummaryTotalsTable( Map<Dependency, ArtifactVersions> allUpdates )
+    private void renderSummaryTotalsTable( Map<Dependency, UpdatesSummary> allUpdates )
     {
         int numInc = 0;
         int numMin = 0;
         int numMaj = 0;
         int numAny = 0;
         int numCur = 0;
-        for ( ArtifactVersions details : allUpdates.values() )
+        for ( UpdatesSummary details : allUpdates.values() )
         {
             if ( details.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
             {
@@ -199,13 +199,13 @@ public class DependencyUpdatesRenderer
         sink.table_();
     }
 
-    private void renderDependencyDetail( Dependency dependency, ArtifactVersions details )
+    private void renderDependencyDetail( Dependency dependency, UpdatesSummary details )
     {
         sink.section2();
         sink.sectionTitle2();
         sink.text( ArtifactUtils.versionlessKey( dependency.getGroupId(), dependency.getArtifactId() ) );
         sink.sectionTitle2_();
-        renderDependencyDetailTable( dependency, details );
+        renderDependencyDetailTable( dependency, details, true, true, true );
         sink.section2_();
     }
 
@@ -26,7 +26,7 @@ import org.apache.maven.model.Dependency;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.reporting.MavenReportException;
-import org.codehaus.mojo.versions.api.ArtifactVersions;
+import org.codehaus.mojo.versions.api.UpdatesSummary;
 import org.codehaus.mojo.versions.utils.DependencyComparator;
 import org.codehaus.plexus.util.StringUtils;
 
@@ -82,10 +82,10 @@ public class DependencyUpdatesReport
 
         try
         {
-            Map<Dependency, ArtifactVersions> dependencyUpdates =
-                getHelper().lookupDependenciesUpdates( dependencies, false );
-            Map<Dependency, ArtifactVersions> dependencyManagementUpdates =
-                getHelper().lookupDependenciesUpdates( dependencyManagement, false );
+            Map<Dependency, UpdatesSummary> dependencyUpdates =
+                getHelper().lookupDependenciesUpdatesSummaries( dependencies, false );
+            Map<Dependency, UpdatesSummary> dependencyManagementUpdates =
+                getHelper().lookupDependenciesUpdatesSummaries( dependencyManagement, false );
             DependencyUpdatesRenderer renderer =
                 new DependencyUpdatesRenderer( sink, getI18n(), getOutputName(), locale, dependencyUpdates,
                                                dependencyManagementUpdates );
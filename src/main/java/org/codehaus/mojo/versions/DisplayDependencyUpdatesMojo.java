@@ -155,14 +155,12 @@ public class DisplayDependencyUpdatesMojo
     /**
      * @throws org.apache.maven.plugin.MojoExecutionException when things go wrong
      * @throws org.apache.maven.plugin.MojoFailureException when things go wrong in a very bad way
-     * @see org.codehaus.mojo.versions.AbstractVersionsUpdaterMojo#execute()
+     * @see org.codehaus.mojo.versions.AbstractVersionsUpdaterMojo#doExecute()
      * @since 1.0-alpha-1
      */
-    public void execute()
+    protected void doExecute()
         throws MojoExecutionException, MojoFailureException
     {
-        logInit();
-
         Set dependencyManagement = new TreeSet( new DependencyComparator() );
         if ( getProject().getDependencyManagement() != null )
         {
@@ -218,6 +216,7 @@ public class DisplayDependencyUpdatesMojo
             dependencies = removeDependencyManagment( dependencies, dependencyManagement );
         }
 
+        logInit();
         try
         {
             if ( isProcessingDependencyManagement() )
@@ -238,6 +237,10 @@ public class DisplayDependencyUpdatesMojo
         {
             throw new MojoExecutionException( e.getMessage(), e );
         }
+        finally
+        {
+            logClose();
+        }
     }
 
     private void logUpdates( Map updates, String section )
@@ -270,6 +273,8 @@ public class DisplayDependencyUpdatesMojo
                     latest = null;
                 }
             }
+            logUpdate( section, ArtifactUtils.versionlessKey( versions.getArtifact() ), current,
+                       latest == null ? null : latest.toString() );
             String right = " " + ( latest == null ? current : current + " -> " + latest.toString() );
             List t = latest == null ? usingCurrent : withUpdates;
             if ( right.length() + left.length() + 3 > INFO_PAD_SIZE )
@@ -43,10 +43,23 @@ public class DisplayParentUpdatesMojo
 {
 
     @Override
-    public void execute()
+    protected void doExecute()
         throws MojoExecutionException, MojoFailureException
     {
         logInit();
+        try
+        {
+            logParentUpdates();
+        }
+        finally
+        {
+            logClose();
+        }
+    }
+
+    private void logParentUpdates()
+        throws MojoExecutionException
+    {
         if ( getProject().getParent() == null )
         {
             logLine( false, "Project does not have a parent." );
@@ -86,6 +99,9 @@ public class DisplayParentUpdatesMojo
             throw new MojoExecutionException( e.getMessage(), e );
         }
 
+        logUpdate( "Parent", getProject().getParent().getGroupId() + ":" + getProject().getParent().getArtifactId(),
+                   currentVersion, artifactVersion == null || currentVersion.equals( artifactVersion.toString() )
+                       ? null : artifactVersion.toString() );
         if ( artifactVersion == null || currentVersion.equals( artifactVersion.toString() ) )
         {
             logLine( false, "The parent project is the latest version:" );
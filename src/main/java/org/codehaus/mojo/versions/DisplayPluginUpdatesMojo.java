@@ -53,6 +53,7 @@ import org.apache.maven.plugin.version.PluginVersionNotFoundException;
 import org.apache.maven.plugin.version.PluginVersionResolutionException;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.DefaultProjectBuilderConfiguration;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuildingException;
@@ -61,9 +62,12 @@ import org.apache.maven.project.interpolation.ModelInterpolator;
 import org.apache.maven.settings.Settings;
 import org.codehaus.mojo.versions.api.ArtifactVersions;
 import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.api.VersionsHelper;
 import org.codehaus.mojo.versions.ordering.MavenVersionComparator;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.mojo.versions.utils.Instrumentation;
 import org.codehaus.mojo.versions.utils.PluginComparator;
+import org.codehaus.mojo.versions.utils.PrerequisitesIndex;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.ReaderFactory;
@@ -71,6 +75,7 @@ import org.codehaus.plexus.util.StringUtils;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.XMLEvent;
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringWriter;
@@ -88,11 +93,14 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.Stack;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -129,6 +137,14 @@ public class DisplayPluginUpdatesMojo
      */
     private static final String FROM_SUPER_POM = "(from super-pom) ";
 
+    /**
+     * The lifecycle analysis shared by all executions within a build, so that a reactor of many modules does not
+     * resolve the same lifecycle mappings and plugin descriptors for every module.
+     *
+     * @since 1.0.1
+     */
+    private static final Map<MavenSession, SessionCache> SESSION_CACHES = new WeakHashMap<MavenSession, SessionCache>();
+
     /**
      * @since 1.0-alpha-1
      */
@@ -156,6 +172,15 @@ public class DisplayPluginUpdatesMojo
     @Component
     private RuntimeInformation runtimeInformation;
 
+    /**
+     * The file caching the minimum Maven version required by each plugin release between runs. Defaults to a file in
+     * the local repository.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.prerequisitesCache")
+    private File prerequisitesCache;
+
     // --------------------- GETTER / SETTER METHODS ---------------------
 
     /**
@@ -172,12 +197,7 @@ public class DisplayPluginUpdatesMojo
             getLog().debug( "Using Maven 3.x strategy to determine superpom defined plugins" );
             try
             {
-                Method getPluginsBoundByDefaultToAllLifecycles =
-                    LifecycleExecutor.class.getMethod( "getPluginsBoundByDefaultToAllLifecycles",
-                                                       new Class[] { String.class } );
-                Set<Plugin> plugins =
-                    (Set<Plugin>) getPluginsBoundByDefaultToAllLifecycles.invoke( lifecycleExecutor, new Object[] {
-                        getProject().getPackaging() } );
+                Set<Plugin> plugins = getPluginsBoundByDefaultToAllLifecycles( getProject().getPackaging() );
                 // we need to provide a copy with the version blanked out so that inferring from super-pom
                 // works as for 2.x as 3.x fills in the version on us!
                 Map<String, String> result = new LinkedHashMap<String, String>( plugins.size() );
@@ -365,13 +385,26 @@ public class DisplayPluginUpdatesMojo
     /**
      * @throws MojoExecutionException when things go wrong
      * @throws MojoFailureException when things go wrong in a very bad way
-     * @see AbstractVersionsUpdaterMojo#execute()
+     * @see AbstractVersionsUpdaterMojo#doExecute()
      * @since 1.0-alpha-1
      */
-    public void execute()
+    protected void doExecute()
         throws MojoExecutionException, MojoFailureException
     {
         logInit();
+        try
+        {
+            logPluginUpdates();
+        }
+        finally
+        {
+            logClose();
+        }
+    }
+
+    private void logPluginUpdates()
+        throws MojoExecutionException, MojoFailureException
+    {
         Set<String> pluginsWithVersionsSpecified;
         try
         {
@@ -400,70 +433,7 @@ public class DisplayPluginUpdatesMojo
             getLog().debug( "Processing parent: " + parentProject.getGroupId() + ":" + parentProject.getArtifactId()
                 + ":" + parentProject.getVersion() + " -> " + parentProject.getFile() );
 
-            StringWriter writer = new StringWriter();
-            boolean havePom = false;
-            Model interpolatedModel;
-            try
-            {
-                Model originalModel = parentProject.getOriginalModel();
-                if ( originalModel == null )
-                {
-                    getLog().warn( "project.getOriginalModel()==null for  " + parentProject.getGroupId() + ":"
-                        + parentProject.getArtifactId() + ":" + parentProject.getVersion()
-                        + " is null, substituting project.getModel()" );
-                    originalModel = parentProject.getModel();
-                }
-                try
-                {
-                    new MavenXpp3Writer().write( writer, originalModel );
-                    writer.close();
-                    havePom = true;
-                }
-                catch ( IOException e )
-                {
-                    // ignore
-                }
-                interpolatedModel = modelInterpolator.interpolate( originalModel, null,
-                                                                   new DefaultProjectBuilderConfiguration().setExecutionProperties( getProject().getProperties() ),
-                                                                   false );
-            }
-            catch ( ModelInterpolationException e )
-            {
-                throw new MojoExecutionException( e.getMessage(), e );
-            }
-            if ( havePom )
-            {
-                try
-                {
-                    Set<String> withVersionSpecified =
-                        findPluginsWithVersionsSpecified( new StringBuilder( writer.toString() ) );
-                    Map<String, String> map = getPluginManagement( interpolatedModel );
-                    map.keySet().retainAll( withVersionSpecified );
-                    parentPluginManagement.putAll( map );
-
-                    map = getBuildPlugins( interpolatedModel, true );
-                    map.keySet().retainAll( withVersionSpecified );
-                    parentPluginManagement.putAll( map );
-
-                    map = getReportPlugins( interpolatedModel, true );
-                    map.keySet().retainAll( withVersionSpecified );
-                    parentPluginManagement.putAll( map );
-                }
-                catch ( IOException e )
-                {
-                    throw new MojoExecutionException( e.getMessage(), e );
-                }
-                catch ( XMLStreamException e )
-                {
-                    throw new MojoExecutionException( e.getMessage(), e );
-                }
-            }
-            else
-            {
-                parentPluginManagement.putAll( getPluginManagement( interpolatedModel ) );
-                parentPluginManagement.putAll( getBuildPlugins( interpolatedModel, true ) );
-                parentPluginManagement.putAll( getReportPlugins( interpolatedModel, true ) );
-            }
+            parentPluginManagement.putAll( getParentPluginVersions( parentProject ) );
         }
 
         Set<Plugin> plugins = getProjectPlugins( superPomPluginManagement, parentPluginManagement, parentBuildPlugins,
@@ -476,6 +446,7 @@ public class DisplayPluginUpdatesMojo
         ArtifactVersion specMavenVersion = new DefaultArtifactVersion( getRequiredMavenVersion( getProject(), "2.0" ) );
         ArtifactVersion minMavenVersion = null;
         boolean superPomDrivingMinVersion = false;
+        PrerequisitesIndex prerequisites = newPrerequisitesIndex();
         Iterator<Plugin> i = plugins.iterator();
         while ( i.hasNext() )
         {
@@ -514,88 +485,54 @@ public class DisplayPluginUpdatesMojo
                 ArtifactVersion[] newerVersions =
                     artifactVersions.getVersions( Boolean.TRUE.equals( this.allowSnapshots ) );
                 ArtifactVersion minRequires = null;
-                for ( int j = newerVersions.length - 1; j >= 0; j-- )
+                int j = newerVersions.length - 1;
+                while ( j >= 0 )
                 {
-                    Artifact probe = artifactFactory.createDependencyArtifact( groupId, artifactId,
-                                                                               VersionRange.createFromVersion( newerVersions[j].toString() ),
-                                                                               "pom", null, "runtime" );
-                    try
+                    ArtifactVersion requires =
+                        getRequiredMavenVersion( prerequisites, groupId, artifactId, newerVersions[j] );
+                    if ( requires == null )
                     {
-                        getHelper().resolveArtifact( probe, true );
-                        MavenProject mavenProject =
-                            projectBuilder.buildFromRepository( probe, remotePluginRepositories, localRepository );
-                        ArtifactVersion requires =
-                            new DefaultArtifactVersion( getRequiredMavenVersion( mavenProject, "2.0" ) );
-                        if ( specMavenVersion.compareTo( requires ) >= 0 && artifactVersion == null )
-                        {
-                            artifactVersion = newerVersions[j];
-                        }
-                        if ( effectiveVersion == null && curMavenVersion.compareTo( requires ) >= 0 )
-                        {
-                            // version was unspecified, current version of maven thinks it should use this
-                            effectiveVersion = newerVersions[j].toString();
-                        }
-                        if ( artifactVersion != null && effectiveVersion != null )
-                        {
-                            // no need to look at any older versions.
-                            break;
-                        }
-                        if ( minRequires == null || minRequires.compareTo( requires ) > 0 )
-                        {
-                            Map<String, String> upgradePlugins = upgrades.get( requires );
-                            if ( upgradePlugins == null )
-                            {
-                                upgrades.put( requires, upgradePlugins = new LinkedHashMap<String, String>() );
-                            }
-                            String upgradePluginKey = compactKey( groupId, artifactId );
-                            if ( !upgradePlugins.containsKey( upgradePluginKey ) )
-                            {
-                                upgradePlugins.put( upgradePluginKey, newerVersions[j].toString() );
-                            }
-                            minRequires = requires;
-                        }
+                        // ignore bad version
+                        j--;
+                        continue;
                     }
-                    catch ( ArtifactResolutionException e )
+                    if ( specMavenVersion.compareTo( requires ) >= 0 && artifactVersion == null )
                     {
-                        // ignore bad version
+                        artifactVersion = newerVersions[j];
                     }
-                    catch ( ArtifactNotFoundException e )
+                    if ( effectiveVersion == null && curMavenVersion.compareTo( requires ) >= 0 )
                     {
-                        // ignore bad version
+                        // version was unspecified, current version of maven thinks it should use this
+                        effectiveVersion = newerVersions[j].toString();
                     }
-                    catch ( ProjectBuildingException e )
+                    if ( artifactVersion != null && effectiveVersion != null )
                     {
-                        // ignore bad version
+                        // no need to look at any older versions.
+                        break;
                     }
-                }
-                if ( effectiveVersion != null )
-                {
-                    VersionRange currentVersionRange = VersionRange.createFromVersion( effectiveVersion );
-                    Artifact probe = artifactFactory.createDependencyArtifact( groupId, artifactId, currentVersionRange,
-                                                                               "pom", null, "runtime" );
-                    try
+                    if ( minRequires == null || minRequires.compareTo( requires ) > 0 )
                     {
-                        getHelper().resolveArtifact( probe, true );
-                        MavenProject mavenProject =
-                            projectBuilder.buildFromRepository( probe, remotePluginRepositories, localRepository );
-                        ArtifactVersion requires =
-                            new DefaultArtifactVersion( getRequiredMavenVersion( mavenProject, "2.0" ) );
-                        if ( minMavenVersion == null || minMavenVersion.compareTo( requires ) < 0 )
+                        Map<String, String> upgradePlugins = upgrades.get( requires );
+                        if ( upgradePlugins == null )
                         {
-                            minMavenVersion = requires;
+                            upgrades.put( requires, upgradePlugins = new LinkedHashMap<String, String>() );
                         }
+                        String upgradePluginKey = compactKey( groupId, artifactId );
+                        if ( !upgradePlugins.containsKey( upgradePluginKey ) )
+                        {
+                            upgradePlugins.put( upgradePluginKey, newerVersions[j].toString() );
+                        }
+                        minRequires = requires;
                     }
-                    catch ( ArtifactResolutionException e )
-                    {
-                        // ignore bad version
-                    }
-                    catch ( ArtifactNotFoundException e )
-                    {
-                        // ignore bad version
-                    }
-                    catch ( ProjectBuildingException e )
+                    j = findOlderRequirement( prerequisites, groupId, artifactId, newerVersions, j, requires );
+                }
+                if ( effectiveVersion != null )
+                {
+                    ArtifactVersion requires = getRequiredMavenVersion( prerequisites, groupId, artifactId,
+                                                                        new DefaultArtifactVersion( effectiveVersion ) );
+                    if ( requires != null && ( minMavenVersion == null || minMavenVersion.compareTo( requires ) < 0 ) )
                     {
-                        // ignore bad version
+                        minMavenVersion = requires;
                     }
                 }
             }
@@ -654,8 +591,14 @@ public class DisplayPluginUpdatesMojo
             {
                 newVersion = null;
             }
-            if ( version != null && artifactVersion != null && newVersion != null && effectiveVersion != null
-                && new DefaultArtifactVersion( effectiveVersion ).compareTo( new DefaultArtifactVersion( newVersion ) ) < 0 )
+            boolean updated = version != null && artifactVersion != null && newVersion != null
+                && effectiveVersion != null
+                && new DefaultArtifactVersion( effectiveVersion ).compareTo( new DefaultArtifactVersion( newVersion ) ) < 0;
+            if ( effectiveVersion != null )
+            {
+                logUpdate( "Plugins", groupId + ":" + artifactId, effectiveVersion, updated ? newVersion : null );
+            }
+            if ( updated )
             {
                 StringBuilder buf = new StringBuilder( compactKey( groupId, artifactId ) );
                 buf.append( ' ' );
@@ -671,6 +614,7 @@ public class DisplayPluginUpdatesMojo
                 updates.add( buf.toString() );
             }
         }
+        prerequisites.save();
         logLine( false, "" );
         if ( updates.isEmpty() )
         {
@@ -808,6 +752,149 @@ public class DisplayPluginUpdatesMojo
         logLine( false, "" );
     }
 
+    /**
+     * Returns the plugin versions a parent project defines explicitly, from its pluginManagement, build plugins and
+     * report plugins after interpolation. The analysis is shared by all modules with the same parent.
+     *
+     * @param parentProject the parent project.
+     * @return the plugin versions keyed by coordinates.
+     * @throws MojoExecutionException when things go wrong.
+     */
+    private Map<String, String> getParentPluginVersions( MavenProject parentProject )
+        throws MojoExecutionException
+    {
+        String key = parentProject.getGroupId() + ":" + parentProject.getArtifactId() + ":"
+            + parentProject.getVersion() + " -> " + parentProject.getFile();
+        SessionCache cache = getSessionCache();
+        ParentPlugins parent;
+        synchronized ( cache.parentPlugins )
+        {
+            parent = cache.parentPlugins.get( key );
+            if ( parent == null )
+            {
+                Instrumentation.miss( "parent plugins" );
+                parent = new ParentPlugins();
+                cache.parentPlugins.put( key, parent );
+            }
+            else
+            {
+                Instrumentation.hit( "parent plugins" );
+            }
+        }
+
+        Properties executionProperties = new Properties();
+        executionProperties.putAll( getProject().getProperties() );
+        synchronized ( parent )
+        {
+            Map<String, String> result = parent.pluginVersions.get( executionProperties );
+            if ( result != null )
+            {
+                return result;
+            }
+
+            Model originalModel = parentProject.getOriginalModel();
+            boolean haveOriginalModel = originalModel != null;
+            if ( !haveOriginalModel )
+            {
+                getLog().warn( "project.getOriginalModel()==null for  " + parentProject.getGroupId() + ":"
+                    + parentProject.getArtifactId() + ":" + parentProject.getVersion()
+                    + " is null, substituting project.getModel()" );
+                originalModel = parentProject.getModel();
+            }
+            if ( !parent.analyzed )
+            {
+                parent.withVersionSpecified = findPluginsWithVersionsSpecified( parentProject, originalModel,
+                                                                                haveOriginalModel );
+                parent.analyzed = true;
+            }
+
+            Model interpolatedModel;
+            try
+            {
+                interpolatedModel = modelInterpolator.interpolate( originalModel, null,
+                                                                   new DefaultProjectBuilderConfiguration().setExecutionProperties( executionProperties ),
+                                                                   false );
+            }
+            catch ( ModelInterpolationException e )
+            {
+                throw new MojoExecutionException( e.getMessage(), e );
+            }
+
+            result = new HashMap<String, String>();
+            Map<String, String> map = getPluginManagement( interpolatedModel );
+            if ( parent.withVersionSpecified != null )
+            {
+                map.keySet().retainAll( parent.withVersionSpecified );
+            }
+            result.putAll( map );
+
+            map = getBuildPlugins( interpolatedModel, true );
+            if ( parent.withVersionSpecified != null )
+            {
+                map.keySet().retainAll( parent.withVersionSpecified );
+            }
+            result.putAll( map );
+
+            map = getReportPlugins( interpolatedModel, true );
+            if ( parent.withVersionSpecified != null )
+            {
+                map.keySet().retainAll( parent.withVersionSpecified );
+            }
+            result.putAll( map );
+
+            result = Collections.unmodifiableMap( result );
+            parent.pluginVersions.put( executionProperties, result );
+            return result;
+        }
+    }
+
+    /**
+     * Returns the coordinates of the plugins a parent project gives a version, reading its pom file when that is what
+     * the original model was read from and only serializing the model otherwise.
+     *
+     * @param parentProject the parent project.
+     * @param originalModel the model to analyze.
+     * @param haveOriginalModel whether the model is the original model of the project.
+     * @return the coordinates of the plugins with a version or <code>null</code> if the model cannot be analyzed.
+     * @throws MojoExecutionException when things go wrong.
+     */
+    private Set<String> findPluginsWithVersionsSpecified( MavenProject parentProject, Model originalModel,
+                                                          boolean haveOriginalModel )
+        throws MojoExecutionException
+    {
+        StringBuilder pomContents;
+        try
+        {
+            if ( haveOriginalModel && parentProject.getFile() != null && parentProject.getFile().isFile() )
+            {
+                pomContents = PomHelper.readXmlFile( parentProject.getFile() );
+            }
+            else
+            {
+                StringWriter writer = new StringWriter();
+                new MavenXpp3Writer().write( writer, originalModel );
+                writer.close();
+                pomContents = new StringBuilder( writer.toString() );
+            }
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+        try
+        {
+            return findPluginsWithVersionsSpecified( pomContents );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( e.getMessage(), e );
+        }
+        catch ( XMLStreamException e )
+        {
+            throw new MojoExecutionException( e.getMessage(), e );
+        }
+    }
+
     private String compactKey( String groupId, String artifactId )
     {
         if ( PomHelper.APACHE_MAVEN_PLUGINS_GROUPID.equals( groupId ) )
@@ -818,6 +905,129 @@ public class DisplayPluginUpdatesMojo
         return groupId + ":" + artifactId;
     }
 
+    /**
+     * Creates the index of the minimum Maven version required by plugin releases, reading only the
+     * <code>prerequisites</code> of their poms where possible.
+     *
+     * @return the index.
+     * @throws MojoExecutionException when things go wrong.
+     */
+    private PrerequisitesIndex newPrerequisitesIndex()
+        throws MojoExecutionException
+    {
+        final VersionsHelper helper = getHelper();
+        File cacheFile = prerequisitesCache;
+        if ( cacheFile == null && localRepository != null && localRepository.getBasedir() != null )
+        {
+            cacheFile = new File( localRepository.getBasedir(),
+                                  ".cache/versions-maven-plugin/prerequisites.properties" );
+        }
+        return new PrerequisitesIndex( new PrerequisitesIndex.PomSource()
+        {
+            public File getPom( String groupId, String artifactId, String version )
+            {
+                Artifact probe = createPomArtifact( groupId, artifactId, version );
+                try
+                {
+                    helper.resolveArtifact( probe, true );
+                    return probe.getFile();
+                }
+                catch ( ArtifactResolutionException e )
+                {
+                    return null;
+                }
+                catch ( ArtifactNotFoundException e )
+                {
+                    return null;
+                }
+            }
+
+            public String buildRequiredMavenVersion( String groupId, String artifactId, String version )
+            {
+                Artifact probe = createPomArtifact( groupId, artifactId, version );
+                try
+                {
+                    helper.resolveArtifact( probe, true );
+                    MavenProject mavenProject =
+                        projectBuilder.buildFromRepository( probe, remotePluginRepositories, localRepository );
+                    return getRequiredMavenVersion( mavenProject, "" );
+                }
+                catch ( ArtifactResolutionException e )
+                {
+                    return null;
+                }
+                catch ( ArtifactNotFoundException e )
+                {
+                    return null;
+                }
+                catch ( ProjectBuildingException e )
+                {
+                    return null;
+                }
+            }
+        }, cacheFile, getLog() );
+    }
+
+    private Artifact createPomArtifact( String groupId, String artifactId, String version )
+    {
+        return artifactFactory.createDependencyArtifact( groupId, artifactId, VersionRange.createFromVersion( version ),
+                                                         "pom", null, "runtime" );
+    }
+
+    /**
+     * Returns the minimum version of Maven required by a plugin release.
+     *
+     * @return the minimum version of Maven or <code>null</code> if the release cannot be resolved.
+     */
+    private ArtifactVersion getRequiredMavenVersion( PrerequisitesIndex prerequisites, String groupId,
+                                                     String artifactId, ArtifactVersion version )
+    {
+        String required = prerequisites.getRequiredMavenVersion( groupId, artifactId, version.toString(), "2.0" );
+        return required == null ? null : new DefaultArtifactVersion( required );
+    }
+
+    /**
+     * Finds the newest release older than <code>versions[end]</code> which requires an older version of Maven than
+     * <code>requires</code>. Newer releases of a plugin never require an older version of Maven, so this is a binary
+     * search, skipping releases which cannot be resolved.
+     *
+     * @return the index of the release or <code>-1</code> if there is none.
+     */
+    private int findOlderRequirement( PrerequisitesIndex prerequisites, String groupId, String artifactId,
+                                      ArtifactVersion[] versions, int end, ArtifactVersion requires )
+    {
+        int low = 0;
+        int high = end - 1;
+        int result = -1;
+        while ( low <= high )
+        {
+            int mid = ( low + high ) >>> 1;
+            int probe = mid;
+            ArtifactVersion probeRequires = null;
+            while ( probe >= low
+                && ( probeRequires = getRequiredMavenVersion( prerequisites, groupId, artifactId,
+                                                              versions[probe] ) ) == null )
+            {
+                probe--;
+            }
+            if ( probeRequires == null )
+            {
+                // nothing between low and mid can be resolved
+                low = mid + 1;
+            }
+            else if ( probeRequires.compareTo( requires ) < 0 )
+            {
+                result = probe;
+                low = mid + 1;
+            }
+            else
+            {
+                high = probe - 1;
+            }
+        }
+        return result;
+    }
+
     private String getRequiredMavenVersion( MavenProject mavenProject, String defaultValue )
     {
         ArtifactVersion requiredMavenVersion = null;
@@ -838,6 +1048,79 @@ public class DisplayPluginUpdatesMojo
         return requiredMavenVersion == null ? defaultValue : requiredMavenVersion.toString();
     }
 
+    /**
+     * Returns the lifecycle analysis shared by all executions within the current build.
+     *
+     * @return the lifecycle analysis of the current build.
+     */
+    private SessionCache getSessionCache()
+    {
+        synchronized ( SESSION_CACHES )
+        {
+            SessionCache cache = SESSION_CACHES.get( session );
+            if ( cache == null )
+            {
+                cache = new SessionCache();
+                SESSION_CACHES.put( session, cache );
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * The lifecycle analysis of one build.
+     */
+    private static final class SessionCache
+    {
+        /**
+         * The plugins Maven 3.x binds by default, keyed by packaging.
+         */
+        private final Map<String, Set<Plugin>> boundPlugins = new ConcurrentHashMap<String, Set<Plugin>>();
+
+        /**
+         * The lifecycle mappings keyed by {@link #getLifecycleMappingKey(MavenProject, Lifecycle)}.
+         */
+        private final Map<String, Map> mappings = new ConcurrentHashMap<String, Map>();
+
+        /**
+         * The optional mojos keyed by {@link #getLifecycleMappingKey(MavenProject, Lifecycle)}.
+         */
+        private final Map<String, List<String>> optionalMojos = new ConcurrentHashMap<String, List<String>>();
+
+        /**
+         * The plugin descriptors keyed by plugin key and version.
+         */
+        private final Map<String, PluginDescriptor> pluginDescriptors =
+            new ConcurrentHashMap<String, PluginDescriptor>();
+
+        /**
+         * The plugin analysis of parent projects keyed by coordinates and file.
+         */
+        private final Map<String, ParentPlugins> parentPlugins = new HashMap<String, ParentPlugins>();
+
+        private volatile List lifecycles;
+
+        private volatile Map phaseToLifecycleMap;
+    }
+
+    /**
+     * The plugin analysis of one parent project.
+     */
+    private static final class ParentPlugins
+    {
+        private boolean analyzed;
+
+        /**
+         * The coordinates of the plugins with a version, <code>null</code> if the pom could not be read.
+         */
+        private Set<String> withVersionSpecified;
+
+        /**
+         * The interpolated plugin versions keyed by the execution properties used for interpolation.
+         */
+        private final Map<Properties, Map<String, String>> pluginVersions = new HashMap<Properties, Map<String, String>>();
+    }
+
     private static final class StackState
     {
         private final String path;
@@ -1075,12 +1358,8 @@ public class DisplayPluginUpdatesMojo
             getLog().debug( "Using Maven 3.0+ strategy to determine lifecycle defined plugins" );
             try
             {
-                Method getPluginsBoundByDefaultToAllLifecycles =
-                    LifecycleExecutor.class.getMethod( "getPluginsBoundByDefaultToAllLifecycles",
-                                                       new Class[] { String.class } );
-                Set<Plugin> plugins =
-                    (Set<Plugin>) getPluginsBoundByDefaultToAllLifecycles.invoke( lifecycleExecutor, new Object[] {
-                        project.getPackaging() == null ? "jar" : project.getPackaging() } );
+                Set<Plugin> plugins = getPluginsBoundByDefaultToAllLifecycles(
+                    project.getPackaging() == null ? "jar" : project.getPackaging() );
                 // we need to provide a copy with the version blanked out so that inferring from super-pom
                 // works as for 2.x as 3.x fills in the version on us!
                 Set<Plugin> result = new LinkedHashSet<Plugin>( plugins.size() );
@@ -1149,6 +1428,37 @@ public class DisplayPluginUpdatesMojo
         return allPlugins;
     }
 
+    /**
+     * Gets the plugins Maven 3.x binds to all lifecycles of a packaging, looking them up once per build.
+     *
+     * @param packaging the packaging.
+     * @return the plugins, which must not be modified.
+     * @throws NoSuchMethodException if not running on Maven 3.x.
+     * @throws InvocationTargetException if the lookup fails.
+     * @throws IllegalAccessException if the lookup fails.
+     */
+    private Set<Plugin> getPluginsBoundByDefaultToAllLifecycles( String packaging )
+        throws NoSuchMethodException, InvocationTargetException, IllegalAccessException
+    {
+        SessionCache cache = getSessionCache();
+        Set<Plugin> plugins = cache.boundPlugins.get( packaging );
+        if ( plugins == null )
+        {
+            Instrumentation.miss( "default plugin bindings" );
+            Method getPluginsBoundByDefaultToAllLifecycles =
+                LifecycleExecutor.class.getMethod( "getPluginsBoundByDefaultToAllLifecycles",
+                                                   new Class[] { String.class } );
+            plugins = (Set<Plugin>) getPluginsBoundByDefaultToAllLifecycles.invoke( lifecycleExecutor,
+                                                                                    new Object[] { packaging } );
+            cache.boundPlugins.put( packaging, plugins );
+        }
+        else
+        {
+            Instrumentation.hit( "default plugin bindings" );
+        }
+        return plugins;
+    }
+
     /**
      * Gets the lifecycle for phase.
      *
@@ -1161,7 +1471,15 @@ public class DisplayPluginUpdatesMojo
     private Lifecycle getLifecycleForPhase( List lifecycles, String phase )
         throws BuildFailureException, LifecycleExecutionException
     {
-        Lifecycle lifecycle = (Lifecycle) getPhaseToLifecycleMap( lifecycles ).get( phase );
+        SessionCache cache = getSessionCache();
+        Map phaseToLifecycleMap = cache.phaseToLifecycleMap;
+        if ( phaseToLifecycleMap == null || cache.lifecycles != lifecycles )
+        {
+            phaseToLifecycleMap = getPhaseToLifecycleMap( lifecycles );
+            cache.lifecycles = lifecycles;
+            cache.phaseToLifecycleMap = phaseToLifecycleMap;
+        }
+        Lifecycle lifecycle = (Lifecycle) phaseToLifecycleMap.get( phase );
 
         if ( lifecycle == null )
         {
@@ -1231,7 +1549,25 @@ public class DisplayPluginUpdatesMojo
     private Map findMappingsForLifecycle( MavenProject project, Lifecycle lifecycle )
         throws LifecycleExecutionException, PluginNotFoundException
     {
-        String packaging = project.getPackaging();
+        SessionCache cache = getSessionCache();
+        String key = getLifecycleMappingKey( project, lifecycle );
+        Map mappings = cache.mappings.get( key );
+        if ( mappings == null )
+        {
+            Instrumentation.miss( "lifecycle mappings" );
+            mappings = findMappingsForLifecycle( project, lifecycle, project.getPackaging() );
+            cache.mappings.put( key, mappings );
+        }
+        else
+        {
+            Instrumentation.hit( "lifecycle mappings" );
+        }
+        return mappings;
+    }
+
+    private Map findMappingsForLifecycle( MavenProject project, Lifecycle lifecycle, String packaging )
+        throws LifecycleExecutionException, PluginNotFoundException
+    {
         Map mappings = null;
 
         LifecycleMapping m = (LifecycleMapping) findExtension( project, LifecycleMapping.ROLE, packaging,
@@ -1288,7 +1624,25 @@ public class DisplayPluginUpdatesMojo
     private List<String> findOptionalMojosForLifecycle( MavenProject project, Lifecycle lifecycle )
         throws LifecycleExecutionException, PluginNotFoundException
     {
-        String packaging = project.getPackaging();
+        SessionCache cache = getSessionCache();
+        String key = getLifecycleMappingKey( project, lifecycle );
+        List<String> optionalMojos = cache.optionalMojos.get( key );
+        if ( optionalMojos == null )
+        {
+            Instrumentation.miss( "optional mojos" );
+            optionalMojos = findOptionalMojosForLifecycle( project, lifecycle, project.getPackaging() );
+            cache.optionalMojos.put( key, optionalMojos );
+        }
+        else
+        {
+            Instrumentation.hit( "optional mojos" );
+        }
+        return optionalMojos;
+    }
+
+    private List<String> findOptionalMojosForLifecycle( MavenProject project, Lifecycle lifecycle, String packaging )
+        throws LifecycleExecutionException, PluginNotFoundException
+    {
         List<String> optionalMojos = null;
 
         LifecycleMapping m = (LifecycleMapping) findExtension( project, LifecycleMapping.ROLE, packaging,
@@ -1321,6 +1675,29 @@ public class DisplayPluginUpdatesMojo
         return optionalMojos;
     }
 
+    /**
+     * Returns the key of the lifecycle mappings of a project, which depend on its packaging and on the build
+     * extensions that might define that packaging.
+     *
+     * @param project the project
+     * @param lifecycle the lifecycle
+     * @return the key
+     */
+    private String getLifecycleMappingKey( MavenProject project, Lifecycle lifecycle )
+    {
+        StringBuilder key = new StringBuilder();
+        key.append( project.getPackaging() ).append( '/' ).append( lifecycle.getId() );
+        for ( Iterator i = project.getBuildPlugins().iterator(); i.hasNext(); )
+        {
+            Plugin plugin = (Plugin) i.next();
+            if ( plugin.isExtensions() )
+            {
+                key.append( '/' ).append( plugin.getKey() ).append( ':' ).append( plugin.getVersion() );
+            }
+        }
+        return key.toString();
+    }
+
     /**
      * Find extension.
      *
@@ -1382,7 +1759,15 @@ public class DisplayPluginUpdatesMojo
     private PluginDescriptor loadPluginDescriptor( Plugin plugin, MavenProject project, MavenSession session )
         throws LifecycleExecutionException, PluginNotFoundException
     {
-        PluginDescriptor pluginDescriptor;
+        SessionCache cache = getSessionCache();
+        String key = plugin.getKey() + ":" + plugin.getVersion();
+        PluginDescriptor pluginDescriptor = cache.pluginDescriptors.get( key );
+        if ( pluginDescriptor != null )
+        {
+            Instrumentation.hit( "plugin descriptors" );
+            return pluginDescriptor;
+        }
+        Instrumentation.miss( "plugin descriptors" );
         try
         {
             pluginDescriptor = pluginManager.loadPluginDescriptor( plugin, project, session );
@@ -1416,6 +1801,10 @@ public class DisplayPluginUpdatesMojo
         {
             throw new LifecycleExecutionException( e.getMessage(), e );
         }
+        if ( pluginDescriptor != null )
+        {
+            cache.pluginDescriptors.put( key, pluginDescriptor );
+        }
         return pluginDescriptor;
     }
 
@@ -91,10 +91,23 @@ public class DisplayPropertyUpdatesMojo
 
     // -------------------------- OTHER METHODS --------------------------
 
-    public void execute()
+    protected void doExecute()
         throws MojoExecutionException, MojoFailureException
     {
         logInit();
+        try
+        {
+            logPropertyUpdates();
+        }
+        finally
+        {
+            logClose();
+        }
+    }
+
+    private void logPropertyUpdates()
+        throws MojoExecutionException
+    {
         List<String> current = new ArrayList<String>();
         List<String> updates = new ArrayList<String>();
 
@@ -114,6 +127,8 @@ public class DisplayPropertyUpdatesMojo
 
             ArtifactVersion winner = version.getNewestVersion( currentVersion, property, this.allowSnapshots,
                                                                this.reactorProjects, this.getHelper(), false );
+            logUpdate( "Properties", "${" + property.getName() + "}", currentVersion,
+                       winner == null || currentVersion.equals( winner.toString() ) ? null : winner.toString() );
 
             if ( winner != null && !currentVersion.equals( winner.toString() ) )
             {
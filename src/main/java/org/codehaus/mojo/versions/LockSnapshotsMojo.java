@@ -106,7 +106,7 @@ public class LockSnapshotsMojo
                 if ( !version.equals( lockedVersion ) )
                 {
                     if ( PomHelper.setDependencyVersion( pom, dep.getGroupId(), dep.getArtifactId(), version,
-                                                         lockedVersion ) )
+                                                         lockedVersion, getLog() ) )
                     {
                         getLog().info( "Locked " + toString( dep ) + " to version " + lockedVersion );
                     }
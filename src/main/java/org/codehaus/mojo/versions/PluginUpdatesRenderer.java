@@ -28,6 +28,7 @@ import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Plugin;
 import org.codehaus.mojo.versions.api.ArtifactVersions;
 import org.codehaus.mojo.versions.api.UpdateScope;
+import org.codehaus.mojo.versions.api.UpdatesSummary;
 import org.codehaus.mojo.versions.utils.PluginComparator;
 import org.codehaus.plexus.i18n.I18N;
 
@@ -264,6 +265,7 @@ public class PluginUpdatesRenderer
 
     private void renderPluginSummary( Plugin plugin, PluginUpdatesDetails details )
     {
+        final UpdatesSummary summary = new UpdatesSummary( details.getArtifactVersions() );
         sink.tableRow();
         sink.tableCell();
         if ( !details.isUpdateAvailable() )
@@ -294,37 +296,37 @@ public class PluginUpdatesRenderer
         sink.tableCell_();
 
         sink.tableCell();
-        if ( details.getArtifactVersions().getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
         {
             safeBold();
-            sink.text( details.getArtifactVersions().getOldestUpdate( UpdateScope.SUBINCREMENTAL ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ).toString() );
             safeBold_();
         }
         sink.tableCell_();
 
         sink.tableCell();
-        if ( details.getArtifactVersions().getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
         {
             safeBold();
-            sink.text( details.getArtifactVersions().getOldestUpdate( UpdateScope.INCREMENTAL ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.INCREMENTAL ).toString() );
             safeBold_();
         }
         sink.tableCell_();
 
         sink.tableCell();
-        if ( details.getArtifactVersions().getOldestUpdate( UpdateScope.MINOR ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.MINOR ) != null )
         {
             safeBold();
-            sink.text( details.getArtifactVersions().getOldestUpdate( UpdateScope.MINOR ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.MINOR ).toString() );
             safeBold_();
         }
         sink.tableCell_();
 
         sink.tableCell();
-        if ( details.getArtifactVersions().getOldestUpdate( UpdateScope.MAJOR ) != null )
+        if ( summary.getOldestUpdate( UpdateScope.MAJOR ) != null )
         {
             safeBold();
-            sink.text( details.getArtifactVersions().getOldestUpdate( UpdateScope.MAJOR ).toString() );
+            sink.text( summary.getOldestUpdate( UpdateScope.MAJOR ).toString() );
             safeBold_();
         }
         sink.tableCell_();
@@ -345,6 +347,7 @@ public class PluginUpdatesRenderer
 
     private void renderPluginDetail( Plugin plugin, PluginUpdatesDetails details )
     {
+        final UpdatesSummary summary = new UpdatesSummary( details.getArtifactVersions() );
         final SinkEventAttributes headerAttributes = new SinkEventAttributeSet();
         headerAttributes.addAttribute( SinkEventAttributes.WIDTH, "20%" );
         final SinkEventAttributes cellAttributes = new SinkEventAttributeSet();
@@ -361,26 +364,26 @@ public class PluginUpdatesRenderer
         sink.text( getText( "report.status" ) );
         sink.tableHeaderCell_();
         sink.tableCell( cellAttributes );
-        ArtifactVersion[] versions = details.getArtifactVersions().getAllUpdates( UpdateScope.ANY );
-        if ( details.getArtifactVersions().getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
+        ArtifactVersion[] versions = summary.getAllUpdates();
+        if ( summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
             sink.text( getText( "report.otherUpdatesAvailable" ) );
         }
-        else if ( details.getArtifactVersions().getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
+        else if ( summary.getOldestUpdate( UpdateScope.INCREMENTAL ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
             sink.text( getText( "report.incrementalUpdatesAvailable" ) );
         }
-        else if ( details.getArtifactVersions().getOldestUpdate( UpdateScope.MINOR ) != null )
+        else if ( summary.getOldestUpdate( UpdateScope.MINOR ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
             sink.text( getText( "report.minorUpdatesAvailable" ) );
         }
-        else if ( details.getArtifactVersions().getOldestUpdate( UpdateScope.MAJOR ) != null )
+        else if ( summary.getOldestUpdate( UpdateScope.MAJOR ) != null )
         {
             renderWarningIcon();
             sink.nonBreakingSpace();
@@ -431,14 +434,13 @@ public class PluginUpdatesRenderer
                 {
                     sink.lineBreak();
                 }
-                boolean bold = equals( versions[i],
-                                       details.getArtifactVersions().getOldestUpdate( UpdateScope.SUBINCREMENTAL ) )
-                    || equals( versions[i], details.getArtifactVersions().getOldestUpdate( UpdateScope.INCREMENTAL ) )
-                    || equals( versions[i], details.getArtifactVersions().getNewestUpdate( UpdateScope.INCREMENTAL ) )
-                    || equals( versions[i], details.getArtifactVersions().getOldestUpdate( UpdateScope.MINOR ) )
-                    || equals( versions[i], details.getArtifactVersions().getNewestUpdate( UpdateScope.MINOR ) )
-                    || equals( versions[i], details.getArtifactVersions().getOldestUpdate( UpdateScope.MAJOR ) )
-                    || equals( versions[i], details.getArtifactVersions().getNewestUpdate( UpdateScope.MAJOR ) );
+                boolean bold = equals( versions[i], summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) )
+                    || equals( versions[i], summary.getOldestUpdate( UpdateScope.INCREMENTAL ) )
+                    || equals( versions[i], summary.getNewestUpdate( UpdateScope.INCREMENTAL ) )
+                    || equals( versions[i], summary.getOldestUpdate( UpdateScope.MINOR ) )
+                    || equals( versions[i], summary.getNewestUpdate( UpdateScope.MINOR ) )
+                    || equals( versions[i], summary.getOldestUpdate( UpdateScope.MAJOR ) )
+                    || equals( versions[i], summary.getNewestUpdate( UpdateScope.MAJOR ) );
                 if ( bold )
                 {
                     safeBold();
@@ -449,38 +451,31 @@ public class PluginUpdatesRenderer
                     safeBold_();
                     sink.nonBreakingSpace();
                     safeItalic();
-                    if ( equals( versions[i],
-                                 details.getArtifactVersions().getOldestUpdate( UpdateScope.SUBINCREMENTAL ) ) )
+                    if ( equals( versions[i], summary.getOldestUpdate( UpdateScope.SUBINCREMENTAL ) ) )
                     {
                         sink.text( getText( "report.nextVersion" ) );
                     }
-                    else if ( equals( versions[i],
-                                      details.getArtifactVersions().getOldestUpdate( UpdateScope.INCREMENTAL ) ) )
+                    else if ( equals( versions[i], summary.getOldestUpdate( UpdateScope.INCREMENTAL ) ) )
                     {
                         sink.text( getText( "report.nextIncremental" ) );
                     }
-                    else if ( equals( versions[i],
-                                      details.getArtifactVersions().getNewestUpdate( UpdateScope.INCREMENTAL ) ) )
+                    else if ( equals( versions[i], summary.getNewestUpdate( UpdateScope.INCREMENTAL ) ) )
                     {
                         sink.text( getText( "report.latestIncremental" ) );
                     }
-                    else if ( equals( versions[i],
-                                      details.getArtifactVersions().getOldestUpdate( UpdateScope.MINOR ) ) )
+                    else if ( equals( versions[i], summary.getOldestUpdate( UpdateScope.MINOR ) ) )
                     {
                         sink.text( getText( "report.nextMinor" ) );
                     }
-                    else if ( equals( versions[i],
-                                      details.getArtifactVersions().getNewestUpdate( UpdateScope.MINOR ) ) )
+                    else if ( equals( versions[i], summary.getNewestUpdate( UpdateScope.MINOR ) ) )
                     {
                         sink.text( getText( "report.latestMinor" ) );
                     }
-                    else if ( equals( versions[i],
-                                      details.getArtifactVersions().getOldestUpdate( UpdateScope.MAJOR ) ) )
+                    else if ( equals( versions[i], summary.getOldestUpdate( UpdateScope.MAJOR ) ) )
                     {
                         sink.text( getText( "report.nextMajor" ) );
                     }
-                    else if ( equals( versions[i],
-                                      details.getArtifactVersions().getNewestUpdate( UpdateScope.MAJOR ) ) )
+                    else if ( equals( versions[i], summary.getNewestUpdate( UpdateScope.MAJOR ) ) )
                     {
                         sink.text( getText( "report.latestMajor" ) );
                     }
@@ -29,11 +29,14 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.mojo.versions.api.PropertyVersions;
+import org.codehaus.mojo.versions.change.VersionChange;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
 import javax.xml.stream.XMLStreamException;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -125,6 +128,7 @@ public class ResolveRangesMojo
     private void resolveRanges( ModifiedPomXMLEventReader pom, Collection<Dependency> dependencies )
         throws XMLStreamException, MojoExecutionException, ArtifactMetadataRetrievalException
     {
+        Map<Artifact, VersionChange> changes = new LinkedHashMap<Artifact, VersionChange>();
 
         for ( Dependency dep : dependencies )
         {
@@ -161,20 +165,28 @@ public class ResolveRangesMojo
 
                     if ( artifactVersion != null )
                     {
-                        if ( PomHelper.setDependencyVersion( pom, artifact.getGroupId(), artifact.getArtifactId(),
-                                                             dep.getVersion(), artifactVersion ) )
-                        {
-                            getLog().debug( "Version set to " + artifactVersion + " for dependency: " + artifact );
-                        }
-                        else
-                        {
-                            getLog().warn( "Could not find the dependency " + artifact + " so unable to set version to "
-                                + artifactVersion );
-                        }
+                        changes.put( artifact, new VersionChange( artifact.getGroupId(), artifact.getArtifactId(),
+                                                                  dep.getVersion(), artifactVersion ) );
                     }
                 }
             }
         }
+
+        Set<VersionChange> applied = PomHelper.setDependencyVersions( pom, changes.values(), getLog() );
+        for ( Map.Entry<Artifact, VersionChange> change : changes.entrySet() )
+        {
+            Artifact artifact = change.getKey();
+            String artifactVersion = change.getValue().getNewVersion();
+            if ( applied.contains( change.getValue() ) )
+            {
+                getLog().debug( "Version set to " + artifactVersion + " for dependency: " + artifact );
+            }
+            else
+            {
+                getLog().warn( "Could not find the dependency " + artifact + " so unable to set version to "
+                    + artifactVersion );
+            }
+        }
     }
 
     private void resolvePropertyRanges( ModifiedPomXMLEventReader pom )
@@ -28,6 +28,7 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.plexus.util.FileUtils;
 
 /**
@@ -60,6 +61,7 @@ public class RevertMojo
             try
             {
                 FileUtils.copyFile( backupFile, outFile );
+                PomHelper.invalidateRawModel( outFile );
                 FileUtils.forceDelete( backupFile );
             }
             catch ( IOException e )
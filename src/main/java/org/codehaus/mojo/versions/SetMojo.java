@@ -30,7 +30,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import java.util.regex.Pattern;
 
 import javax.xml.stream.XMLStreamException;
 
@@ -185,7 +184,7 @@ public class SetMojo
      * @throws org.apache.maven.plugin.MojoExecutionException when things go wrong.
      * @throws org.apache.maven.plugin.MojoFailureException when things go wrong.
      */
-    public void execute()
+    protected void doExecute()
         throws MojoExecutionException, MojoFailureException
     {
         if ( updateMatchingVersions == null )
@@ -282,20 +281,20 @@ public class SetMojo
 
             getLog().info( "Processing change of " + groupId + ":" + artifactId + ":" + oldVersion + " -> "
                 + newVersion );
-            Pattern groupIdRegex =
-                Pattern.compile( RegexUtils.convertWildcardsToRegex( fixNullOrEmpty( groupId, "*" ), true ) );
-            Pattern artifactIdRegex =
-                Pattern.compile( RegexUtils.convertWildcardsToRegex( fixNullOrEmpty( artifactId, "*" ), true ) );
-            Pattern oldVersionIdRegex =
-                Pattern.compile( RegexUtils.convertWildcardsToRegex( fixNullOrEmpty( oldVersion, "*" ), true ) );
+            RegexUtils.WildcardMatcher groupIdRegex =
+                RegexUtils.compileWildcards( fixNullOrEmpty( groupId, "*" ), true );
+            RegexUtils.WildcardMatcher artifactIdRegex =
+                RegexUtils.compileWildcards( fixNullOrEmpty( artifactId, "*" ), true );
+            RegexUtils.WildcardMatcher oldVersionIdRegex =
+                RegexUtils.compileWildcards( fixNullOrEmpty( oldVersion, "*" ), true );
             boolean found = false;
             for ( Model m : reactor.values() )
             {
                 final String mGroupId = PomHelper.getGroupId( m );
                 final String mArtifactId = PomHelper.getArtifactId( m );
                 final String mVersion = PomHelper.getVersion( m );
-                if ( groupIdRegex.matcher( mGroupId ).matches() && artifactIdRegex.matcher( mArtifactId ).matches()
-                    && oldVersionIdRegex.matcher( mVersion ).matches() && !newVersion.equals( mVersion ) )
+                if ( groupIdRegex.matches( mGroupId ) && artifactIdRegex.matches( mArtifactId )
+                    && oldVersionIdRegex.matches( mVersion ) && !newVersion.equals( mVersion ) )
                 {
                     found = true;
                     // if the change is not one we have swept up already
@@ -338,7 +337,10 @@ public class SetMojo
         // now fake out the triggering change
 
         final Map.Entry<String, Model> current = PomHelper.getModelEntry( reactor, groupId, artifactId );
-        current.getValue().setVersion( newVersion );
+        // the raw models are shared, so only change our own copy
+        Model currentModel = PomHelper.copyModel( current.getValue() );
+        currentModel.setVersion( newVersion );
+        reactor.put( current.getKey(), currentModel );
 
         addFile( files, project, current.getKey() );
 
@@ -408,7 +410,10 @@ public class SetMojo
                         + ":" + sourceVersion );
                     addChange( PomHelper.getGroupId( targetModel ), PomHelper.getArtifactId( targetModel ),
                                PomHelper.getVersion( targetModel ), sourceVersion );
-                    targetModel.setVersion( sourceVersion );
+                    // the raw models are shared, so only change our own copy
+                    Model changedModel = PomHelper.copyModel( targetModel );
+                    changedModel.setVersion( sourceVersion );
+                    reactor.put( targetPath, changedModel );
                 }
                 else
                 {
@@ -471,10 +476,7 @@ public class SetMojo
             VersionChanger changer = versionChangerFactory.newVersionChanger( processParent, processProject,
                                                                               processDependencies, processPlugins );
 
-            for ( VersionChange versionChange : sourceChanges )
-            {
-                changer.apply( versionChange );
-            }
+            changer.apply( sourceChanges );
         }
         catch ( IOException e )
         {
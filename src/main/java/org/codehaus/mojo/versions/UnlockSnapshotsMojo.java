@@ -107,7 +107,7 @@ public class UnlockSnapshotsMojo
             {
                 String unlockedVersion = versionMatcher.replaceFirst( "-SNAPSHOT" );
                 if ( PomHelper.setDependencyVersion( pom, dep.getGroupId(), dep.getArtifactId(), dep.getVersion(),
-                                                     unlockedVersion ) )
+                                                     unlockedVersion, getLog() ) )
                 {
                     getLog().info( "Unlocked " + toString( dep ) + " to version " + unlockedVersion );
                 }
@@ -32,11 +32,13 @@ import javax.xml.stream.XMLStreamException;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Scans the current projects child modules, updating the versions of any which use the current project to the version
@@ -50,16 +52,6 @@ public class UpdateChildModulesMojo
     extends AbstractVersionsUpdaterMojo
 {
 
-    /**
-     * The groupId that we are updating. Guarded by this.
-     */
-    private transient String sourceGroupId = null;
-
-    /**
-     * The artifactId that we are updating. Guarded by this.
-     */
-    private transient String sourceArtifactId = null;
-
     /**
      * The version that we are updating to. Guarded by this.
      */
@@ -71,127 +63,162 @@ public class UpdateChildModulesMojo
      * @throws MojoExecutionException when things go wrong.
      * @throws MojoFailureException when things go wrong.
      */
-    public void execute()
+    protected void doExecute()
         throws MojoExecutionException, MojoFailureException
     {
-
-        boolean didSomething = false;
-
+        Map<String, String> changes;
         try
         {
-            final Map reactor = PomHelper.getReactorModels( getProject(), getLog() );
-            List order = new ArrayList( reactor.keySet() );
-            Collections.sort( order, new Comparator()
+            changes = getParentVersionChanges( PomHelper.getReactorModels( getProject(), getLog() ) );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( e.getMessage(), e );
+        }
+
+        for ( Map.Entry<String, String> change : changes.entrySet() )
+        {
+            File moduleDir = new File( getProject().getBasedir(), change.getKey() );
+
+            File moduleProjectFile;
+
+            if ( moduleDir.isDirectory() )
             {
-                public int compare( Object o1, Object o2 )
-                {
-                    Model m1 = (Model) reactor.get( o1 );
-                    Model m2 = (Model) reactor.get( o2 );
-                    int d1 = PomHelper.getReactorParentCount( reactor, m1 );
-                    int d2 = PomHelper.getReactorParentCount( reactor, m2 );
-                    if ( d1 < d2 )
-                    {
-                        return -1;
-                    }
-                    else if ( d1 > d2 )
-                    {
-                        return 1;
-                    }
-                    return 0;
-                }
-            } );
+                moduleProjectFile = new File( moduleDir, "pom.xml" );
+            }
+            else
+            {
+                // i don't think this should ever happen... but just in case
+                // the module references the file-name
+                moduleProjectFile = moduleDir;
+            }
 
-            Iterator i = order.iterator();
-            while ( i.hasNext() )
+            synchronized ( this )
             {
-                String sourcePath = (String) i.next();
-                Model sourceModel = (Model) reactor.get( sourcePath );
+                sourceVersion = change.getValue();
+                process( moduleProjectFile );
+            }
+        }
 
-                getLog().debug( sourcePath.length() == 0 ? "Processing root module as parent"
-                                : "Processing " + sourcePath + " as a parent." );
+        if ( changes.isEmpty() )
+        {
+            getLog().info( "All child modules are up to date." );
+        }
+    }
 
-                synchronized ( this )
+    /**
+     * Works out the parent version every module of the reactor should end up with, from the root modules down, so
+     * that a version change cascades through a deep hierarchy in a single pass and each pom is rewritten at most once.
+     *
+     * @param reactor The models of the reactor keyed by path.
+     * @return The new parent version of every module which needs one keyed by path, parents before their children.
+     */
+    Map<String, String> getParentVersionChanges( Map<String, Model> reactor )
+    {
+        // the path of each module keyed by groupId:artifactId, and the paths of the modules using it as their parent
+        Map<String, String> paths = new HashMap<String, String>();
+        Map<String, List<String>> children = new HashMap<String, List<String>>();
+        for ( Map.Entry<String, Model> entry : reactor.entrySet() )
+        {
+            Model model = entry.getValue();
+            String groupId = PomHelper.getGroupId( model );
+            String artifactId = PomHelper.getArtifactId( model );
+            if ( groupId != null && artifactId != null
+                && !paths.containsKey( ArtifactUtils.versionlessKey( groupId, artifactId ) ) )
+            {
+                paths.put( ArtifactUtils.versionlessKey( groupId, artifactId ), entry.getKey() );
+            }
+            Parent parent = model.getParent();
+            if ( parent != null )
+            {
+                String parentKey = ArtifactUtils.versionlessKey( parent.getGroupId(), parent.getArtifactId() );
+                List<String> siblings = children.get( parentKey );
+                if ( siblings == null )
                 {
-                    sourceGroupId = PomHelper.getGroupId( sourceModel );
-                    if ( sourceGroupId == null )
-                    {
-                        getLog().warn( "Module " + sourcePath + " is missing a groupId." );
-                        continue;
-                    }
-                    sourceArtifactId = PomHelper.getArtifactId( sourceModel );
-                    if ( sourceArtifactId == null )
-                    {
-                        getLog().warn( "Module " + sourcePath + " is missing an artifactId." );
-                        continue;
-                    }
-                    sourceVersion = PomHelper.getVersion( sourceModel );
-                    if ( sourceVersion == null )
-                    {
-                        getLog().warn( "Module " + sourcePath + " is missing a version." );
-                        continue;
-                    }
-
-                    getLog().debug( "Looking for modules which use "
-                        + ArtifactUtils.versionlessKey( sourceGroupId, sourceArtifactId ) + " as their parent" );
-
-                    Iterator j =
-                        PomHelper.getChildModels( reactor, sourceGroupId, sourceArtifactId ).entrySet().iterator();
-
-                    while ( j.hasNext() )
-                    {
-                        Map.Entry target = (Map.Entry) j.next();
-                        String targetPath = (String) target.getKey();
-
-                        File moduleDir = new File( getProject().getBasedir(), targetPath );
-
-                        File moduleProjectFile;
-
-                        if ( moduleDir.isDirectory() )
-                        {
-                            moduleProjectFile = new File( moduleDir, "pom.xml" );
-                        }
-                        else
-                        {
-                            // i don't think this should ever happen... but just in case
-                            // the module references the file-name
-                            moduleProjectFile = moduleDir;
-                        }
-
-                        Model targetModel = (Model) target.getValue();
-                        final Parent parent = targetModel.getParent();
-                        if ( sourceVersion.equals( parent.getVersion() ) )
-                        {
-                            getLog().debug( "Module: " + targetPath + " parent is "
-                                + ArtifactUtils.versionlessKey( sourceGroupId, sourceArtifactId ) + ":"
-                                + sourceVersion );
-                        }
-                        else
-                        {
-                            getLog().info( "Module: " + targetPath );
-                            getLog().info( "    parent was "
-                                + ArtifactUtils.versionlessKey( sourceGroupId, sourceArtifactId ) + ":"
-                                + parent.getVersion() );
-                            getLog().info( "    updated to "
-                                + ArtifactUtils.versionlessKey( sourceGroupId, sourceArtifactId ) + ":"
-                                + sourceVersion );
-                            process( moduleProjectFile );
-                            // don't forget to update the cached model
-                            targetModel.setVersion( sourceVersion );
-                            didSomething = true;
-                        }
-                    }
+                    siblings = new ArrayList<String>();
+                    children.put( parentKey, siblings );
                 }
+                siblings.add( entry.getKey() );
             }
-
         }
-        catch ( IOException e )
+
+        LinkedList<String> queue = new LinkedList<String>();
+        Set<String> visited = new HashSet<String>();
+        for ( Map.Entry<String, Model> entry : reactor.entrySet() )
         {
-            throw new MojoExecutionException( e.getMessage(), e );
+            Parent parent = entry.getValue().getParent();
+            if ( parent == null
+                || !paths.containsKey( ArtifactUtils.versionlessKey( parent.getGroupId(), parent.getArtifactId() ) ) )
+            {
+                queue.add( entry.getKey() );
+                visited.add( entry.getKey() );
+            }
         }
-        if ( !didSomething )
+
+        Map<String, String> parentVersions = new HashMap<String, String>();
+        Map<String, String> changes = new LinkedHashMap<String, String>();
+        while ( !queue.isEmpty() )
         {
-            getLog().info( "All child modules are up to date." );
+            String sourcePath = queue.removeFirst();
+            Model sourceModel = reactor.get( sourcePath );
+
+            getLog().debug( sourcePath.length() == 0 ? "Processing root module as parent"
+                            : "Processing " + sourcePath + " as a parent." );
+
+            String sourceGroupId = PomHelper.getGroupId( sourceModel );
+            if ( sourceGroupId == null )
+            {
+                getLog().warn( "Module " + sourcePath + " is missing a groupId." );
+                continue;
+            }
+            String sourceArtifactId = PomHelper.getArtifactId( sourceModel );
+            if ( sourceArtifactId == null )
+            {
+                getLog().warn( "Module " + sourcePath + " is missing an artifactId." );
+                continue;
+            }
+            // a module inheriting its version from a parent in the reactor gets the parent's new version
+            String version = sourceModel.getVersion() == null && parentVersions.containsKey( sourcePath )
+                ? parentVersions.get( sourcePath )
+                : PomHelper.getVersion( sourceModel );
+            if ( version == null )
+            {
+                getLog().warn( "Module " + sourcePath + " is missing a version." );
+                continue;
+            }
+
+            String sourceKey = ArtifactUtils.versionlessKey( sourceGroupId, sourceArtifactId );
+            getLog().debug( "Looking for modules which use " + sourceKey + " as their parent" );
+
+            List<String> targetPaths = children.get( sourceKey );
+            if ( targetPaths == null )
+            {
+                continue;
+            }
+            for ( String targetPath : targetPaths )
+            {
+                if ( !visited.add( targetPath ) )
+                {
+                    continue;
+                }
+                queue.add( targetPath );
+                parentVersions.put( targetPath, version );
+
+                final Parent parent = reactor.get( targetPath ).getParent();
+                if ( version.equals( parent.getVersion() ) )
+                {
+                    getLog().debug( "Module: " + targetPath + " parent is " + sourceKey + ":" + version );
+                }
+                else
+                {
+                    getLog().info( "Module: " + targetPath );
+                    getLog().info( "    parent was " + sourceKey + ":" + parent.getVersion() );
+                    getLog().info( "    updated to " + sourceKey + ":" + version );
+                    changes.put( targetPath, version );
+                }
+            }
         }
+        return changes;
     }
 
     /**
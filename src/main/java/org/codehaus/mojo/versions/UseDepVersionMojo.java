@@ -90,7 +90,7 @@ public class UseDepVersionMojo extends AbstractVersionsDependencyUpdaterMojo {
 				
 				String version = dep.getVersion();
 				
-				if (PomHelper.setDependencyVersion(pom, dep.getGroupId(), dep.getArtifactId(), version, depVersion)) {
+				if (PomHelper.setDependencyVersion(pom, dep.getGroupId(), dep.getArtifactId(), version, depVersion, getLog())) {
 					getLog().info("Updated " + toString(dep) + " to version " + depVersion);
 				}
 			}
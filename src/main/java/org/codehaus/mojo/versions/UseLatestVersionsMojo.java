@@ -22,6 +22,8 @@ package org.codehaus.mojo.versions;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.stream.XMLStreamException;
 
@@ -37,6 +39,7 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.codehaus.mojo.versions.api.ArtifactVersions;
 import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.change.VersionChange;
 import org.codehaus.mojo.versions.ordering.MajorMinorIncrementalFilter;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
@@ -118,6 +121,7 @@ public class UseLatestVersionsMojo
         int segment = determineUnchangedSegment( allowMajorUpdates, allowMinorUpdates, allowIncrementalUpdates );
         MajorMinorIncrementalFilter majorMinorIncfilter =
             new MajorMinorIncrementalFilter( allowMajorUpdates, allowMinorUpdates, allowIncrementalUpdates );
+        Map<Dependency, VersionChange> changes = new LinkedHashMap<Dependency, VersionChange>();
         Iterator i = dependencies.iterator();
 
         while ( i.hasNext() )
@@ -150,13 +154,11 @@ public class UseLatestVersionsMojo
             if ( filteredVersions.length > 0 )
             {
                 String newVersion = filteredVersions[filteredVersions.length - 1].toString();
-                if ( PomHelper.setDependencyVersion( pom, dep.getGroupId(), dep.getArtifactId(), version, newVersion ) )
-                {
-                    getLog().info( "Updated " + toString( dep ) + " to version " + newVersion );
-                }
+                changes.put( dep, new VersionChange( dep.getGroupId(), dep.getArtifactId(), version, newVersion ) );
             }
 
         }
+        updateDependencyVersions( pom, changes );
     }
 
 }
@@ -20,6 +20,8 @@ package org.codehaus.mojo.versions;
  */
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.stream.XMLStreamException;
 
@@ -31,7 +33,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.project.MavenProject;
-import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.change.VersionChange;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
 /**
@@ -77,6 +79,7 @@ public class UseReactorMojo
     private void useReactor( ModifiedPomXMLEventReader pom, Collection<Dependency> dependencies )
         throws XMLStreamException, MojoExecutionException, ArtifactMetadataRetrievalException
     {
+        Map<Dependency, VersionChange> changes = new LinkedHashMap<Dependency, VersionChange>();
 
         for ( Object dependency : dependencies )
         {
@@ -95,15 +98,13 @@ public class UseReactorMojo
                     && StringUtils.equals( project.getArtifactId(), dep.getArtifactId() )
                     && !StringUtils.equals( project.getVersion(), dep.getVersion() ) )
                 {
-                    if ( PomHelper.setDependencyVersion( pom, dep.getGroupId(), dep.getArtifactId(), dep.getVersion(),
-                                                         project.getVersion() ) )
-                    {
-                        getLog().info( "Updated " + toString( dep ) + " to version " + project.getVersion() );
-                    }
+                    changes.put( dep, new VersionChange( dep.getGroupId(), dep.getArtifactId(), dep.getVersion(),
+                                                         project.getVersion() ) );
                     break;
                 }
             }
         }
+        updateDependencyVersions( pom, changes );
     }
 
 }
@@ -134,7 +134,7 @@ public class UseReleasesMojo
                     if ( versions.containsVersion( releaseVersion ) )
                     {
                         if ( PomHelper.setDependencyVersion( pom, dep.getGroupId(), dep.getArtifactId(), version,
-                                                             releaseVersion ) )
+                                                             releaseVersion, getLog() ) )
                         {
                             getLog().info( "Updated " + toString( dep ) + " to version " + releaseVersion );
                         }
@@ -161,7 +161,7 @@ public class UseReleasesMojo
                     if ( finalVersion != null )
                     {
                         if ( PomHelper.setDependencyVersion( pom, dep.getGroupId(), dep.getArtifactId(), version,
-                                                             finalVersion.toString() ) )
+                                                             finalVersion.toString(), getLog() ) )
                         {
                             getLog().info( "Updated " + toString( dep ) + " to version " + finalVersion.toString() );
                         }
@@ -0,0 +1,270 @@
+package org.codehaus.mojo.versions;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.mojo.versions.utils.RepositoryMetadataPoller;
+import org.codehaus.mojo.versions.utils.UpdatesWriter;
+import org.codehaus.plexus.util.IOUtil;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps running and polls the remote repositories for new versions of the dependencies of the reactor, appending one
+ * JSON line per new version to {@link #watchFile}. The project, the rules and the versions already seen are loaded
+ * once, and each poll after the first only transfers the <code>maven-metadata.xml</code> files which changed.
+ *
+ * @since 1.0.1
+ */
+@Mojo(name = "watch", requiresProject = true, requiresDirectInvocation = true, aggregator = true)
+public class WatchMojo
+    extends AbstractVersionsUpdaterMojo
+{
+    /**
+     * The file the new versions are appended to, as JSON Lines with the fields <code>project</code>,
+     * <code>section</code>, <code>key</code>, <code>current</code> and <code>latest</code>.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.watchFile", defaultValue = "${project.build.directory}/versions-watch.jsonl")
+    private File watchFile;
+
+    /**
+     * The number of seconds between two polls.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.watchInterval", defaultValue = "3600")
+    private int watchInterval;
+
+    /**
+     * The number of polls after which to stop, or <code>0</code> to poll until the build is interrupted.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "versions.watchPolls", defaultValue = "0")
+    private int watchPolls;
+
+    /**
+     * Called when this mojo is executed.
+     *
+     * @throws MojoExecutionException when things go wrong.
+     * @throws MojoFailureException when things go wrong.
+     */
+    protected void doExecute()
+        throws MojoExecutionException, MojoFailureException
+    {
+        if ( settings != null && settings.isOffline() )
+        {
+            throw new MojoExecutionException( "Cannot watch the remote repositories when offline" );
+        }
+
+        Map<String, Dependency> dependencies = getWatchedDependencies();
+        Map<String, Artifact> artifacts = new LinkedHashMap<String, Artifact>();
+        for ( Map.Entry<String, Dependency> entry : dependencies.entrySet() )
+        {
+            try
+            {
+                artifacts.put( entry.getKey(), getHelper().createDependencyArtifact( entry.getValue() ) );
+            }
+            catch ( InvalidVersionSpecificationException e )
+            {
+                getLog().warn( "Not watching " + entry.getKey() + ": " + e.getMessage() );
+            }
+        }
+        getLog().info( "Watching " + artifacts.size() + " artifacts, new versions are appended to " + watchFile );
+
+        List<ArtifactRepository> repositories = new ArrayList<ArtifactRepository>();
+        if ( remoteArtifactRepositories != null )
+        {
+            for ( Object repository : remoteArtifactRepositories )
+            {
+                repositories.add( (ArtifactRepository) repository );
+            }
+        }
+        RepositoryMetadataPoller poller = new RepositoryMetadataPoller( repositories, wagonManager, settings, getLog() );
+
+        Map<String, Set<String>> known = null;
+        for ( int poll = 1; watchPolls <= 0 || poll <= watchPolls; poll++ )
+        {
+            if ( known != null )
+            {
+                try
+                {
+                    Thread.sleep( watchInterval * 1000L );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            Map<String, Set<String>> found = poller.poll( artifacts.keySet() );
+            for ( Map.Entry<String, Set<String>> entry : found.entrySet() )
+            {
+                filter( artifacts.get( entry.getKey() ), entry.getValue() );
+            }
+            if ( known == null )
+            {
+                known = found;
+                continue;
+            }
+            Map<String, Set<String>> added = RepositoryMetadataPoller.addNewVersions( known, found );
+            int count = 0;
+            for ( Set<String> versions : added.values() )
+            {
+                count += versions.size();
+            }
+            write( dependencies, added );
+            getLog().info( "Poll " + poll + ": " + ( count == 0 ? "no new versions" : count + " new versions" ) );
+        }
+    }
+
+    /**
+     * Returns the dependencies of the reactor which are not produced by the reactor, keyed by
+     * <code>groupId:artifactId</code>.
+     *
+     * @return the dependencies to watch.
+     */
+    private Map<String, Dependency> getWatchedDependencies()
+    {
+        Set<String> reactor = new HashSet<String>();
+        for ( Object o : reactorProjects )
+        {
+            MavenProject project = (MavenProject) o;
+            reactor.add( ArtifactUtils.versionlessKey( project.getGroupId(), project.getArtifactId() ) );
+        }
+        Map<String, Dependency> dependencies = new LinkedHashMap<String, Dependency>();
+        for ( Object o : reactorProjects )
+        {
+            MavenProject project = (MavenProject) o;
+            List<Dependency> declared = new ArrayList<Dependency>();
+            if ( project.getDependencyManagement() != null )
+            {
+                declared.addAll( project.getDependencyManagement().getDependencies() );
+            }
+            declared.addAll( project.getDependencies() );
+            for ( Dependency dependency : declared )
+            {
+                String key = ArtifactUtils.versionlessKey( dependency.getGroupId(), dependency.getArtifactId() );
+                if ( dependency.getVersion() != null && !reactor.contains( key ) && !dependencies.containsKey( key ) )
+                {
+                    dependencies.put( key, dependency );
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Removes the versions which are not of interest, i.e. those the rules ignore and, unless allowed, snapshots.
+     */
+    private void filter( Artifact artifact, Set<String> versions )
+        throws MojoExecutionException
+    {
+        List<ArtifactVersion> candidates = new ArrayList<ArtifactVersion>( versions.size() );
+        for ( String version : versions )
+        {
+            if ( Boolean.TRUE.equals( allowSnapshots ) || !ArtifactUtils.isSnapshot( version ) )
+            {
+                candidates.add( new DefaultArtifactVersion( version ) );
+            }
+        }
+        getHelper().removeIgnoredVersions( artifact, candidates );
+        Set<String> kept = new HashSet<String>();
+        for ( ArtifactVersion candidate : candidates )
+        {
+            kept.add( candidate.toString() );
+        }
+        versions.retainAll( kept );
+    }
+
+    /**
+     * Appends the new versions found by a poll to {@link #watchFile}.
+     */
+    private void write( Map<String, Dependency> dependencies, Map<String, Set<String>> added )
+        throws MojoExecutionException
+    {
+        if ( added.isEmpty() )
+        {
+            return;
+        }
+        String project = getProject().getGroupId() + ":" + getProject().getArtifactId() + ":"
+            + getProject().getVersion();
+        watchFile.getParentFile().mkdirs();
+        OutputStreamWriter out = null;
+        try
+        {
+            out = new OutputStreamWriter( new FileOutputStream( watchFile, true ), "UTF-8" );
+            UpdatesWriter writer = UpdatesWriter.newInstance( UpdatesWriter.JSON, new BufferedWriter( out ), false );
+            for ( Map.Entry<String, Set<String>> entry : added.entrySet() )
+            {
+                for ( String version : entry.getValue() )
+                {
+                    getLog().info( "New version of " + entry.getKey() + ": " + version );
+                    writer.write( project, "Dependencies", entry.getKey(),
+                                  dependencies.get( entry.getKey() ).getVersion(), version );
+                }
+            }
+            writer.close();
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Cannot write to " + watchFile, e );
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
+    /**
+     * Does nothing, the watch does not update the pom.
+     *
+     * @param pom the pom.
+     */
+    protected void update( ModifiedPomXMLEventReader pom )
+        throws MojoExecutionException, MojoFailureException, XMLStreamException
+    {
+    }
+}
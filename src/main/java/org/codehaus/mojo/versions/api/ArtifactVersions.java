@@ -61,6 +61,13 @@ public class ArtifactVersions
      */
     private final VersionComparator versionComparator;
 
+    /**
+     * Whether some repositories could not be asked for the versions.
+     *
+     * @since 1.0.1
+     */
+    private boolean partial;
+
     /**
      * Creates a new {@link ArtifactVersions} instance.
      *
@@ -81,6 +88,29 @@ public class ArtifactVersions
         }
     }
 
+    /**
+     * Returns <code>true</code> if some repositories could not be asked for the versions, so that versions may be
+     * missing.
+     *
+     * @return <code>true</code> if versions may be missing.
+     * @since 1.0.1
+     */
+    public boolean isPartial()
+    {
+        return partial;
+    }
+
+    /**
+     * Sets whether some repositories could not be asked for the versions.
+     *
+     * @param partial <code>true</code> if versions may be missing.
+     * @since 1.0.1
+     */
+    public void setPartial( boolean partial )
+    {
+        this.partial = partial;
+    }
+
     /**
      * Checks if the version is in the range (and ensures that the range respects the <code>-!</code> syntax to rule out
      * any qualifiers from range boundaries).
@@ -26,6 +26,7 @@ import org.apache.maven.artifact.manager.WagonManager;
 import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
 import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
 import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
 import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
 import org.apache.maven.artifact.resolver.ArtifactResolutionException;
 import org.apache.maven.artifact.resolver.ArtifactResolver;
@@ -57,8 +58,12 @@ import org.codehaus.mojo.versions.model.io.xpp3.RuleXpp3Reader;
 import org.codehaus.mojo.versions.ordering.VersionComparator;
 import org.codehaus.mojo.versions.ordering.VersionComparators;
 import org.codehaus.mojo.versions.utils.DependencyComparator;
+import org.codehaus.mojo.versions.utils.Instrumentation;
 import org.codehaus.mojo.versions.utils.PluginComparator;
+import org.codehaus.mojo.versions.utils.ProbingMetadataSource;
 import org.codehaus.mojo.versions.utils.RegexUtils;
+import org.codehaus.mojo.versions.utils.RemoteTimestamp;
+import org.codehaus.mojo.versions.utils.ResilientMetadataSource;
 import org.codehaus.mojo.versions.utils.VersionsExpressionEvaluator;
 import org.codehaus.mojo.versions.utils.WagonUtils;
 import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
@@ -74,20 +79,28 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.regex.Pattern;
 
 
@@ -106,6 +119,21 @@ public class DefaultVersionsHelper
 
     private static final int LOOKUP_PARALLEL_THREADS = 5;
 
+    /**
+     * Asks the repositories for a version when the metadata source cannot check them itself. The threads are shared by
+     * every check of the build and are daemons, so that the checks neither create a pool each nor keep the build from
+     * ending.
+     */
+    private static final ExecutorService EXISTS_EXECUTOR = Executors.newCachedThreadPool( new ThreadFactory()
+    {
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = new Thread( r, "versions-exists-lookup" );
+            thread.setDaemon( true );
+            return thread;
+        }
+    } );
+
     /**
      * The artifact comparison rules to use.
      *
@@ -113,6 +141,27 @@ public class DefaultVersionsHelper
      */
     private final RuleSet ruleSet;
 
+    /**
+     * The rule sets already loaded within a build, keyed by server id and rules uri, so that the rules are only
+     * transferred once rather than once per module and goal.
+     *
+     * @since 1.0.1
+     */
+    private static final Map<MavenSession, Map<String, RuleSet>> RULE_SETS =
+        new WeakHashMap<MavenSession, Map<String, RuleSet>>();
+
+    /**
+     * The versions resolved for properties within a build, keyed by the rule set they were resolved with, then by the
+     * repositories they were looked up in, see {@link #getRepositoriesKey()}, and then by the artifacts associated
+     * with the properties, so that a property defined once and used or redefined by many modules of a reactor is only
+     * resolved once.
+     *
+     * @since 1.0.1
+     */
+    private static final Map<MavenSession, Map<RuleSet, Map<String, Map<String, SortedSet<ArtifactVersion>>>>>
+        PROPERTY_VERSIONS =
+        new WeakHashMap<MavenSession, Map<RuleSet, Map<String, Map<String, SortedSet<ArtifactVersion>>>>>();
+
     /**
      * The artifact metadata source to use.
      *
@@ -176,6 +225,14 @@ public class DefaultVersionsHelper
      */
     private final ArtifactResolver artifactResolver;
 
+    /**
+     * Whether a batch lookup fails when the metadata of one of its artifacts cannot be retrieved, rather than leaving
+     * the artifact out.
+     *
+     * @since 1.0.1
+     */
+    private boolean failOnLookupError = true;
+
     /**
      * Constructs a new {@link DefaultVersionsHelper}.
      *
@@ -206,7 +263,7 @@ public class DefaultVersionsHelper
         this.artifactResolver = artifactResolver;
         this.mavenSession = mavenSession;
         this.pathTranslator = pathTranslator;
-        this.ruleSet = loadRuleSet( serverId, settings, wagonManager, rulesUri, log );
+        this.ruleSet = loadRuleSet( serverId, settings, wagonManager, rulesUri, log, mavenSession, localRepository );
         this.artifactMetadataSource = artifactMetadataSource;
         this.localRepository = localRepository;
         this.remoteArtifactRepositories = remoteArtifactRepositories;
@@ -221,38 +278,104 @@ public class DefaultVersionsHelper
         try
         {
             wagon.get( remoteURI, tempFile );
-            RuleXpp3Reader reader = new RuleXpp3Reader();
-            FileInputStream fis = new FileInputStream( tempFile );
-            try
+            return readRuleSet( tempFile );
+        }
+        finally
+        {
+            if ( !tempFile.delete() )
             {
-                BufferedInputStream bis = new BufferedInputStream( fis );
-                try
-                {
-                    return reader.read( bis );
-                }
-                catch ( XmlPullParserException e )
+                // maybe we can delete this later
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Transfers the rules into a local copy, unless the local copy is up to date, and reads them. The local copy is
+     * stamped with the time the repository reports for the rules, so that it is compared with the repository's clock
+     * rather than ours, or with <code>0</code> to transfer them every time if the repository reports no time.
+     *
+     * @param wagon The wagon to transfer the rules with.
+     * @param remoteURI The rules to transfer.
+     * @param cacheFile The local copy.
+     * @param logger The log to report to.
+     * @return The rules.
+     */
+    private static RuleSet getRuleSet( Wagon wagon, String remoteURI, File cacheFile, Log logger )
+        throws IOException, AuthorizationException, TransferFailedException, ResourceDoesNotExistException
+    {
+        File cacheDir = cacheFile.getParentFile();
+        if ( !cacheDir.isDirectory() && !cacheDir.mkdirs() )
+        {
+            return getRuleSet( wagon, remoteURI );
+        }
+        File tempFile = File.createTempFile( "ruleset", ".xml", cacheDir );
+        RemoteTimestamp remoteTimestamp = new RemoteTimestamp();
+        wagon.addTransferListener( remoteTimestamp );
+        try
+        {
+            boolean transferred;
+            if ( cacheFile.isFile() )
+            {
+                transferred = wagon.getIfNewer( remoteURI, tempFile, cacheFile.lastModified() );
+            }
+            else
+            {
+                wagon.get( remoteURI, tempFile );
+                transferred = true;
+            }
+            if ( transferred )
+            {
+                if ( ( cacheFile.isFile() && !cacheFile.delete() ) || !tempFile.renameTo( cacheFile ) )
                 {
-                    final IOException ioe = new IOException();
-                    ioe.initCause( e );
-                    throw ioe;
+                    // someone else is updating the copy, use what we transferred
+                    return readRuleSet( tempFile );
                 }
-                finally
+                if ( !cacheFile.setLastModified( remoteTimestamp.getLastModified() ) )
                 {
-                    try
-                    {
-                        bis.close();
-                    }
-                    catch ( IOException e )
-                    {
-                        // ignore
-                    }
+                    logger.debug( "Could not stamp " + cacheFile + ", the rules will be transferred again" );
                 }
             }
+            else
+            {
+                logger.debug( "Rule set in " + cacheFile + " is up to date" );
+            }
+            return readRuleSet( cacheFile );
+        }
+        finally
+        {
+            wagon.removeTransferListener( remoteTimestamp );
+            if ( tempFile.exists() && !tempFile.delete() )
+            {
+                // maybe we can delete this later
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    private static RuleSet readRuleSet( File file )
+        throws IOException
+    {
+        RuleXpp3Reader reader = new RuleXpp3Reader();
+        FileInputStream fis = new FileInputStream( file );
+        try
+        {
+            BufferedInputStream bis = new BufferedInputStream( fis );
+            try
+            {
+                return reader.read( bis );
+            }
+            catch ( XmlPullParserException e )
+            {
+                final IOException ioe = new IOException();
+                ioe.initCause( e );
+                throw ioe;
+            }
             finally
             {
                 try
                 {
-                    fis.close();
+                    bis.close();
                 }
                 catch ( IOException e )
                 {
@@ -262,110 +385,191 @@ public class DefaultVersionsHelper
         }
         finally
         {
-            if ( !tempFile.delete() )
+            try
             {
-                // maybe we can delete this later
-                tempFile.deleteOnExit();
+                fis.close();
+            }
+            catch ( IOException e )
+            {
+                // ignore
             }
         }
     }
 
+    /**
+     * Returns the local copy of the rules at a uri, kept in the local repository.
+     *
+     * @param rulesUri The uri of the rules.
+     * @param localRepository The local repository.
+     * @return The local copy or <code>null</code> if the local repository is not on disk.
+     */
+    private static File getRulesCacheFile( String rulesUri, ArtifactRepository localRepository )
+    {
+        String basedir = localRepository == null ? null : localRepository.getBasedir();
+        if ( StringUtils.isEmpty( basedir ) )
+        {
+            return null;
+        }
+        return new File( basedir, ".cache/versions-maven-plugin/rules/"
+            + rulesUri.replaceAll( "[^A-Za-z0-9._-]", "_" ) );
+    }
+
     static boolean exactMatch( String wildcardRule, String value )
     {
-        Pattern p = Pattern.compile( RegexUtils.convertWildcardsToRegex( wildcardRule, true ) );
-        return p.matcher( value ).matches();
+        return RegexUtils.matches( wildcardRule, true, value );
     }
 
     static boolean match( String wildcardRule, String value )
     {
-        Pattern p = Pattern.compile( RegexUtils.convertWildcardsToRegex( wildcardRule, false ) );
-        return p.matcher( value ).matches();
+        return RegexUtils.matches( wildcardRule, false, value );
     }
 
     private static RuleSet loadRuleSet( String serverId, Settings settings, WagonManager wagonManager, String rulesUri,
-                                        Log logger )
+                                        Log logger, MavenSession session, ArtifactRepository localRepository )
                                             throws MojoExecutionException
     {
+        String key = serverId + "|" + rulesUri;
+        synchronized ( RULE_SETS )
+        {
+            Map<String, RuleSet> ruleSets = RULE_SETS.get( session );
+            if ( ruleSets != null && ruleSets.containsKey( key ) )
+            {
+                Instrumentation.hit( "rule sets" );
+                logger.debug( "Reusing rule set loaded from " + rulesUri );
+                return ruleSets.get( key );
+            }
+        }
+        Instrumentation.miss( "rule sets" );
+        RuleSet ruleSet = rulesUri == null || rulesUri.trim().length() == 0 ? new RuleSet()
+                        : loadRuleSet( serverId, settings, wagonManager, rulesUri, logger,
+                                       getRulesCacheFile( rulesUri, localRepository ) );
+        synchronized ( RULE_SETS )
+        {
+            Map<String, RuleSet> ruleSets = RULE_SETS.get( session );
+            if ( ruleSets == null )
+            {
+                ruleSets = new HashMap<String, RuleSet>();
+                RULE_SETS.put( session, ruleSets );
+            }
+            ruleSets.put( key, ruleSet );
+        }
+        return ruleSet;
+    }
+
+    private static RuleSet loadRuleSet( String serverId, Settings settings, WagonManager wagonManager, String rulesUri,
+                                        Log logger, File cacheFile )
+                                            throws MojoExecutionException
+    {
+        if ( cacheFile != null && cacheFile.isFile() && settings != null && settings.isOffline() )
+        {
+            logger.debug( "Offline, loading ruleset from " + cacheFile );
+            return readCachedRuleSet( cacheFile );
+        }
         RuleSet ruleSet = new RuleSet();
-        if ( rulesUri != null && rulesUri.trim().length() != 0 )
+        try
         {
+            int split = rulesUri.lastIndexOf( '/' );
+            String baseUri;
+            String fileUri;
+            if ( split != -1 )
+            {
+                baseUri = rulesUri.substring( 0, split ) + '/';
+                fileUri = split + 1 < rulesUri.length() ? rulesUri.substring( split + 1 ) : "";
+            }
+            else
+            {
+                baseUri = rulesUri;
+                fileUri = "";
+            }
             try
             {
-                int split = rulesUri.lastIndexOf( '/' );
-                String baseUri;
-                String fileUri;
-                if ( split != -1 )
-                {
-                    baseUri = rulesUri.substring( 0, split ) + '/';
-                    fileUri = split + 1 < rulesUri.length() ? rulesUri.substring( split + 1 ) : "";
-                }
-                else
+                Wagon wagon = WagonUtils.createWagon( serverId, baseUri, wagonManager, settings, logger );
+                try
                 {
-                    baseUri = rulesUri;
-                    fileUri = "";
+                    logger.debug( "Trying to load ruleset from file \"" + fileUri + "\" in " + baseUri );
+                    final RuleSet loaded = cacheFile == null ? getRuleSet( wagon, fileUri )
+                                    : getRuleSet( wagon, fileUri, cacheFile, logger );
+                    ruleSet.setRules( loaded.getRules() );
+                    ruleSet.setIgnoreVersions( loaded.getIgnoreVersions() );
+                    logger.debug( "Rule set loaded" );
                 }
-                try
+                finally
                 {
-                    Wagon wagon = WagonUtils.createWagon( serverId, baseUri, wagonManager, settings, logger );
-                    try
-                    {
-                        logger.debug( "Trying to load ruleset from file \"" + fileUri + "\" in " + baseUri );
-                        final RuleSet loaded = getRuleSet( wagon, fileUri );
-                        ruleSet.setRules( loaded.getRules() );
-                        ruleSet.setIgnoreVersions( loaded.getIgnoreVersions() );
-                        logger.debug( "Rule set loaded" );
-                    }
-                    finally
+                    if ( wagon != null )
                     {
-                        if ( wagon != null )
+                        try
                         {
-                            try
-                            {
-                                wagon.disconnect();
-                            }
-                            catch ( ConnectionException e )
-                            {
-                                logger.warn( "Could not disconnect wagon!", e );
-                            }
+                            wagon.disconnect();
+                        }
+                        catch ( ConnectionException e )
+                        {
+                            logger.warn( "Could not disconnect wagon!", e );
                         }
-
                     }
+
                 }
-                catch ( TransferFailedException e )
-                {
-                    throw new MojoExecutionException( "Could not transfer rules from " + rulesUri, e );
-                }
-                catch ( AuthorizationException e )
-                {
-                    throw new MojoExecutionException( "Authorization failure trying to load rules from " + rulesUri,
-                                                      e );
-                }
-                catch ( ResourceDoesNotExistException e )
-                {
-                    throw new MojoExecutionException( "Could not load specified rules from " + rulesUri, e );
-                }
-                catch ( AuthenticationException e )
-                {
-                    throw new MojoExecutionException( "Authentication failure trying to load rules from " + rulesUri,
-                                                      e );
-                }
-                catch ( UnsupportedProtocolException e )
-                {
-                    throw new MojoExecutionException( "Unsupported protocol for " + rulesUri, e );
-                }
-                catch ( ConnectionException e )
+            }
+            catch ( TransferFailedException e )
+            {
+                if ( cacheFile != null && cacheFile.isFile() )
                 {
-                    throw new MojoExecutionException( "Could not establish connection to " + rulesUri, e );
+                    logger.warn( "Could not transfer rules from " + rulesUri + ", using the copy in " + cacheFile );
+                    return readCachedRuleSet( cacheFile );
                 }
+                throw new MojoExecutionException( "Could not transfer rules from " + rulesUri, e );
             }
-            catch ( IOException e )
+            catch ( AuthorizationException e )
+            {
+                throw new MojoExecutionException( "Authorization failure trying to load rules from " + rulesUri,
+                                                  e );
+            }
+            catch ( ResourceDoesNotExistException e )
             {
                 throw new MojoExecutionException( "Could not load specified rules from " + rulesUri, e );
             }
+            catch ( AuthenticationException e )
+            {
+                throw new MojoExecutionException( "Authentication failure trying to load rules from " + rulesUri,
+                                                  e );
+            }
+            catch ( UnsupportedProtocolException e )
+            {
+                throw new MojoExecutionException( "Unsupported protocol for " + rulesUri, e );
+            }
+            catch ( ConnectionException e )
+            {
+                if ( cacheFile != null && cacheFile.isFile() )
+                {
+                    logger.warn( "Could not connect to " + rulesUri + ", using the copy in " + cacheFile );
+                    return readCachedRuleSet( cacheFile );
+                }
+                throw new MojoExecutionException( "Could not establish connection to " + rulesUri, e );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Could not load specified rules from " + rulesUri, e );
         }
         return ruleSet;
     }
 
+    private static RuleSet readCachedRuleSet( File cacheFile )
+        throws MojoExecutionException
+    {
+        try
+        {
+            final RuleSet loaded = readRuleSet( cacheFile );
+            RuleSet ruleSet = new RuleSet();
+            ruleSet.setRules( loaded.getRules() );
+            ruleSet.setIgnoreVersions( loaded.getIgnoreVersions() );
+            return ruleSet;
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Could not load specified rules from " + cacheFile, e );
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -382,6 +586,19 @@ public class DefaultVersionsHelper
         return log;
     }
 
+    /**
+     * Sets whether {@link #lookupDependenciesUpdates(Set, boolean)} and {@link #lookupPluginsUpdates(Set, Boolean)}
+     * fail when the metadata of one of the artifacts cannot be retrieved, rather than leave the artifact out. They
+     * fail by default.
+     *
+     * @param failOnLookupError whether a batch lookup fails on the first artifact which cannot be looked up.
+     * @since 1.0.1
+     */
+    public void setFailOnLookupError( boolean failOnLookupError )
+    {
+        this.failOnLookupError = failOnLookupError;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -391,6 +608,149 @@ public class DefaultVersionsHelper
         List remoteRepositories = usePluginRepositories ? remotePluginRepositories : remoteArtifactRepositories;
         final List<ArtifactVersion> versions =
             artifactMetadataSource.retrieveAvailableVersions( artifact, localRepository, remoteRepositories );
+        removeIgnoredVersions( artifact, versions );
+        ArtifactVersions artifactVersions = new ArtifactVersions( artifact, versions, getVersionComparator( artifact ) );
+        artifactVersions.setPartial( ResilientMetadataSource.isPartial( versions ) );
+        return artifactVersions;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean existsVersion( final Artifact artifact, final String version, boolean usePluginRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        if ( isIgnoredVersion( artifact, version, getIgnoredVersions( artifact ) ) )
+        {
+            return false;
+        }
+        List remoteRepositories = usePluginRepositories ? remotePluginRepositories : remoteArtifactRepositories;
+        if ( remoteRepositories == null || remoteRepositories.isEmpty() )
+        {
+            return containsVersion( artifactMetadataSource.retrieveAvailableVersions( artifact, localRepository,
+                                                                                      remoteRepositories ),
+                                    version );
+        }
+        List<ArtifactRepository> repositories =
+            prioritize( remoteRepositories, ArtifactUtils.isSnapshot( version ) );
+        if ( artifactMetadataSource instanceof ProbingMetadataSource )
+        {
+            return ( (ProbingMetadataSource) artifactMetadataSource ).hasVersion( artifact, version, localRepository,
+                                                                                   repositories );
+        }
+        CompletionService<Boolean> lookups = new ExecutorCompletionService<Boolean>( EXISTS_EXECUTOR );
+        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>( repositories.size() );
+        try
+        {
+            for ( final ArtifactRepository repository : repositories )
+            {
+                futures.add( lookups.submit( new Callable<Boolean>()
+                {
+                    public Boolean call()
+                        throws ArtifactMetadataRetrievalException
+                    {
+                        return containsVersion( artifactMetadataSource.retrieveAvailableVersions(
+                            artifact, localRepository, Collections.singletonList( repository ) ), version );
+                    }
+                } ) );
+            }
+            ExecutionException failure = null;
+            int failed = 0;
+            for ( int i = 0; i < repositories.size(); i++ )
+            {
+                try
+                {
+                    if ( lookups.take().get() )
+                    {
+                        return true;
+                    }
+                }
+                catch ( ExecutionException e )
+                {
+                    getLog().debug( "Could not check " + ArtifactUtils.versionlessKey( artifact ) + ":" + version
+                        + ": " + e.getCause().getMessage() );
+                    failure = e;
+                    failed++;
+                }
+            }
+            if ( failure != null && ( failOnLookupError || failed == repositories.size() ) )
+            {
+                throw new ArtifactMetadataRetrievalException( "Unable to check " + ArtifactUtils.versionlessKey(
+                    artifact ) + ":" + version + ": " + failure.getCause().getMessage(), failure.getCause(),
+                                                              artifact );
+            }
+            return false;
+        }
+        catch ( InterruptedException e )
+        {
+            throw new ArtifactMetadataRetrievalException( "Unable to check " + ArtifactUtils.versionlessKey( artifact )
+                + ":" + version + ": " + e.getMessage(), e, artifact );
+        }
+        finally
+        {
+            for ( Future<Boolean> future : futures )
+            {
+                future.cancel( true );
+            }
+        }
+    }
+
+    private static boolean containsVersion( List versions, String version )
+    {
+        for ( Object candidate : versions )
+        {
+            if ( version.equals( candidate.toString() ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Orders repositories so that those most likely to have a version come first: for a snapshot, the repositories
+     * which only hold snapshots and then those which allow them, for a release the other way round. The order is
+     * otherwise kept.
+     *
+     * @param repositories the repositories.
+     * @param snapshot whether the version is a snapshot.
+     * @return the repositories in the order to ask them.
+     * @since 1.0.1
+     */
+    static List<ArtifactRepository> prioritize( List repositories, final boolean snapshot )
+    {
+        List<ArtifactRepository> result = new ArrayList<ArtifactRepository>( repositories.size() );
+        for ( Object repository : repositories )
+        {
+            result.add( (ArtifactRepository) repository );
+        }
+        Collections.sort( result, new Comparator<ArtifactRepository>()
+        {
+            public int compare( ArtifactRepository r1, ArtifactRepository r2 )
+            {
+                return rank( r1 ) - rank( r2 );
+            }
+
+            private int rank( ArtifactRepository repository )
+            {
+                boolean wanted = isEnabled( snapshot ? repository.getSnapshots() : repository.getReleases() );
+                boolean other = isEnabled( snapshot ? repository.getReleases() : repository.getSnapshots() );
+                return wanted ? ( other ? 1 : 0 ) : 2;
+            }
+        } );
+        return result;
+    }
+
+    private static boolean isEnabled( ArtifactRepositoryPolicy policy )
+    {
+        return policy == null || policy.isEnabled();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void removeIgnoredVersions( Artifact artifact, Collection<ArtifactVersion> versions )
+    {
         final List<IgnoreVersion> ignoredVersions = getIgnoredVersions( artifact );
         if ( !ignoredVersions.isEmpty() )
         {
@@ -402,42 +762,38 @@ public class DefaultVersionsHelper
             final Iterator<ArtifactVersion> i = versions.iterator();
             while ( i.hasNext() )
             {
-                final String version = i.next().toString();
-                for ( final IgnoreVersion ignoreVersion : ignoredVersions )
+                if ( isIgnoredVersion( artifact, i.next().toString(), ignoredVersions ) )
                 {
-                    if ( TYPE_REGEX.equals( ignoreVersion.getType() ) )
-                    {
-                        Pattern p = Pattern.compile( ignoreVersion.getVersion() );
-                        if ( p.matcher( version ).matches() )
-                        {
-                            if ( getLog().isDebugEnabled() )
-                            {
-                                getLog().debug( "Version " + version + " for artifact "
-                                    + ArtifactUtils.versionlessKey( artifact ) + " found on ignore list: "
-                                    + ignoreVersion );
-                            }
-                            i.remove();
-                            break;
-                        }
-                    }
-                    else if ( TYPE_EXACT.equals( ignoreVersion.getType() ) )
-                    {
-                        if ( version.equals( ignoreVersion.getVersion() ) )
-                        {
-                            if ( getLog().isDebugEnabled() )
-                            {
-                                getLog().debug( "Version " + version + " for artifact "
-                                    + ArtifactUtils.versionlessKey( artifact ) + " found on ignore list: "
-                                    + ignoreVersion );
-                            }
-                            i.remove();
-                            break;
-                        }
-                    }
+                    i.remove();
                 }
             }
         }
-        return new ArtifactVersions( artifact, versions, getVersionComparator( artifact ) );
+    }
+
+    private boolean isIgnoredVersion( Artifact artifact, String version, List<IgnoreVersion> ignoredVersions )
+    {
+        for ( final IgnoreVersion ignoreVersion : ignoredVersions )
+        {
+            boolean ignored;
+            if ( TYPE_REGEX.equals( ignoreVersion.getType() ) )
+            {
+                ignored = Pattern.compile( ignoreVersion.getVersion() ).matcher( version ).matches();
+            }
+            else
+            {
+                ignored = TYPE_EXACT.equals( ignoreVersion.getType() ) && version.equals( ignoreVersion.getVersion() );
+            }
+            if ( ignored )
+            {
+                if ( getLog().isDebugEnabled() )
+                {
+                    getLog().debug( "Version " + version + " for artifact " + ArtifactUtils.versionlessKey( artifact )
+                        + " found on ignore list: " + ignoreVersion );
+                }
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -676,6 +1032,35 @@ public class DefaultVersionsHelper
                                                                         boolean usePluginRepositories )
                                                                             throws ArtifactMetadataRetrievalException,
                                                                             InvalidVersionSpecificationException
+    {
+        final Map<Dependency, ArtifactVersions> dependencyUpdates =
+            new TreeMap<Dependency, ArtifactVersions>( new DependencyComparator() );
+        for ( final DependencyArtifactVersions dav : lookupDependencies( dependencies, usePluginRepositories, false ) )
+        {
+            dependencyUpdates.put( dav.getDependency(), dav.getArtifactVersions() );
+        }
+        return dependencyUpdates;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Map<Dependency, UpdatesSummary> lookupDependenciesUpdatesSummaries( Set dependencies,
+                                                                               boolean usePluginRepositories )
+        throws ArtifactMetadataRetrievalException, InvalidVersionSpecificationException
+    {
+        final Map<Dependency, UpdatesSummary> dependencyUpdates =
+            new TreeMap<Dependency, UpdatesSummary>( new DependencyComparator() );
+        for ( final DependencyArtifactVersions dav : lookupDependencies( dependencies, usePluginRepositories, true ) )
+        {
+            dependencyUpdates.put( dav.getDependency(), dav.getSummary() );
+        }
+        return dependencyUpdates;
+    }
+
+    private List<DependencyArtifactVersions> lookupDependencies( Set dependencies, boolean usePluginRepositories,
+                                                                 boolean summarize )
+        throws ArtifactMetadataRetrievalException
     {
         // Create the request for details collection for parallel lookup...
         final List<Callable<DependencyArtifactVersions>> requestsForDetails =
@@ -683,11 +1068,11 @@ public class DefaultVersionsHelper
         for ( final Object dependency1 : dependencies )
         {
             final Dependency dependency = (Dependency) dependency1;
-            requestsForDetails.add( new DependencyLookup( dependency, usePluginRepositories ) );
+            requestsForDetails.add( new DependencyLookup( dependency, usePluginRepositories, summarize ) );
         }
 
-        final Map<Dependency, ArtifactVersions> dependencyUpdates =
-            new TreeMap<Dependency, ArtifactVersions>( new DependencyComparator() );
+        final List<DependencyArtifactVersions> dependencyUpdates =
+            new ArrayList<DependencyArtifactVersions>( dependencies.size() );
 
         // Lookup details in parallel...
         final ExecutorService executor = Executors.newFixedThreadPool( LOOKUP_PARALLEL_THREADS );
@@ -697,11 +1082,16 @@ public class DefaultVersionsHelper
                 executor.invokeAll( requestsForDetails );
 
             // Construct the final results...
+            final List<String> failed = new ArrayList<String>();
             for ( final Future<DependencyArtifactVersions> details : responseForDetails )
             {
-                final DependencyArtifactVersions dav = details.get();
-                dependencyUpdates.put( dav.getDependency(), dav.getArtifactVersions() );
+                final DependencyArtifactVersions dav = getPartial( details, failed );
+                if ( dav != null )
+                {
+                    dependencyUpdates.add( dav );
+                }
             }
+            logFailedLookups( "dependencies", failed );
         }
         catch ( final ExecutionException ee )
         {
@@ -720,6 +1110,46 @@ public class DefaultVersionsHelper
         return dependencyUpdates;
     }
 
+    /**
+     * Returns the result of a lookup of a batch. When lookup errors are tolerated, a lookup which could not retrieve
+     * the metadata is recorded as failed instead of failing the whole batch.
+     *
+     * @param lookup the lookup.
+     * @param failed the failed lookups, added to.
+     * @return the result of the lookup or <code>null</code> if it failed.
+     * @throws ExecutionException if the lookup failed and lookup errors are not tolerated.
+     * @throws InterruptedException if interrupted while waiting for the lookup.
+     * @since 1.0.1
+     */
+    private <T> T getPartial( Future<T> lookup, List<String> failed )
+        throws ExecutionException, InterruptedException
+    {
+        try
+        {
+            return lookup.get();
+        }
+        catch ( ExecutionException e )
+        {
+            if ( failOnLookupError || !( e.getCause() instanceof ArtifactMetadataRetrievalException ) )
+            {
+                throw e;
+            }
+            getLog().debug( e.getCause().getMessage(), e.getCause() );
+            Artifact artifact = ( (ArtifactMetadataRetrievalException) e.getCause() ).getArtifact();
+            failed.add( artifact == null ? e.getCause().getMessage() : ArtifactUtils.versionlessKey( artifact ) );
+            return null;
+        }
+    }
+
+    private void logFailedLookups( String what, List<String> failed )
+    {
+        if ( !failed.isEmpty() )
+        {
+            getLog().warn( "Could not look up the versions of " + failed.size() + " " + what
+                + ", they are left out: " + failed );
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -762,11 +1192,16 @@ public class DefaultVersionsHelper
                 executor.invokeAll( requestsForDetails );
 
             // Construct the final results...
+            final List<String> failed = new ArrayList<String>();
             for ( final Future<PluginPluginUpdatesDetails> details : responseForDetails )
             {
-                final PluginPluginUpdatesDetails pud = details.get();
-                pluginUpdates.put( pud.getPlugin(), pud.getPluginUpdatesDetails() );
+                final PluginPluginUpdatesDetails pud = getPartial( details, failed );
+                if ( pud != null )
+                {
+                    pluginUpdates.put( pud.getPlugin(), pud.getPluginUpdatesDetails() );
+                }
             }
+            logFailedLookups( "plugins", failed );
         }
         catch ( final ExecutionException ee )
         {
@@ -895,6 +1330,7 @@ public class DefaultVersionsHelper
             }
         }
         i = properties.values().iterator();
+        final Map<String, SortedSet<ArtifactVersion>> resolvedVersions = getResolvedPropertyVersions();
         Map<Property, PropertyVersions> propertyVersions =
             new LinkedHashMap<Property, PropertyVersions>( properties.size() );
         while ( i.hasNext() )
@@ -931,7 +1367,7 @@ public class DefaultVersionsHelper
             }
             try
             {
-                final PropertyVersions versions = builder.newPropertyVersions();
+                final PropertyVersions versions = builder.newPropertyVersions( resolvedVersions );
                 if ( property.isAutoLinkDependencies() && StringUtils.isEmpty( property.getVersion() )
                     && !StringUtils.isEmpty( builder.getVersionRange() ) )
                 {
@@ -950,6 +1386,72 @@ public class DefaultVersionsHelper
         return propertyVersions;
     }
 
+    /**
+     * Returns the versions already resolved for properties within this build with the same rule set and the same
+     * repositories.
+     *
+     * @return the versions resolved for properties keyed by the artifacts associated with the properties.
+     */
+    private Map<String, SortedSet<ArtifactVersion>> getResolvedPropertyVersions()
+    {
+        if ( mavenSession == null )
+        {
+            return new HashMap<String, SortedSet<ArtifactVersion>>();
+        }
+        synchronized ( PROPERTY_VERSIONS )
+        {
+            Map<RuleSet, Map<String, Map<String, SortedSet<ArtifactVersion>>>> byRuleSet =
+                PROPERTY_VERSIONS.get( mavenSession );
+            if ( byRuleSet == null )
+            {
+                byRuleSet = new IdentityHashMap<RuleSet, Map<String, Map<String, SortedSet<ArtifactVersion>>>>();
+                PROPERTY_VERSIONS.put( mavenSession, byRuleSet );
+            }
+            Map<String, Map<String, SortedSet<ArtifactVersion>>> byRepositories = byRuleSet.get( ruleSet );
+            if ( byRepositories == null )
+            {
+                byRepositories = new HashMap<String, Map<String, SortedSet<ArtifactVersion>>>();
+                byRuleSet.put( ruleSet, byRepositories );
+            }
+            String repositoriesKey = getRepositoriesKey();
+            Map<String, SortedSet<ArtifactVersion>> resolved = byRepositories.get( repositoriesKey );
+            if ( resolved == null )
+            {
+                resolved = new ConcurrentHashMap<String, SortedSet<ArtifactVersion>>();
+                byRepositories.put( repositoriesKey, resolved );
+            }
+            return resolved;
+        }
+    }
+
+    /**
+     * Returns a key identifying the remote artifact and plugin repositories this helper looks versions up in, by
+     * their ids and urls.
+     *
+     * @return the key.
+     */
+    private String getRepositoriesKey()
+    {
+        StringBuilder key = new StringBuilder();
+        appendRepositories( key, remoteArtifactRepositories );
+        key.append( '|' );
+        appendRepositories( key, remotePluginRepositories );
+        return key.toString();
+    }
+
+    private static void appendRepositories( StringBuilder key, List repositories )
+    {
+        if ( repositories != null )
+        {
+            for ( Object repository : repositories )
+            {
+                ArtifactRepository artifactRepository = (ArtifactRepository) repository;
+                key.append( artifactRepository.getId() ).append( '=' ).append( artifactRepository.getUrl() ).append(
+                    ',' );
+            }
+        }
+    }
+
     private List<String> getSplittedProperties(String commaSeparatedProperties) {
         List<String> propertiesList = Collections.emptyList(); 
         if (StringUtils.isNotEmpty( commaSeparatedProperties ) ) {
@@ -966,10 +1468,20 @@ public class DefaultVersionsHelper
 
         private final ArtifactVersions artifactVersions;
 
+        private final UpdatesSummary summary;
+
         public DependencyArtifactVersions( final Dependency dependency, final ArtifactVersions artifactVersions )
         {
             this.dependency = dependency;
             this.artifactVersions = artifactVersions;
+            this.summary = null;
+        }
+
+        public DependencyArtifactVersions( final Dependency dependency, final UpdatesSummary summary )
+        {
+            this.dependency = dependency;
+            this.artifactVersions = null;
+            this.summary = summary;
         }
 
         public Dependency getDependency()
@@ -981,6 +1493,11 @@ public class DefaultVersionsHelper
         {
             return artifactVersions;
         }
+
+        public UpdatesSummary getSummary()
+        {
+            return summary;
+        }
     }
 
     // This is a data container to hold the result of a Dependency lookup to its ArtifactVersions.
@@ -1015,17 +1532,23 @@ public class DefaultVersionsHelper
 
         private final boolean usePluginRepositories;
 
-        public DependencyLookup( final Dependency dependency, final boolean usePluginRepositories )
+        private final boolean summarize;
+
+        public DependencyLookup( final Dependency dependency, final boolean usePluginRepositories,
+                                 final boolean summarize )
         {
             this.dependency = dependency;
             this.usePluginRepositories = usePluginRepositories;
+            this.summarize = summarize;
         }
 
         public DependencyArtifactVersions call()
             throws Exception
         {
-            return new DependencyArtifactVersions( dependency,
-                                                   lookupDependencyUpdates( dependency, usePluginRepositories ) );
+            ArtifactVersions artifactVersions = lookupDependencyUpdates( dependency, usePluginRepositories );
+            // summarize on the lookup thread, so that the versions are dropped as soon as each lookup is done
+            return summarize ? new DependencyArtifactVersions( dependency, new UpdatesSummary( artifactVersions ) )
+                            : new DependencyArtifactVersions( dependency, artifactVersions );
         }
     }
 
@@ -23,19 +23,24 @@ import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
 import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.BuildBase;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.Profile;
 import org.apache.maven.model.ReportPlugin;
+import org.apache.maven.model.Reporting;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.profiles.ProfileManager;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
+import org.codehaus.mojo.versions.change.VersionChange;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.mojo.versions.utils.Instrumentation;
 import org.codehaus.mojo.versions.utils.RegexUtils;
 import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
 import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
@@ -47,19 +52,24 @@ import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.XMLEvent;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Reader;
-import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -80,6 +90,22 @@ public class PomHelper
 {
     public static final String APACHE_MAVEN_PLUGINS_GROUPID = "org.apache.maven.plugins";
 
+    /**
+     * The number of raw models {@link #getRawModel(File)} keeps.
+     */
+    private static final int MAX_RAW_MODELS = 1024;
+
+    /**
+     * The raw models read by {@link #getRawModel(File)} keyed by canonical path, least recently used first.
+     */
+    private static final Map<String, RawModel> RAW_MODELS = new LinkedHashMap<String, RawModel>( 16, 0.75f, true )
+    {
+        protected boolean removeEldestEntry( Map.Entry<String, RawModel> eldest )
+        {
+            return size() > MAX_RAW_MODELS;
+        }
+    };
+
     /**
      * Gets the raw model before any interpolation what-so-ever.
      *
@@ -94,7 +120,8 @@ public class PomHelper
     }
 
     /**
-     * Gets the raw model before any interpolation what-so-ever.
+     * Gets the raw model before any interpolation what-so-ever. The model is only read again when the file changes,
+     * so the same instance may be returned to other callers and must not be modified, see {@link #copyModel(Model)}.
      *
      * @param moduleProjectFile The project file to get the raw model for.
      * @return The raw model.
@@ -102,6 +129,79 @@ public class PomHelper
      */
     public static Model getRawModel( File moduleProjectFile )
         throws IOException
+    {
+        String path = moduleProjectFile.getCanonicalPath();
+        long lastModified = moduleProjectFile.lastModified();
+        long length = moduleProjectFile.length();
+        synchronized ( RAW_MODELS )
+        {
+            RawModel cached = RAW_MODELS.get( path );
+            if ( cached != null && cached.lastModified == lastModified && cached.length == length )
+            {
+                Instrumentation.hit( "raw models" );
+                return cached.model;
+            }
+        }
+        Instrumentation.miss( "raw models" );
+        Model model = readRawModel( moduleProjectFile );
+        if ( lastModified != 0L )
+        {
+            synchronized ( RAW_MODELS )
+            {
+                RAW_MODELS.put( path, new RawModel( lastModified, length, model ) );
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Forgets the raw model of a file, which must be called whenever the file is written as its timestamp and size
+     * might not change.
+     *
+     * @param moduleProjectFile The project file which was written.
+     * @throws IOException if the canonical path of the file cannot be determined.
+     * @since 1.0.1
+     */
+    public static void invalidateRawModel( File moduleProjectFile )
+        throws IOException
+    {
+        String path = moduleProjectFile.getCanonicalPath();
+        synchronized ( RAW_MODELS )
+        {
+            RAW_MODELS.remove( path );
+        }
+    }
+
+    /**
+     * Creates a deep copy of a model, for callers which need to modify a model returned by
+     * {@link #getRawModel(File)}.
+     *
+     * @param model The model to copy.
+     * @return The copy.
+     * @since 1.0.1
+     */
+    public static Model copyModel( Model model )
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream( bytes );
+            out.writeObject( model );
+            out.close();
+            return (Model) new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ).readObject();
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( "Could not copy model " + model.getId(), e );
+        }
+        catch ( ClassNotFoundException e )
+        {
+            throw new IllegalStateException( "Could not copy model " + model.getId(), e );
+        }
+    }
+
+    private static Model readRawModel( File moduleProjectFile )
+        throws IOException
     {
         FileInputStream input = null;
         try
@@ -125,6 +225,25 @@ public class PomHelper
         }
     }
 
+    /**
+     * A raw model with the timestamp and size of the file it was read from.
+     */
+    private static final class RawModel
+    {
+        private final long lastModified;
+
+        private final long length;
+
+        private final Model model;
+
+        private RawModel( long lastModified, long length, Model model )
+        {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.model = model;
+        }
+    }
+
     /**
      * Gets the current raw model before any interpolation what-so-ever.
      *
@@ -135,12 +254,9 @@ public class PomHelper
     public static Model getRawModel( ModifiedPomXMLEventReader modifiedPomXMLEventReader )
         throws IOException
     {
-        StringReader stringReader = null;
         try
         {
-            stringReader = new StringReader( modifiedPomXMLEventReader.asStringBuilder().toString() );
-            MavenXpp3Reader reader = new MavenXpp3Reader();
-            return reader.read( stringReader );
+            return modifiedPomXMLEventReader.parse();
         }
         catch ( XmlPullParserException e )
         {
@@ -148,13 +264,6 @@ public class PomHelper
             ioe.initCause( e );
             throw ioe;
         }
-        finally
-        {
-            if ( stringReader != null )
-            {
-                stringReader.close();
-            }
-        }
     }
 
     /**
@@ -471,68 +580,91 @@ public class PomHelper
                                                 final String newVersion )
                                                     throws XMLStreamException
     {
-        Stack<String> stack = new Stack<String>();
-        String path = "";
+        return setDependencyVersion( pom, groupId, artifactId, oldVersion, newVersion, null );
+    }
 
-        Set<String> implicitPaths =
-            new HashSet<String>( Arrays.<String>asList( "/project/parent/groupId", "/project/parent/artifactId",
-                                                        "/project/parent/version", "/project/groupId",
-                                                        "/project/artifactId", "/project/version" ) );
-        Map<String, String> implicitProperties = new HashMap<String, String>();
+    /**
+     * Searches the pom re-defining the specified dependency to the specified version.
+     *
+     * @param pom The pom to modify.
+     * @param groupId The groupId of the dependency.
+     * @param artifactId The artifactId of the dependency.
+     * @param oldVersion The old version of the dependency.
+     * @param newVersion The new version of the dependency.
+     * @param log The log to report unresolved and cyclic properties to, may be <code>null</code>.
+     * @return <code>true</code> if a replacement was made.
+     * @throws XMLStreamException if something went wrong.
+     * @since 1.0.1
+     */
+    public static boolean setDependencyVersion( final ModifiedPomXMLEventReader pom, final String groupId,
+                                                final String artifactId, final String oldVersion,
+                                                final String newVersion, final Log log )
+                                                    throws XMLStreamException
+    {
+        VersionChange change = new VersionChange( groupId, artifactId, oldVersion, newVersion );
+        return !setDependencyVersions( pom, Collections.singleton( change ), log ).isEmpty();
+    }
 
-        pom.rewind();
+    /**
+     * Searches the pom re-defining the specified dependencies to the specified versions in a single pass. Each
+     * dependency (including those in dependencyManagement, plugins and profiles) is updated by the first change with
+     * the same groupId and artifactId whose old version overlaps the version declared in the pom.
+     *
+     * @param pom The pom to modify.
+     * @param changes The dependency version changes to apply.
+     * @return the changes which were applied to at least one dependency, in the order they were given.
+     * @throws XMLStreamException if something went wrong.
+     */
+    public static Set<VersionChange> setDependencyVersions( final ModifiedPomXMLEventReader pom,
+                                                            final Collection<VersionChange> changes )
+                                                                throws XMLStreamException
+    {
+        return setDependencyVersions( pom, changes, null );
+    }
 
-        while ( pom.hasNext() )
+    /**
+     * Searches the pom re-defining the specified dependencies to the specified versions in a single pass. Each
+     * dependency (including those in dependencyManagement, plugins and profiles) is updated by the first change with
+     * the same groupId and artifactId whose old version overlaps the version declared in the pom.
+     *
+     * @param pom The pom to modify.
+     * @param changes The dependency version changes to apply.
+     * @param log The log to report unresolved and cyclic properties to, may be <code>null</code>.
+     * @return the changes which were applied to at least one dependency, in the order they were given.
+     * @throws XMLStreamException if something went wrong.
+     * @since 1.0.1
+     */
+    public static Set<VersionChange> setDependencyVersions( final ModifiedPomXMLEventReader pom,
+                                                            final Collection<VersionChange> changes, final Log log )
+                                                                throws XMLStreamException
+    {
+        Set<VersionChange> applied = new LinkedHashSet<VersionChange>();
+        if ( changes.isEmpty() )
         {
-            while ( pom.hasNext() )
-            {
-                XMLEvent event = pom.nextEvent();
-                if ( event.isStartElement() )
-                {
-                    stack.push( path );
-                    final String elementName = event.asStartElement().getName().getLocalPart();
-                    path = path + "/" + elementName;
-
-                    if ( implicitPaths.contains( path ) )
-                    {
-                        final String elementText = pom.getElementText().trim();
-                        implicitProperties.put( path.substring( 1 ).replace( '/', '.' ), elementText );
-                        path = stack.pop();
-                    }
-                }
-                if ( event.isEndElement() )
-                {
-                    path = stack.pop();
-                }
-            }
+            return applied;
         }
 
-        boolean modified = true;
-        while ( modified )
+        Map<String, List<VersionChange>> changesByKey = new HashMap<String, List<VersionChange>>();
+        for ( VersionChange change : changes )
         {
-            modified = false;
-            for ( Map.Entry<String, String> entry : implicitProperties.entrySet() )
+            String key = change.getGroupId() + ':' + change.getArtifactId();
+            List<VersionChange> candidates = changesByKey.get( key );
+            if ( candidates == null )
             {
-                if ( entry.getKey().contains( ".parent" ) )
-                {
-                    String child = entry.getKey().replace( ".parent", "" );
-                    if ( !implicitProperties.containsKey( child ) )
-                    {
-                        implicitProperties.put( child, entry.getValue() );
-                        modified = true;
-                        break;
-                    }
-                }
+                candidates = new ArrayList<VersionChange>();
+                changesByKey.put( key, candidates );
             }
+            candidates.add( change );
         }
 
-        stack = new Stack<String>();
-        path = "";
+        Evaluator implicitProperties = new Evaluator( getImplicitProperties( pom ), log );
+
+        Stack<String> stack = new Stack<String>();
+        String path = "";
         boolean inMatchScope = false;
-        boolean madeReplacement = false;
-        boolean haveGroupId = false;
-        boolean haveArtifactId = false;
-        boolean haveOldVersion = false;
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
 
         final Pattern matchScopeRegex = Pattern.compile( "/project" + "(/profiles/profile)?"
             + "((/dependencyManagement)|(/build(/pluginManagement)?/plugins/plugin))?" + "/dependencies/dependency" );
@@ -560,21 +692,20 @@ public class PomHelper
                     pom.clearMark( 0 );
                     pom.clearMark( 1 );
 
-                    haveGroupId = false;
-                    haveArtifactId = false;
-                    haveOldVersion = false;
+                    groupId = null;
+                    artifactId = null;
+                    version = null;
                 }
                 else if ( inMatchScope && matchTargetRegex.matcher( path ).matches() )
                 {
                     if ( "groupId".equals( elementName ) )
                     {
-                        haveGroupId = groupId.equals( evaluate( pom.getElementText().trim(), implicitProperties ) );
+                        groupId = implicitProperties.evaluate( pom.getElementText().trim() );
                         path = stack.pop();
                     }
                     else if ( "artifactId".equals( elementName ) )
                     {
-                        haveArtifactId =
-                            artifactId.equals( evaluate( pom.getElementText().trim(), implicitProperties ) );
+                        artifactId = implicitProperties.evaluate( pom.getElementText().trim() );
                         path = stack.pop();
                     }
                     else if ( "version".equals( elementName ) )
@@ -589,131 +720,157 @@ public class PomHelper
                     && "version".equals( event.asEndElement().getName().getLocalPart() ) )
                 {
                     pom.mark( 1 );
-                    String compressedPomVersion = StringUtils.deleteWhitespace( pom.getBetween( 0, 1 ).trim() );
-                    String compressedOldVersion = StringUtils.deleteWhitespace( oldVersion );
-
-                    try
-                    {
-                        haveOldVersion = isVersionOverlap( compressedOldVersion, compressedPomVersion );
-                    }
-                    catch ( InvalidVersionSpecificationException e )
-                    {
-                        // fall back to string comparison
-                        haveOldVersion = compressedOldVersion.equals( compressedPomVersion );
-                    }
+                    version = StringUtils.deleteWhitespace( pom.getBetween( 0, 1 ).trim() );
                 }
                 else if ( matchScopeRegex.matcher( path ).matches() )
                 {
-                    if ( inMatchScope && pom.hasMark( 0 ) && pom.hasMark( 1 ) && haveGroupId && haveArtifactId
-                        && haveOldVersion )
+                    if ( inMatchScope && pom.hasMark( 0 ) && pom.hasMark( 1 ) && groupId != null
+                        && artifactId != null )
                     {
-                        pom.replaceBetween( 0, 1, newVersion );
-                        madeReplacement = true;
+                        VersionChange change =
+                            findVersionChange( changesByKey.get( groupId + ':' + artifactId ), version );
+                        if ( change != null )
+                        {
+                            pom.replaceBetween( 0, 1, change.getNewVersion() );
+                            applied.add( change );
+                        }
                     }
                     pom.clearMark( 0 );
                     pom.clearMark( 1 );
-                    haveArtifactId = false;
-                    haveGroupId = false;
-                    haveOldVersion = false;
+                    groupId = null;
+                    artifactId = null;
+                    version = null;
                     inMatchScope = false;
                 }
                 path = stack.pop();
             }
         }
-        return madeReplacement;
+        return applied;
     }
 
     /**
-     * A lightweight expression evaluation function.
+     * Finds the first change whose old version overlaps the version found in the pom.
      *
-     * @param expr The expression to evaluate.
-     * @param properties The properties to substitute.
-     * @return The evaluated expression.
+     * @param candidates the changes for the artifact, may be <code>null</code>.
+     * @param pomVersion the version found in the pom, with whitespace removed.
+     * @return the matching change or <code>null</code> if there is none.
      */
-    public static String evaluate( String expr, Map<String, String> properties )
+    private static VersionChange findVersionChange( List<VersionChange> candidates, String pomVersion )
     {
-        if ( expr == null )
+        if ( candidates == null )
         {
             return null;
         }
-
-        String expression = stripTokens( expr );
-        if ( expression.equals( expr ) )
+        for ( VersionChange candidate : candidates )
         {
-            int index = expr.indexOf( "${" );
-            if ( index >= 0 )
+            String compressedOldVersion = StringUtils.deleteWhitespace( candidate.getOldVersion() );
+            boolean haveOldVersion;
+            try
             {
-                int lastIndex = expr.indexOf( "}", index );
-                if ( lastIndex >= 0 )
-                {
-                    String retVal = expr.substring( 0, index );
-
-                    if ( index > 0 && expr.charAt( index - 1 ) == '$' )
-                    {
-                        retVal += expr.substring( index + 1, lastIndex + 1 );
-                    }
-                    else
-                    {
-                        retVal += evaluate( expr.substring( index, lastIndex + 1 ), properties );
-                    }
-
-                    retVal += evaluate( expr.substring( lastIndex + 1 ), properties );
-                    return retVal;
-                }
+                haveOldVersion = isVersionOverlap( compressedOldVersion, pomVersion );
             }
-
-            // Was not an expression
-            if ( expression.contains( "$$" ) )
+            catch ( InvalidVersionSpecificationException e )
             {
-                return expression.replaceAll( "\\$\\$", "\\$" );
+                // fall back to string comparison
+                haveOldVersion = compressedOldVersion.equals( pomVersion );
             }
-            else
+            if ( haveOldVersion )
             {
-                return expression;
+                return candidate;
             }
         }
+        return null;
+    }
 
-        String value = properties.get( expression );
+    /**
+     * Collects the <code>project.*</code> and <code>project.parent.*</code> coordinates of the pom, so that they can be
+     * used to evaluate dependency coordinates. The project coordinates default to the parent ones when missing.
+     *
+     * @param pom The pom.
+     * @return the implicit properties of the pom.
+     * @throws XMLStreamException if something went wrong.
+     */
+    private static Map<String, String> getImplicitProperties( final ModifiedPomXMLEventReader pom )
+        throws XMLStreamException
+    {
+        Stack<String> stack = new Stack<String>();
+        String path = "";
 
-        if ( value != null )
-        {
-            int exprStartDelimiter = value.indexOf( "${" );
+        Set<String> implicitPaths =
+            new HashSet<String>( Arrays.<String>asList( "/project/parent/groupId", "/project/parent/artifactId",
+                                                        "/project/parent/version", "/project/groupId",
+                                                        "/project/artifactId", "/project/version" ) );
+        Map<String, String> implicitProperties = new HashMap<String, String>();
+
+        pom.rewind();
 
-            if ( exprStartDelimiter >= 0 )
+        while ( pom.hasNext() )
+        {
+            XMLEvent event = pom.nextEvent();
+            if ( event.isStartElement() )
             {
-                if ( exprStartDelimiter > 0 )
-                {
-                    value = value.substring( 0, exprStartDelimiter )
-                        + evaluate( value.substring( exprStartDelimiter ), properties );
-                }
-                else
+                stack.push( path );
+                final String elementName = event.asStartElement().getName().getLocalPart();
+                path = path + "/" + elementName;
+
+                if ( implicitPaths.contains( path ) )
                 {
-                    value = evaluate( value.substring( exprStartDelimiter ), properties );
+                    final String elementText = pom.getElementText().trim();
+                    implicitProperties.put( path.substring( 1 ).replace( '/', '.' ), elementText );
+                    path = stack.pop();
                 }
             }
+            if ( event.isEndElement() )
+            {
+                path = stack.pop();
+            }
         }
-        else
+
+        boolean modified = true;
+        while ( modified )
         {
-            // TODO find a way to log that and not use this System.out!!
-            // this class could be a component with logger injected !!
-            System.out.println( "expression: " + expression + " no value " );
+            modified = false;
+            for ( Map.Entry<String, String> entry : implicitProperties.entrySet() )
+            {
+                if ( entry.getKey().contains( ".parent" ) )
+                {
+                    String child = entry.getKey().replace( ".parent", "" );
+                    if ( !implicitProperties.containsKey( child ) )
+                    {
+                        implicitProperties.put( child, entry.getValue() );
+                        modified = true;
+                        break;
+                    }
+                }
+            }
         }
-        return value == null ? expr : value;
+        return implicitProperties;
     }
 
     /**
-     * Strips the expression token markers from the start and end of the string.
+     * A lightweight expression evaluation function.
      *
-     * @param expr the string (perhaps with token markers)
-     * @return the string (definately without token markers)
+     * @param expr The expression to evaluate.
+     * @param properties The properties to substitute.
+     * @return The evaluated expression.
      */
-    private static String stripTokens( String expr )
+    public static String evaluate( String expr, Map<String, String> properties )
     {
-        if ( expr.startsWith( "${" ) && expr.indexOf( "}" ) == expr.length() - 1 )
-        {
-            expr = expr.substring( 2, expr.length() - 1 );
-        }
-        return expr;
+        return evaluate( expr, properties, null );
+    }
+
+    /**
+     * A lightweight expression evaluation function.
+     *
+     * @param expr The expression to evaluate.
+     * @param properties The properties to substitute.
+     * @param log The log to report unresolved and cyclic properties to, may be <code>null</code>.
+     * @return The evaluated expression.
+     * @since 1.0.1
+     */
+    public static String evaluate( String expr, Map<String, String> properties, Log log )
+    {
+        return new Evaluator( properties, log ).evaluate( expr );
     }
 
     /**
@@ -769,21 +926,54 @@ public class PomHelper
                                             final String artifactId, final String oldVersion, final String newVersion )
                                                 throws XMLStreamException
     {
+        VersionChange change = new VersionChange( groupId, artifactId, oldVersion, newVersion );
+        return !setPluginVersions( pom, Collections.singleton( change ) ).isEmpty();
+    }
+
+    /**
+     * Searches the pom re-defining the specified plugins to the specified versions in a single pass. Each plugin in
+     * build/plugins, build/pluginManagement, reporting/plugins and their profile counterparts is updated by the first
+     * change with the same artifactId, a matching groupId (not required for the default plugin groupId) and an old
+     * version overlapping the version declared in the pom.
+     *
+     * @param pom The pom to modify.
+     * @param changes The plugin version changes to apply.
+     * @return the changes which were applied to at least one plugin, in the order they were given.
+     * @throws XMLStreamException if something went wrong.
+     */
+    public static Set<VersionChange> setPluginVersions( final ModifiedPomXMLEventReader pom,
+                                                        final Collection<VersionChange> changes )
+                                                            throws XMLStreamException
+    {
+        Set<VersionChange> applied = new LinkedHashSet<VersionChange>();
+        if ( changes.isEmpty() )
+        {
+            return applied;
+        }
+
+        Map<String, List<VersionChange>> changesByArtifactId = new HashMap<String, List<VersionChange>>();
+        for ( VersionChange change : changes )
+        {
+            List<VersionChange> candidates = changesByArtifactId.get( change.getArtifactId() );
+            if ( candidates == null )
+            {
+                candidates = new ArrayList<VersionChange>();
+                changesByArtifactId.put( change.getArtifactId(), candidates );
+            }
+            candidates.add( change );
+        }
+
         Stack<String> stack = new Stack<String>();
         String path = "";
-        final Pattern matchScopeRegex;
-        final Pattern matchTargetRegex;
         boolean inMatchScope = false;
-        boolean madeReplacement = false;
-        boolean haveGroupId = false;
-        boolean needGroupId = groupId != null && !APACHE_MAVEN_PLUGINS_GROUPID.equals( groupId );
-        boolean haveArtifactId = false;
-        boolean haveOldVersion = false;
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
 
-        matchScopeRegex = Pattern.compile( "/project" + "(/profiles/profile)?"
+        final Pattern matchScopeRegex = Pattern.compile( "/project" + "(/profiles/profile)?"
             + "((/build(/pluginManagement)?)|(/reporting))/plugins/plugin" );
 
-        matchTargetRegex = Pattern.compile( "/project" + "(/profiles/profile)?"
+        final Pattern matchTargetRegex = Pattern.compile( "/project" + "(/profiles/profile)?"
             + "((/build(/pluginManagement)?)|(/reporting))/plugins/plugin" + "((/groupId)|(/artifactId)|(/version))" );
 
         pom.rewind();
@@ -805,20 +995,20 @@ public class PomHelper
                     pom.clearMark( 0 );
                     pom.clearMark( 1 );
 
-                    haveGroupId = false;
-                    haveArtifactId = false;
-                    haveOldVersion = false;
+                    groupId = null;
+                    artifactId = null;
+                    version = null;
                 }
                 else if ( inMatchScope && matchTargetRegex.matcher( path ).matches() )
                 {
                     if ( "groupId".equals( elementName ) )
                     {
-                        haveGroupId = groupId.equals( pom.getElementText().trim() );
+                        groupId = pom.getElementText().trim();
                         path = stack.pop();
                     }
                     else if ( "artifactId".equals( elementName ) )
                     {
-                        haveArtifactId = artifactId.equals( pom.getElementText().trim() );
+                        artifactId = pom.getElementText().trim();
                         path = stack.pop();
                     }
                     else if ( "version".equals( elementName ) )
@@ -833,36 +1023,73 @@ public class PomHelper
                     && "version".equals( event.asEndElement().getName().getLocalPart() ) )
                 {
                     pom.mark( 1 );
-
-                    try
-                    {
-                        haveOldVersion = isVersionOverlap( oldVersion, pom.getBetween( 0, 1 ).trim() );
-                    }
-                    catch ( InvalidVersionSpecificationException e )
-                    {
-                        // fall back to string comparison
-                        haveOldVersion = oldVersion.equals( pom.getBetween( 0, 1 ).trim() );
-                    }
+                    version = pom.getBetween( 0, 1 ).trim();
                 }
                 else if ( matchScopeRegex.matcher( path ).matches() )
                 {
-                    if ( inMatchScope && pom.hasMark( 0 ) && pom.hasMark( 1 ) && ( haveGroupId || !needGroupId )
-                        && haveArtifactId && haveOldVersion )
+                    if ( inMatchScope && pom.hasMark( 0 ) && pom.hasMark( 1 ) && artifactId != null )
                     {
-                        pom.replaceBetween( 0, 1, newVersion );
-                        madeReplacement = true;
-                        pom.clearMark( 0 );
-                        pom.clearMark( 1 );
-                        haveArtifactId = false;
-                        haveGroupId = false;
-                        haveOldVersion = false;
+                        VersionChange change =
+                            findPluginVersionChange( changesByArtifactId.get( artifactId ), groupId, version );
+                        if ( change != null )
+                        {
+                            pom.replaceBetween( 0, 1, change.getNewVersion() );
+                            applied.add( change );
+                        }
                     }
+                    pom.clearMark( 0 );
+                    pom.clearMark( 1 );
+                    groupId = null;
+                    artifactId = null;
+                    version = null;
                     inMatchScope = false;
                 }
                 path = stack.pop();
             }
         }
-        return madeReplacement;
+        return applied;
+    }
+
+    /**
+     * Finds the first plugin change matching the groupId and version found in the pom. Changes for the default plugin
+     * groupId match regardless of the groupId found in the pom.
+     *
+     * @param candidates the changes for the plugin's artifactId, may be <code>null</code>.
+     * @param pomGroupId the groupId found in the pom, may be <code>null</code>.
+     * @param pomVersion the version found in the pom.
+     * @return the matching change or <code>null</code> if there is none.
+     */
+    private static VersionChange findPluginVersionChange( List<VersionChange> candidates, String pomGroupId,
+                                                          String pomVersion )
+    {
+        if ( candidates == null )
+        {
+            return null;
+        }
+        for ( VersionChange candidate : candidates )
+        {
+            boolean needGroupId =
+                candidate.getGroupId() != null && !APACHE_MAVEN_PLUGINS_GROUPID.equals( candidate.getGroupId() );
+            if ( needGroupId && !candidate.getGroupId().equals( pomGroupId ) )
+            {
+                continue;
+            }
+            boolean haveOldVersion;
+            try
+            {
+                haveOldVersion = isVersionOverlap( candidate.getOldVersion(), pomVersion );
+            }
+            catch ( InvalidVersionSpecificationException e )
+            {
+                // fall back to string comparison
+                haveOldVersion = candidate.getOldVersion().equals( pomVersion );
+            }
+            if ( haveOldVersion )
+            {
+                return candidate;
+            }
+        }
+        return null;
     }
 
     /**
@@ -891,79 +1118,26 @@ public class PomHelper
         // add any properties from profiles first (as they override properties from the project
         for ( Profile profile : model.getProfiles() )
         {
-            if ( !activeProfiles.contains( profile.getId() ) )
-            {
-                continue;
-            }
-            addProperties( helper, result, profile.getId(), profile.getProperties() );
-            if ( profile.getDependencyManagement() != null )
-            {
-                addDependencyAssocations( helper, expressionEvaluator, result,
-                                          profile.getDependencyManagement().getDependencies(), false );
-            }
-            addDependencyAssocations( helper, expressionEvaluator, result, profile.getDependencies(), false );
-            if ( profile.getBuild() != null )
-            {
-                if ( profile.getBuild().getPluginManagement() != null )
-                {
-                    addPluginAssociations( helper, expressionEvaluator, result,
-                                           profile.getBuild().getPluginManagement().getPlugins() );
-                }
-                addPluginAssociations( helper, expressionEvaluator, result, profile.getBuild().getPlugins() );
-            }
-            if ( profile.getReporting() != null )
+            if ( activeProfiles.contains( profile.getId() ) )
             {
-                addReportPluginAssociations( helper, expressionEvaluator, result, profile.getReporting().getPlugins() );
+                addProperties( helper, result, profile.getId(), profile.getProperties() );
             }
         }
 
         // second, we add all the properties in the pom
         addProperties( helper, result, null, model.getProperties() );
-        if ( model.getDependencyManagement() != null )
-        {
-            addDependencyAssocations( helper, expressionEvaluator, result,
-                                      model.getDependencyManagement().getDependencies(), false );
-        }
-        addDependencyAssocations( helper, expressionEvaluator, result, model.getDependencies(), false );
-        if ( model.getBuild() != null )
-        {
-            if ( model.getBuild().getPluginManagement() != null )
-            {
-                addPluginAssociations( helper, expressionEvaluator, result,
-                                       model.getBuild().getPluginManagement().getPlugins() );
-            }
-            addPluginAssociations( helper, expressionEvaluator, result, model.getBuild().getPlugins() );
-        }
-        if ( model.getReporting() != null )
-        {
-            addReportPluginAssociations( helper, expressionEvaluator, result, model.getReporting().getPlugins() );
-        }
 
-        // third, we add any associations from the active profiles
+        // third, we add the associations from the pom and then from the active profiles, in a single walk each now
+        // that all the properties are known
+        addAssociations( helper, expressionEvaluator, result, model.getDependencyManagement(),
+                         model.getDependencies(), model.getBuild(), model.getReporting(), helper.getLog() );
         for ( Profile profile : model.getProfiles() )
         {
-            if ( !activeProfiles.contains( profile.getId() ) )
-            {
-                continue;
-            }
-            if ( profile.getDependencyManagement() != null )
+            if ( activeProfiles.contains( profile.getId() ) )
             {
-                addDependencyAssocations( helper, expressionEvaluator, result,
-                                          profile.getDependencyManagement().getDependencies(), false );
-            }
-            addDependencyAssocations( helper, expressionEvaluator, result, profile.getDependencies(), false );
-            if ( profile.getBuild() != null )
-            {
-                if ( profile.getBuild().getPluginManagement() != null )
-                {
-                    addPluginAssociations( helper, expressionEvaluator, result,
-                                           profile.getBuild().getPluginManagement().getPlugins() );
-                }
-                addPluginAssociations( helper, expressionEvaluator, result, profile.getBuild().getPlugins() );
-            }
-            if ( profile.getReporting() != null )
-            {
-                addReportPluginAssociations( helper, expressionEvaluator, result, profile.getReporting().getPlugins() );
+                addAssociations( helper, expressionEvaluator, result, profile.getDependencyManagement(),
+                                 profile.getDependencies(), profile.getBuild(), profile.getReporting(),
+                                 helper.getLog() );
             }
         }
 
@@ -973,6 +1147,47 @@ public class PomHelper
         return result.values().toArray( new PropertyVersionsBuilder[result.values().size()] );
     }
 
+    /**
+     * Adds the associations to properties used to define versions of the dependencies, plugins and report plugins
+     * of a pom or profile.
+     *
+     * @param helper Our helper.
+     * @param expressionEvaluator Our expression evaluator.
+     * @param result The map of {@link org.codehaus.mojo.versions.api.PropertyVersionsBuilder} keyed by property name.
+     * @param dependencyManagement The dependency management, may be <code>null</code>.
+     * @param dependencies The dependencies, may be <code>null</code>.
+     * @param build The build, may be <code>null</code>.
+     * @param reporting The reporting, may be <code>null</code>.
+     * @param log The log to report expressions which do not resolve to, may be <code>null</code>.
+     * @throws ExpressionEvaluationException if an expression cannot be evaluated.
+     */
+    private static void addAssociations( VersionsHelper helper, ExpressionEvaluator expressionEvaluator,
+                                         Map<String, PropertyVersionsBuilder> result,
+                                         DependencyManagement dependencyManagement, List<Dependency> dependencies,
+                                         BuildBase build, Reporting reporting, Log log )
+                                             throws ExpressionEvaluationException
+    {
+        if ( dependencyManagement != null )
+        {
+            addDependencyAssocations( helper, expressionEvaluator, result, dependencyManagement.getDependencies(),
+                                      false, log );
+        }
+        addDependencyAssocations( helper, expressionEvaluator, result, dependencies, false, log );
+        if ( build != null )
+        {
+            if ( build.getPluginManagement() != null )
+            {
+                addPluginAssociations( helper, expressionEvaluator, result,
+                                       build.getPluginManagement().getPlugins(), log );
+            }
+            addPluginAssociations( helper, expressionEvaluator, result, build.getPlugins(), log );
+        }
+        if ( reporting != null )
+        {
+            addReportPluginAssociations( helper, expressionEvaluator, result, reporting.getPlugins(), log );
+        }
+    }
+
     /**
      * Takes a list of {@link org.apache.maven.model.Plugin} instances and adds associations to properties used to
      * define versions of the plugin artifact or any of the plugin dependencies specified in the pom.
@@ -981,10 +1196,12 @@ public class PomHelper
      * @param expressionEvaluator Our expression evaluator.
      * @param result The map of {@link org.codehaus.mojo.versions.api.PropertyVersionsBuilder} keyed by property name.
      * @param plugins The list of {@link org.apache.maven.model.Plugin}.
+     * @param log The log to report expressions which do not resolve to, may be <code>null</code>.
      * @throws ExpressionEvaluationException if an expression cannot be evaluated.
      */
     private static void addPluginAssociations( VersionsHelper helper, ExpressionEvaluator expressionEvaluator,
-                                               Map<String, PropertyVersionsBuilder> result, List<Plugin> plugins )
+                                               Map<String, PropertyVersionsBuilder> result, List<Plugin> plugins,
+                                               Log log )
                                                    throws ExpressionEvaluationException
     {
         if ( plugins == null )
@@ -1011,7 +1228,7 @@ public class PomHelper
                         }
                         else
                         {
-                            groupId = (String) expressionEvaluator.evaluate( groupId );
+                            groupId = evaluate( expressionEvaluator, groupId, log );
                         }
                         String artifactId = plugin.getArtifactId();
                         if ( artifactId == null || artifactId.trim().length() == 0 )
@@ -1021,11 +1238,11 @@ public class PomHelper
                         }
                         else
                         {
-                            artifactId = (String) expressionEvaluator.evaluate( artifactId );
+                            artifactId = evaluate( expressionEvaluator, artifactId, log );
                         }
                         // might as well capture the current value
                         VersionRange versionRange =
-                            VersionRange.createFromVersion( (String) expressionEvaluator.evaluate( plugin.getVersion() ) );
+                            VersionRange.createFromVersion( evaluate( expressionEvaluator, plugin.getVersion(), log ) );
                         property.addAssociation( helper.createPluginArtifact( groupId, artifactId, versionRange ),
                                                  true );
                         if ( !propertyRef.equals( version ) )
@@ -1035,13 +1252,13 @@ public class PomHelper
                     }
                 }
             }
-            addDependencyAssocations( helper, expressionEvaluator, result, plugin.getDependencies(), true );
+            addDependencyAssocations( helper, expressionEvaluator, result, plugin.getDependencies(), true, log );
         }
     }
 
     private static void addReportPluginAssociations( VersionsHelper helper, ExpressionEvaluator expressionEvaluator,
                                                      Map<String, PropertyVersionsBuilder> result,
-                                                     List<ReportPlugin> reportPlugins )
+                                                     List<ReportPlugin> reportPlugins, Log log )
                                                          throws ExpressionEvaluationException
     {
         if ( reportPlugins == null )
@@ -1068,7 +1285,7 @@ public class PomHelper
                         }
                         else
                         {
-                            groupId = (String) expressionEvaluator.evaluate( groupId );
+                            groupId = evaluate( expressionEvaluator, groupId, log );
                         }
                         String artifactId = plugin.getArtifactId();
                         if ( artifactId == null || artifactId.trim().length() == 0 )
@@ -1078,11 +1295,11 @@ public class PomHelper
                         }
                         else
                         {
-                            artifactId = (String) expressionEvaluator.evaluate( artifactId );
+                            artifactId = evaluate( expressionEvaluator, artifactId, log );
                         }
                         // might as well capture the current value
                         VersionRange versionRange =
-                            VersionRange.createFromVersion( (String) expressionEvaluator.evaluate( plugin.getVersion() ) );
+                            VersionRange.createFromVersion( evaluate( expressionEvaluator, plugin.getVersion(), log ) );
                         property.addAssociation( helper.createPluginArtifact( groupId, artifactId, versionRange ),
                                                  true );
                         if ( !propertyRef.equals( version ) )
@@ -1097,7 +1314,8 @@ public class PomHelper
 
     private static void addDependencyAssocations( VersionsHelper helper, ExpressionEvaluator expressionEvaluator,
                                                   Map<String, PropertyVersionsBuilder> result,
-                                                  List<Dependency> dependencies, boolean usePluginRepositories )
+                                                  List<Dependency> dependencies, boolean usePluginRepositories,
+                                                  Log log )
                                                       throws ExpressionEvaluationException
     {
         if ( dependencies == null )
@@ -1124,7 +1342,7 @@ public class PomHelper
                         }
                         else
                         {
-                            groupId = (String) expressionEvaluator.evaluate( groupId );
+                            groupId = evaluate( expressionEvaluator, groupId, log );
                         }
                         String artifactId = dependency.getArtifactId();
                         if ( artifactId == null || artifactId.trim().length() == 0 )
@@ -1134,11 +1352,11 @@ public class PomHelper
                         }
                         else
                         {
-                            artifactId = (String) expressionEvaluator.evaluate( artifactId );
+                            artifactId = evaluate( expressionEvaluator, artifactId, log );
                         }
                         // might as well capture the current value
-                        VersionRange versionRange =
-                            VersionRange.createFromVersion( (String) expressionEvaluator.evaluate( dependency.getVersion() ) );
+                        VersionRange versionRange = VersionRange.createFromVersion(
+                            evaluate( expressionEvaluator, dependency.getVersion(), log ) );
                         property.addAssociation( helper.createDependencyArtifact( groupId, artifactId, versionRange,
                                                                                   dependency.getType(),
                                                                                   dependency.getClassifier(),
@@ -1155,6 +1373,26 @@ public class PomHelper
         }
     }
 
+    /**
+     * Evaluates an expression of the pom, reporting it when some of it does not resolve.
+     *
+     * @param expressionEvaluator Our expression evaluator.
+     * @param expr The expression to evaluate.
+     * @param log The log to report expressions which do not resolve to, may be <code>null</code>.
+     * @return The evaluated expression.
+     * @throws ExpressionEvaluationException if the expression cannot be evaluated.
+     */
+    private static String evaluate( ExpressionEvaluator expressionEvaluator, String expr, Log log )
+        throws ExpressionEvaluationException
+    {
+        String value = (String) expressionEvaluator.evaluate( expr );
+        if ( log != null && log.isDebugEnabled() && value != null && value.contains( "${" ) )
+        {
+            log.debug( "expression: " + expr + " does not resolve, using " + value );
+        }
+        return value;
+    }
+
     private static void addBounds( PropertyVersionsBuilder builder, String rawVersionRange, String propertyRef,
                                    String evaluatedVersionRange )
     {
@@ -1699,4 +1937,119 @@ public class PomHelper
         }
         return importedPOMs;
     }
+
+    /**
+     * Evaluates expressions against a fixed set of properties in a single pass per expression, remembering the value
+     * each property resolves to. A <code>$${</code> escapes an expression and, outside expressions, <code>$$</code>
+     * stands for <code>$</code>. Unresolved properties, and properties whose value refers back to themselves, are
+     * left as expressions.
+     */
+    private static final class Evaluator
+    {
+        private final Map<String, String> properties;
+
+        private final Log log;
+
+        private final Map<String, String> resolved = new HashMap<String, String>();
+
+        private final Set<String> resolving = new LinkedHashSet<String>();
+
+        private final StringBuilder buf = new StringBuilder();
+
+        private Evaluator( Map<String, String> properties, Log log )
+        {
+            this.properties = properties;
+            this.log = log;
+        }
+
+        private String evaluate( String expr )
+        {
+            if ( expr == null || expr.indexOf( '$' ) == -1 )
+            {
+                return expr;
+            }
+            buf.setLength( 0 );
+            appendEvaluated( expr, 0 );
+            return buf.toString();
+        }
+
+        private void appendEvaluated( String expr, int from )
+        {
+            int pos = from;
+            while ( true )
+            {
+                int index = expr.indexOf( "${", pos );
+                int lastIndex = index == -1 ? -1 : expr.indexOf( '}', index );
+                if ( lastIndex == -1 )
+                {
+                    appendUnescaped( expr, pos );
+                    return;
+                }
+                buf.append( expr, pos, index );
+                if ( index > pos && expr.charAt( index - 1 ) == '$' )
+                {
+                    buf.append( expr, index + 1, lastIndex + 1 );
+                }
+                else
+                {
+                    appendProperty( expr.substring( index + 2, lastIndex ) );
+                }
+                pos = lastIndex + 1;
+            }
+        }
+
+        private void appendUnescaped( String expr, int from )
+        {
+            int pos = from;
+            int index;
+            while ( ( index = expr.indexOf( "$$", pos ) ) != -1 )
+            {
+                buf.append( expr, pos, index + 1 );
+                pos = index + 2;
+            }
+            buf.append( expr, pos, expr.length() );
+        }
+
+        private void appendProperty( String name )
+        {
+            String value = resolved.get( name );
+            if ( value != null )
+            {
+                buf.append( value );
+                return;
+            }
+            value = properties.get( name );
+            if ( value == null )
+            {
+                if ( log != null && log.isDebugEnabled() )
+                {
+                    log.debug( "expression: " + name + " no value" );
+                }
+                buf.append( "${" ).append( name ).append( '}' );
+                return;
+            }
+            int exprStartDelimiter = value.indexOf( "${" );
+            if ( exprStartDelimiter == -1 )
+            {
+                resolved.put( name, value );
+                buf.append( value );
+                return;
+            }
+            if ( !resolving.add( name ) )
+            {
+                if ( log != null )
+                {
+                    log.warn( "Cyclic property reference: " + StringUtils.join( resolving.iterator(), " -> " )
+                        + " -> " + name );
+                }
+                buf.append( "${" ).append( name ).append( '}' );
+                return;
+            }
+            int start = buf.length();
+            buf.append( value, 0, exprStartDelimiter );
+            appendEvaluated( value, exprStartDelimiter );
+            resolving.remove( name );
+            resolved.put( name, buf.substring( start ) );
+        }
+    }
 }
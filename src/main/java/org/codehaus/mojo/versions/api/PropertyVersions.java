@@ -29,6 +29,7 @@ import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.codehaus.mojo.versions.Property;
 import org.codehaus.mojo.versions.ordering.VersionComparator;
+import org.codehaus.mojo.versions.utils.Instrumentation;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,6 +38,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -69,26 +71,120 @@ public class PropertyVersions
 
     PropertyVersions( String profileId, String name, VersionsHelper helper, Set<ArtifactAssociation> associations )
         throws ArtifactMetadataRetrievalException
+    {
+        this( profileId, name, helper, associations, null );
+    }
+
+    /**
+     * Creates a new instance, reusing the versions already resolved for the same set of associations.
+     *
+     * @param profileId The profileId.
+     * @param name The property name.
+     * @param helper The {@link VersionsHelper}.
+     * @param associations The associations.
+     * @param resolved The versions already resolved keyed by {@link #getAssociationsKey(Set)}, to which the versions
+     *            resolved by this instance are added, or <code>null</code> to always resolve the versions.
+     * @throws ArtifactMetadataRetrievalException if the versions cannot be resolved.
+     * @since 1.0.1
+     */
+    PropertyVersions( String profileId, String name, VersionsHelper helper, Set<ArtifactAssociation> associations,
+                      Map<String, SortedSet<ArtifactVersion>> resolved )
+        throws ArtifactMetadataRetrievalException
     {
         this.profileId = profileId;
         this.name = name;
         this.helper = helper;
         this.associations = new TreeSet<ArtifactAssociation>( associations );
         this.comparator = new PropertyVersionComparator();
-        this.versions = resolveAssociatedVersions( helper, associations, comparator );
+        if ( resolved == null )
+        {
+            this.versions = resolveAssociatedVersions( lookupAssociatedVersions( helper, associations ), comparator );
+        }
+        else
+        {
+            final String key = getAssociationsKey( this.associations );
+            SortedSet<ArtifactVersion> versions = resolved.get( key );
+            if ( versions == null )
+            {
+                Instrumentation.miss( "property versions" );
+                final List<ArtifactVersions> associatedVersions = lookupAssociatedVersions( helper, associations );
+                versions = resolveAssociatedVersions( associatedVersions, comparator );
+                if ( isPartial( associatedVersions ) )
+                {
+                    helper.getLog().debug( "Property ${" + name + "}: Not reusing the versions resolved for " + key
+                        + " as some repositories did not answer" );
+                }
+                else
+                {
+                    resolved.put( key, versions );
+                }
+            }
+            else
+            {
+                Instrumentation.hit( "property versions" );
+                helper.getLog().debug( "Property ${" + name + "}: Reusing the versions resolved for " + key );
+            }
+            this.versions = versions;
+        }
+    }
 
+    /**
+     * Returns a key identifying the artifacts of a set of associations and whether they are looked up in the plugin
+     * repositories. The versions of two sets of associations with the same key are the same when they are looked up
+     * in the same repositories, which the caller has to ensure by keeping separate versions per repositories.
+     *
+     * @param associations The associations.
+     * @return The key.
+     */
+    private static String getAssociationsKey( Set<ArtifactAssociation> associations )
+    {
+        StringBuilder key = new StringBuilder();
+        for ( ArtifactAssociation association : associations )
+        {
+            if ( key.length() > 0 )
+            {
+                key.append( ',' );
+            }
+            key.append( association.getGroupId() ).append( ':' ).append( association.getArtifactId() );
+            if ( association.isUsePluginRepositories() )
+            {
+                key.append( ":plugin" );
+            }
+        }
+        return key.toString();
+    }
+
+    private static List<ArtifactVersions> lookupAssociatedVersions( VersionsHelper helper,
+                                                                    Set<ArtifactAssociation> associations )
+                                                                        throws ArtifactMetadataRetrievalException
+    {
+        List<ArtifactVersions> result = new ArrayList<ArtifactVersions>( associations.size() );
+        for ( ArtifactAssociation association : associations )
+        {
+            result.add( helper.lookupArtifactVersions( association.getArtifact(),
+                                                       association.isUsePluginRepositories() ) );
+        }
+        return result;
+    }
+
+    private static boolean isPartial( List<ArtifactVersions> associatedVersions )
+    {
+        for ( ArtifactVersions artifactVersions : associatedVersions )
+        {
+            if ( artifactVersions.isPartial() )
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private static SortedSet<ArtifactVersion> resolveAssociatedVersions( VersionsHelper helper,
-                                                                         Set<ArtifactAssociation> associations,
+    private static SortedSet<ArtifactVersion> resolveAssociatedVersions( List<ArtifactVersions> lookups,
                                                                          VersionComparator versionComparator )
-                                                                             throws ArtifactMetadataRetrievalException
     {
         SortedSet<ArtifactVersion> versions = null;
-        for ( ArtifactAssociation association : associations )
+        for ( ArtifactVersions associatedVersions : lookups )
         {
-            final ArtifactVersions associatedVersions =
-                helper.lookupArtifactVersions( association.getArtifact(), association.isUsePluginRepositories() );
             if ( versions != null )
             {
                 final ArtifactVersion[] artifactVersions = associatedVersions.getVersions( true );
@@ -29,6 +29,7 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.TreeSet;
 
 /**
@@ -97,6 +98,21 @@ class PropertyVersionsBuilder
         return new PropertyVersions( profileId, name, helper, associations );
     }
 
+    /**
+     * Creates the {@link PropertyVersions}, reusing the versions already resolved for the same associations.
+     *
+     * @param resolved The versions already resolved, see
+     *            {@link PropertyVersions#PropertyVersions(String, String, VersionsHelper, Set, Map)}.
+     * @return The {@link PropertyVersions}.
+     * @throws ArtifactMetadataRetrievalException if the versions cannot be resolved.
+     * @since 1.0.1
+     */
+    public PropertyVersions newPropertyVersions( Map<String, SortedSet<ArtifactVersion>> resolved )
+        throws ArtifactMetadataRetrievalException
+    {
+        return new PropertyVersions( profileId, name, helper, associations, resolved );
+    }
+
     public String getName()
     {
         return name;
@@ -0,0 +1,111 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+
+/**
+ * The updates of a {@link VersionDetails} which the reports show, computed once. A report row refers to each update
+ * several times, and each lookup on the {@link VersionDetails} walks its versions again. A summary also holds only
+ * the updates rather than every version, so a report can drop the {@link VersionDetails} once a row is summarized.
+ *
+ * @since 1.0.1
+ */
+public class UpdatesSummary
+{
+    private static final UpdateScope[] SCOPES =
+        { UpdateScope.SUBINCREMENTAL, UpdateScope.INCREMENTAL, UpdateScope.MINOR, UpdateScope.MAJOR };
+
+    private final ArtifactVersion currentVersion;
+
+    private final ArtifactVersion[] allUpdates;
+
+    private final ArtifactVersion[] oldestUpdates = new ArtifactVersion[SCOPES.length];
+
+    private final ArtifactVersion[] newestUpdates = new ArtifactVersion[SCOPES.length];
+
+    /**
+     * Summarizes the updates of a {@link VersionDetails} from its current version.
+     *
+     * @param details The versions to summarize.
+     */
+    public UpdatesSummary( VersionDetails details )
+    {
+        this.currentVersion = details.getCurrentVersion();
+        this.allUpdates = details.getAllUpdates( UpdateScope.ANY );
+        for ( int i = 0; i < SCOPES.length; i++ )
+        {
+            oldestUpdates[i] = details.getOldestUpdate( SCOPES[i] );
+            newestUpdates[i] = details.getNewestUpdate( SCOPES[i] );
+        }
+    }
+
+    /**
+     * Returns the current version.
+     *
+     * @return The current version.
+     */
+    public ArtifactVersion getCurrentVersion()
+    {
+        return currentVersion;
+    }
+
+    /**
+     * Returns all the updates, see {@link VersionDetails#getAllUpdates(UpdateScope)} with {@link UpdateScope#ANY}.
+     *
+     * @return All the updates.
+     */
+    public ArtifactVersion[] getAllUpdates()
+    {
+        return allUpdates;
+    }
+
+    /**
+     * Returns the oldest update within a scope, see {@link VersionDetails#getOldestUpdate(UpdateScope)}.
+     *
+     * @param updateScope The scope, other than {@link UpdateScope#ANY}.
+     * @return The oldest update or <code>null</code> if there is none.
+     */
+    public ArtifactVersion getOldestUpdate( UpdateScope updateScope )
+    {
+        return oldestUpdates[indexOf( updateScope )];
+    }
+
+    /**
+     * Returns the newest update within a scope, see {@link VersionDetails#getNewestUpdate(UpdateScope)}.
+     *
+     * @param updateScope The scope, other than {@link UpdateScope#ANY}.
+     * @return The newest update or <code>null</code> if there is none.
+     */
+    public ArtifactVersion getNewestUpdate( UpdateScope updateScope )
+    {
+        return newestUpdates[indexOf( updateScope )];
+    }
+
+    private static int indexOf( UpdateScope updateScope )
+    {
+        int index = updateScope.ordinal();
+        if ( index >= SCOPES.length )
+        {
+            throw new IllegalArgumentException( "Unsupported scope " + updateScope );
+        }
+        return index;
+    }
+}
@@ -157,6 +157,16 @@ public interface VersionsHelper
      */
     ArtifactVersion createArtifactVersion( String version );
 
+    /**
+     * Removes the versions which the rules say to ignore for an artifact, as {@link #lookupArtifactVersions(Artifact,
+     * boolean)} does for the versions it finds.
+     *
+     * @param artifact The artifact the versions are versions of.
+     * @param versions The versions, from which the ignored versions are removed.
+     * @since 1.0.1
+     */
+    void removeIgnoredVersions( Artifact artifact, Collection<ArtifactVersion> versions );
+
     /**
      * Looks up the versions of the specified artifact that are available in either the local repository, or the
      * appropriate remote repositories.
@@ -171,6 +181,23 @@ public interface VersionsHelper
     ArtifactVersions lookupArtifactVersions( Artifact artifact, boolean usePluginRepositories )
         throws ArtifactMetadataRetrievalException;
 
+    /**
+     * Checks whether a version of an artifact is available in the local repository or any of the appropriate remote
+     * repositories. The repositories are asked concurrently, those which allow snapshots first for a snapshot
+     * version, and the check returns as soon as one of them has the version rather than waiting for all of them. A
+     * version excluded by an ignoreVersion rule does not exist, just as it is never among the versions looked up.
+     *
+     * @param artifact The artifact to look for the version of.
+     * @param version The version to look for.
+     * @param usePluginRepositories <code>true</code> will consult the pluginRepositories, while <code>false</code> will
+     *            consult the repositories for normal dependencies.
+     * @return <code>true</code> if a repository has the version.
+     * @throws ArtifactMetadataRetrievalException if no repository has the version and none of them could be asked.
+     * @since 1.0.1
+     */
+    boolean existsVersion( Artifact artifact, String version, boolean usePluginRepositories )
+        throws ArtifactMetadataRetrievalException;
+
     /**
      * Looks up the updates of an artifact.
      *
@@ -195,6 +222,22 @@ public interface VersionsHelper
     Map<Dependency, ArtifactVersions> lookupDependenciesUpdates( Set dependencies, boolean usePluginRepositories )
         throws ArtifactMetadataRetrievalException, InvalidVersionSpecificationException;
 
+    /**
+     * Looks up the updates for a set of dependencies, keeping only a summary of the updates of each dependency. Each
+     * summary is made as soon as the lookup of its dependency is done, so that the versions of all the dependencies
+     * are never held at the same time.
+     *
+     * @param dependencies The set of {@link Dependency} instances to look up.
+     * @param usePluginRepositories Search the plugin repositories.
+     * @return A map, keyed by dependency, with values of type {@link UpdatesSummary}.
+     * @throws ArtifactMetadataRetrievalException When things go wrong.
+     * @throws InvalidVersionSpecificationException if a dependency has an invalid version.
+     * @since 1.0.1
+     */
+    Map<Dependency, UpdatesSummary> lookupDependenciesUpdatesSummaries( Set dependencies,
+                                                                        boolean usePluginRepositories )
+        throws ArtifactMetadataRetrievalException, InvalidVersionSpecificationException;
+
     /**
      * Creates an {@link org.codehaus.mojo.versions.api.ArtifactVersions} instance from a dependency.
      *
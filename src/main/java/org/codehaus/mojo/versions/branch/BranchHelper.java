@@ -45,12 +45,14 @@ public class BranchHelper {
     // Does the artifact exist in the repository?
     private final Predicate<GroupArtifactVersion> artifactResolver;
 
-    // property -> (groupId, artifactId) dependency
+    // property -> (groupId, artifactId) of every dependency using it, across all modules and profiles
     private final SetMultimap<String, GroupArtifact> dependencies = HashMultimap.create();
     // property -> referenced property
     private final Map<String, String> propertyRefs = Maps.newHashMap();
     // property -> (name, value)
     private final SetMultimap<String, PropertyInstance> properties = HashMultimap.create();
+    // property -> SNAPSHOT property at the end of its reference chain, empty for dangling chains and cycles
+    private final Map<String, Optional<String>> resolvedRefs = Maps.newHashMap();
 
     public static Set<PropertyInstance> propertyChanges(Collection<Model> models, Predicate<GroupArtifactVersion> artifactResolver) {
         BranchHelper instance = new BranchHelper(artifactResolver);
@@ -120,26 +122,55 @@ public class BranchHelper {
     }
 
     private Optional<String> resolveReference(String reference) {
-        String property = reference;
-        while (!properties.containsKey(property)) {
-            property = propertyRefs.get(property);
-            if (property == null) {
-                return Optional.empty();
-            }
+        return resolveReference(reference, new HashSet<>());
+    }
+
+    /**
+     * Follows the reference chain once and caches the outcome for every property on the path, so that shared
+     * chains are only walked once. A property seen twice on the same path is a cycle and resolves to nothing.
+     */
+    private Optional<String> resolveReference(String property, Set<String> path) {
+        Optional<String> resolved = resolvedRefs.get(property);
+        if (resolved != null) {
+            return resolved;
+        }
+        if (properties.containsKey(property)) {
+            resolved = Optional.of(property);
+        } else if (!path.add(property)) {
+            resolved = Optional.empty();
+        } else {
+            String next = propertyRefs.get(property);
+            resolved = next == null ? Optional.empty() : resolveReference(next, path);
         }
-        return Optional.of(property);
+        resolvedRefs.put(property, resolved);
+        return resolved;
     }
 
     private Set<PropertyInstance> getChanges() {
-        return properties.values().parallelStream()
-                .filter(this::validateBranchedArtifacts)
+        Set<GroupArtifactVersion> resolvedArtifacts = resolveBranchedArtifacts();
+        return properties.values().stream()
+                .filter(property -> validateBranchedArtifacts(property, resolvedArtifacts))
+                .collect(toSet());
+    }
+
+    /**
+     * Checks every distinct (groupId, artifactId, version) consumed by a SNAPSHOT property in a single batch, so that
+     * an artifact shared by several modules or profiles is only looked up once.
+     */
+    private Set<GroupArtifactVersion> resolveBranchedArtifacts() {
+        Set<GroupArtifactVersion> candidates = properties.values().stream()
+                .flatMap(property -> dependencies.get(property.getName()).stream()
+                        .map(artifact -> new GroupArtifactVersion(artifact, property.getValue())))
+                .collect(toSet());
+        return candidates.parallelStream()
+                .filter(artifactResolver)
                 .collect(toSet());
     }
 
-    private boolean validateBranchedArtifacts(PropertyInstance property) {
+    private boolean validateBranchedArtifacts(PropertyInstance property, Set<GroupArtifactVersion> resolvedArtifacts) {
         Set<GroupArtifact> artifacts = dependencies.get(property.getName());
         return !artifacts.isEmpty() && artifacts.stream().allMatch(artifact ->
-                artifactResolver.test(new GroupArtifactVersion(artifact, property.getValue()))
+                resolvedArtifacts.contains(new GroupArtifactVersion(artifact, property.getValue()))
         );
     }
 
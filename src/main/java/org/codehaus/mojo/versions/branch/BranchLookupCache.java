@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.codehaus.mojo.versions.branch;
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.mojo.versions.utils.Instrumentation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers between builds which branched artifacts exist, in one properties file per branch. An artifact found once
+ * is assumed to stay there, while an artifact not found is only remembered for a short time, as it may be deployed by
+ * the next build of a sibling module.
+ */
+class BranchLookupCache {
+
+    private static final String FOUND = "found";
+    private static final String MISSING = "missing@";
+
+    private final File file;
+    private final long negativeTtlMillis;
+    private final Log log;
+    // branched groupId:artifactId:version -> FOUND or MISSING followed by the time of the lookup
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    private BranchLookupCache(File file, long negativeTtlMillis, Log log) {
+        this.file = file;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.log = log;
+    }
+
+    /**
+     * Loads the cache of a branch.
+     *
+     * @param file the file persisting the cache or {@code null} to not persist it.
+     * @param negativeTtlMillis how long an artifact not found is remembered, {@code 0} to not remember it at all.
+     * @param log the log to report cache problems to.
+     * @return the cache.
+     */
+    static BranchLookupCache load(File file, long negativeTtlMillis, Log log) {
+        BranchLookupCache cache = new BranchLookupCache(file, negativeTtlMillis, log);
+        if (file != null && file.isFile()) {
+            Properties properties = new Properties();
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+                properties.stringPropertyNames().forEach(key -> cache.entries.put(key, properties.getProperty(key)));
+            } catch (IOException e) {
+                log.debug("Ignoring unreadable branch cache " + file + ": " + e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns what a previous lookup found out about a branched artifact.
+     *
+     * @param key the branched artifact.
+     * @param now the current time.
+     * @return whether the artifact exists or empty if it has to be looked up.
+     */
+    Optional<Boolean> get(String key, long now) {
+        String entry = entries.get(key);
+        if (FOUND.equals(entry)) {
+            Instrumentation.hit("branch lookups");
+            return Optional.of(true);
+        }
+        if (entry != null && entry.startsWith(MISSING)) {
+            try {
+                if (now - Long.parseLong(entry.substring(MISSING.length())) < negativeTtlMillis) {
+                    Instrumentation.hit("branch lookups");
+                    return Optional.of(false);
+                }
+            } catch (NumberFormatException e) {
+                // look it up again
+            }
+        }
+        Instrumentation.miss("branch lookups");
+        return Optional.empty();
+    }
+
+    /**
+     * Records the result of a lookup.
+     *
+     * @param key the branched artifact.
+     * @param found whether the artifact exists.
+     * @param now the time of the lookup.
+     */
+    void put(String key, boolean found, long now) {
+        if (found) {
+            entries.put(key, FOUND);
+        } else if (negativeTtlMillis > 0) {
+            entries.put(key, MISSING + now);
+        } else {
+            entries.remove(key);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Writes the cache back to its file if it changed.
+     */
+    void save() {
+        if (file == null || !dirty) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.putAll(entries);
+        file.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, "Branched artifacts looked up by versions:branch");
+            dirty = false;
+        } catch (IOException e) {
+            log.debug("Could not write branch cache " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -34,17 +34,17 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.mojo.versions.AbstractVersionsUpdaterMojo;
-import org.codehaus.mojo.versions.api.ArtifactVersions;
 import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
 import javax.xml.stream.XMLStreamException;
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 import static org.codehaus.mojo.versions.api.PomHelper.getRawModel;
@@ -75,6 +75,16 @@ public class BranchMojo extends AbstractVersionsUpdaterMojo {
     @Parameter(property = "prepend", defaultValue = "false")
     private boolean prepend;
 
+    /**
+     * How many seconds to remember that a branched artifact was not found, so that builds in quick succession do not
+     * ask the repositories again. Branched artifacts which were found are remembered until the branch changes. Set to
+     * 0 to always look missing artifacts up again.
+     *
+     * @since 1.0.1
+     */
+    @Parameter(property = "branchCacheTtl", defaultValue = "300")
+    private int branchCacheTtl;
+
     /**
      * The branch after removing leading path elements.
      */
@@ -82,10 +92,14 @@ public class BranchMojo extends AbstractVersionsUpdaterMojo {
 
     private Set<PropertyInstance> propertyChanges;
 
+    private BranchLookupCache lookupCache;
+
+    private final AtomicReference<Exception> lookupFailure = new AtomicReference<>();
+
     /**
      * Called when this mojo is executed.
      */
-    public void execute() throws MojoExecutionException, MojoFailureException {
+    protected void doExecute() throws MojoExecutionException, MojoFailureException {
         if (getProject().getOriginalModel().getVersion() == null) {
             throw new MojoExecutionException("Project version is inherited from parent; There's not enough information to re-write the POM.");
         }
@@ -107,7 +121,17 @@ public class BranchMojo extends AbstractVersionsUpdaterMojo {
 
         try {
             Map<String, ModelFileTuple> reactor = loadModels(getProject(), getLog());
+            lookupCache = BranchLookupCache.load(getLookupCacheFile(), branchCacheTtl * 1000L, getLog());
             propertyChanges = BranchHelper.propertyChanges(ModelFileTuple.models(reactor.values()), this::existsOnBranch);
+            lookupCache.save();
+            Exception failure = lookupFailure.get();
+            if (failure != null) {
+                if (isFailOnLookupError()) {
+                    throw new MojoExecutionException("Artifact resolution failed. The POM re-write was aborted.", failure);
+                }
+                getLog().warn("Artifact resolution failed for some branched artifacts, their properties were not updated: "
+                        + failure.getMessage());
+            }
             for (ModelFileTuple tuple : reactor.values()) {
                 processFile(tuple);
             }
@@ -122,6 +146,7 @@ public class BranchMojo extends AbstractVersionsUpdaterMojo {
             ModifiedPomXMLEventReader newPom = newModifiedPomXER(input);
 
             updateFile(newPom, tuple.getModel());
+            newPom.close();
 
             if (newPom.isModified()) {
                 writeFile(tuple.getFile(), input);
@@ -251,20 +276,41 @@ public class BranchMojo extends AbstractVersionsUpdaterMojo {
 
     private boolean existsOnBranch(GroupArtifactVersion gav) {
         Artifact artifact = branchedArtifact(gav);
+        String key = ArtifactUtils.versionlessKey(artifact) + ":" + artifact.getVersion();
+        Optional<Boolean> cached = lookupCache.get(key, System.currentTimeMillis());
+        if (cached.isPresent()) {
+            getLog().debug("Branched artifact " + (cached.get() ? "found" : "not found") + " by a previous build: " + artifact);
+            return cached.get();
+        }
+        Optional<Boolean> found = lookupOnBranch(artifact);
+        found.ifPresent(f -> lookupCache.put(key, f, System.currentTimeMillis()));
+        return found.orElse(false);
+    }
+
+    // Empty if the repositories could not be asked, which is neither remembered nor allowed to stop the other lookups
+    private Optional<Boolean> lookupOnBranch(Artifact artifact) {
         try {
-            ArtifactVersions versions = this.getHelper().lookupArtifactVersions(artifact, false);
-            getLog().debug("Available versions for " + artifact + ": " + Arrays.toString(versions.getVersions(true)));
-            if (versions.containsVersion(artifact.getVersion())) {
+            if (getHelper().existsVersion(artifact, artifact.getVersion(), false)) {
                 getLog().info("Branched artifact resolved successfully: " + artifact);
-                return true;
+                return Optional.of(true);
             } else {
                 getLog().info("Branched artifact not found: " + artifact + ". The corresponding property will not be updated.");
-                return false;
+                return Optional.of(false);
             }
         } catch (MojoExecutionException | ArtifactMetadataRetrievalException e) {
-            getLog().info("Artifact resolution failed for " + artifact + ". The POM re-write will be aborted.");
-            throw new RuntimeException(e);
+            getLog().info("Artifact resolution failed for " + artifact + ". The corresponding property will not be updated.");
+            lookupFailure.compareAndSet(null, e);
+            return Optional.empty();
+        }
+    }
+
+    // One file per branch, next to the cached rules in the local repository
+    private File getLookupCacheFile() {
+        String basedir = localRepository == null ? null : localRepository.getBasedir();
+        if (StringUtils.isEmpty(basedir)) {
+            return null;
         }
+        return new File(basedir, ".cache/versions-maven-plugin/branch/" + trimmedBranch + ".properties");
     }
 
     static String truncateBranch(String branch) {
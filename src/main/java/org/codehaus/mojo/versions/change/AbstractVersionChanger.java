@@ -23,6 +23,9 @@ import org.apache.maven.model.Model;
 import org.apache.maven.plugin.logging.Log;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
+import javax.xml.stream.XMLStreamException;
+import java.util.Collection;
+
 /**
  * Created by IntelliJ IDEA.
  *
@@ -55,6 +58,20 @@ public abstract class AbstractVersionChanger
         return pom;
     }
 
+    public Log getLog()
+    {
+        return log;
+    }
+
+    public void apply( Collection<VersionChange> versionChanges )
+        throws XMLStreamException
+    {
+        for ( VersionChange versionChange : versionChanges )
+        {
+            apply( versionChange );
+        }
+    }
+
     public void info( CharSequence charSequence )
     {
         log.info( charSequence );
@@ -22,6 +22,7 @@ package org.codehaus.mojo.versions.change;
 import javax.xml.stream.XMLStreamException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -53,4 +54,13 @@ public class CompositeVersionChanger
             delegate.apply( versionChange );
         }
     }
+
+    public void apply( Collection<VersionChange> versionChanges )
+        throws XMLStreamException
+    {
+        for ( VersionChanger delegate : composites )
+        {
+            delegate.apply( versionChanges );
+        }
+    }
 }
@@ -25,6 +25,7 @@ import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
 import javax.xml.stream.XMLStreamException;
+import java.util.Collection;
 
 /**
  * Created by IntelliJ IDEA.
@@ -45,7 +46,18 @@ public class DependencyVersionChanger
         throws XMLStreamException
     {
         if ( PomHelper.setDependencyVersion( getPom(), versionChange.getGroupId(), versionChange.getArtifactId(),
-                                             versionChange.getOldVersion(), versionChange.getNewVersion() ) )
+                                             versionChange.getOldVersion(), versionChange.getNewVersion(),
+                                             getLog() ) )
+        {
+            info( "    Updating dependency " + versionChange.getGroupId() + ":" + versionChange.getArtifactId() );
+            info( "        from version " + versionChange.getOldVersion() + " to " + versionChange.getNewVersion() );
+        }
+    }
+
+    public void apply( Collection<VersionChange> versionChanges )
+        throws XMLStreamException
+    {
+        for ( VersionChange versionChange : PomHelper.setDependencyVersions( getPom(), versionChanges, getLog() ) )
         {
             info( "    Updating dependency " + versionChange.getGroupId() + ":" + versionChange.getArtifactId() );
             info( "        from version " + versionChange.getOldVersion() + " to " + versionChange.getNewVersion() );
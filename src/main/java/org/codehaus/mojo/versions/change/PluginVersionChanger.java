@@ -25,6 +25,7 @@ import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
 import javax.xml.stream.XMLStreamException;
+import java.util.Collection;
 
 /**
  * Created by IntelliJ IDEA.
@@ -51,4 +52,14 @@ public class PluginVersionChanger
             info( "        from version " + versionChange.getOldVersion() + " to " + versionChange.getNewVersion() );
         }
     }
+
+    public void apply( Collection<VersionChange> versionChanges )
+        throws XMLStreamException
+    {
+        for ( VersionChange versionChange : PomHelper.setPluginVersions( getPom(), versionChanges ) )
+        {
+            info( "    Updating plugin " + versionChange.getGroupId() + ":" + versionChange.getArtifactId() );
+            info( "        from version " + versionChange.getOldVersion() + " to " + versionChange.getNewVersion() );
+        }
+    }
 }
@@ -20,6 +20,7 @@ package org.codehaus.mojo.versions.change;
  */
 
 import javax.xml.stream.XMLStreamException;
+import java.util.Collection;
 
 /**
  * Created by IntelliJ IDEA.
@@ -31,4 +32,7 @@ public interface VersionChanger
 {
     void apply( VersionChange versionChange )
         throws XMLStreamException;
+
+    void apply( Collection<VersionChange> versionChanges )
+        throws XMLStreamException;
 }
@@ -0,0 +1,132 @@
+package org.codehaus.mojo.versions.rewriting;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A {@link Reader} streaming straight from a {@link CharSequence} without copying it first. The sequence may be edited
+ * while it is being read, as long as every edit is announced through {@link #replacing(int, int, int)}: edits
+ * entirely before the read position just shift it, while any other edit makes the reader take a private copy of the
+ * characters it has not read yet.
+ *
+ * @since 1.0.1
+ */
+class CharSequenceReader
+    extends Reader
+{
+
+    /**
+     * The characters to read, <code>null</code> once closed.
+     */
+    private CharSequence source;
+
+    /**
+     * The index of the next character to read in {@link #source}.
+     */
+    private int position;
+
+    /**
+     * Whether {@link #source} is a private copy rather than the sequence being edited.
+     */
+    private boolean detached;
+
+    CharSequenceReader( CharSequence source )
+    {
+        this.source = source;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int read( char[] cbuf, int off, int len )
+        throws IOException
+    {
+        if ( source == null )
+        {
+            throw new IOException( "Reader closed" );
+        }
+        if ( off < 0 || len < 0 || off + len > cbuf.length )
+        {
+            throw new IndexOutOfBoundsException();
+        }
+        if ( len == 0 )
+        {
+            return 0;
+        }
+        int count = Math.min( len, source.length() - position );
+        if ( count <= 0 )
+        {
+            return -1;
+        }
+        if ( source instanceof StringBuilder )
+        {
+            ( (StringBuilder) source ).getChars( position, position + count, cbuf, off );
+        }
+        else if ( source instanceof String )
+        {
+            ( (String) source ).getChars( position, position + count, cbuf, off );
+        }
+        else
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                cbuf[off + i] = source.charAt( position + i );
+            }
+        }
+        position += count;
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void close()
+    {
+        source = null;
+    }
+
+    /**
+     * Must be called before the characters between <code>start</code> and <code>end</code> of the underlying sequence
+     * are replaced by <code>length</code> characters.
+     *
+     * @param start the start of the replaced region, inclusive.
+     * @param end the end of the replaced region, exclusive.
+     * @param length the length of the replacement.
+     */
+    void replacing( int start, int end, int length )
+    {
+        if ( source == null || detached )
+        {
+            return;
+        }
+        if ( end <= position )
+        {
+            position += length - ( end - start );
+        }
+        else
+        {
+            source = source.subSequence( position, source.length() ).toString();
+            position = 0;
+            detached = true;
+        }
+    }
+}
@@ -29,12 +29,16 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.Characters;
 import javax.xml.stream.events.XMLEvent;
 import java.io.IOException;
-import java.io.StringReader;
+import java.util.Arrays;
 
 /**
  * Represents the modified pom file. Note: implementations of the StAX API (JSR-173) are not good round-trip rewriting
  * <b>while</b> keeping all unchanged bytes in the file as is. For example, the StAX API specifies that <code>CR</code>
  * characters will be stripped. Current implementations do not keep &quot; and &apos; characters consistent.
+ * <p>
+ * Edits are recorded against the text as it was when the current pass started and only written into the
+ * <code>StringBuilder</code> when the pass reaches the end of the document, on {@link #rewind()} or on
+ * {@link #close()}, so all offsets stay those reported by the parser and any number of marks can be kept.
  *
  * @author Stephen Connolly
  */
@@ -45,15 +49,20 @@ public class ModifiedPomXMLEventReader
     // ------------------------------ FIELDS ------------------------------
 
     /**
-     * Field MAX_MARKS
+     * Field INITIAL_MARKS
      */
-    private static final int MAX_MARKS = 3;
+    private static final int INITIAL_MARKS = 3;
 
     /**
      * Field pom
      */
     private final StringBuilder pom;
 
+    /**
+     * Field document, the edits made to {@link #pom} since the current pass started.
+     */
+    private final PieceTable document;
+
     /**
      * Field modified
      */
@@ -77,17 +86,12 @@ public class ModifiedPomXMLEventReader
     /**
      * Field markStart
      */
-    private int[] markStart = new int[MAX_MARKS];
+    private int[] markStart = new int[INITIAL_MARKS];
 
     /**
      * Field markEnd
      */
-    private int[] markEnd = new int[MAX_MARKS];
-
-    /**
-     * Field markDelta
-     */
-    private int[] markDelta = new int[MAX_MARKS];
+    private int[] markEnd = new int[INITIAL_MARKS];
 
     /**
      * Field lastStart
@@ -99,25 +103,20 @@ public class ModifiedPomXMLEventReader
      */
     private int lastEnd;
 
-    /**
-     * Field lastDelta
-     */
-    private int lastDelta = 0;
-
     /**
      * Field next
      */
     private XMLEvent next = null;
 
     /**
-     * Field nextDelta
+     * Field backing
      */
-    private int nextDelta = 0;
+    private XMLEventReader backing;
 
     /**
-     * Field backing
+     * Field source, the reader {@link #backing} is parsing from.
      */
-    private XMLEventReader backing;
+    private CharSequenceReader source;
 
     // --------------------------- CONSTRUCTORS ---------------------------
 
@@ -132,6 +131,7 @@ public class ModifiedPomXMLEventReader
         throws XMLStreamException
     {
         this.pom = pom;
+        this.document = new PieceTable( pom );
         this.factory = factory;
         rewind();
     }
@@ -144,18 +144,14 @@ public class ModifiedPomXMLEventReader
     public void rewind()
         throws XMLStreamException
     {
-        backing = factory.createXMLEventReader( new StringReader( pom.toString() ) );
+        document.flush();
+        source = new CharSequenceReader( pom );
+        backing = factory.createXMLEventReader( source );
         nextEnd = 0;
-        nextDelta = 0;
-        for ( int i = 0; i < MAX_MARKS; i++ )
-        {
-            markStart[i] = -1;
-            markEnd[i] = -1;
-            markDelta[i] = 0;
-        }
+        Arrays.fill( markStart, -1 );
+        Arrays.fill( markEnd, -1 );
         lastStart = -1;
         lastEnd = -1;
-        lastDelta = 0;
         next = null;
     }
 
@@ -215,7 +211,6 @@ public class ModifiedPomXMLEventReader
             next = null;
             lastStart = nextStart;
             lastEnd = nextEnd;
-            lastDelta = nextDelta;
         }
     }
 
@@ -272,7 +267,9 @@ public class ModifiedPomXMLEventReader
     public void close()
         throws XMLStreamException
     {
+        flush();
         backing.close();
+        source.close();
         next = null;
         backing = null;
     }
@@ -280,13 +277,13 @@ public class ModifiedPomXMLEventReader
     // -------------------------- OTHER METHODS --------------------------
 
     /**
-     * Returns a copy of the backing string buffer.
+     * Returns a copy of the backing string buffer, including any edits not yet written into it.
      *
      * @return a copy of the backing string buffer.
      */
     public StringBuilder asStringBuilder()
     {
-        return new StringBuilder( pom.toString() );
+        return document.toStringBuilder();
     }
 
     /**
@@ -296,7 +293,10 @@ public class ModifiedPomXMLEventReader
      */
     public void clearMark( int index )
     {
-        markStart[index] = -1;
+        if ( index < markStart.length )
+        {
+            markStart[index] = -1;
+        }
     }
 
     /**
@@ -309,7 +309,7 @@ public class ModifiedPomXMLEventReader
     {
         if ( hasMark( index ) )
         {
-            return pom.substring( markDelta[index] + markStart[index], markDelta[index] + markEnd[index] );
+            return document.substring( markStart[index], markEnd[index] );
         }
         return "";
     }
@@ -323,7 +323,7 @@ public class ModifiedPomXMLEventReader
     {
         if ( hasNext() )
         {
-            return pom.substring( nextDelta + nextStart, nextDelta + nextEnd );
+            return document.substring( nextStart, nextEnd );
         }
         return "";
     }
@@ -341,6 +341,7 @@ public class ModifiedPomXMLEventReader
         if ( !backing.hasNext() )
         {
             // fast path
+            flush();
             return false;
         }
         try
@@ -370,7 +371,12 @@ public class ModifiedPomXMLEventReader
                     }
                 }
             }
-            return nextStart < pom.length();
+            if ( nextStart < pom.length() )
+            {
+                return true;
+            }
+            flush();
+            return false;
         }
         catch ( XMLStreamException e )
         {
@@ -387,7 +393,7 @@ public class ModifiedPomXMLEventReader
     {
         if ( lastStart >= 0 && lastEnd >= lastStart )
         {
-            return pom.substring( lastDelta + lastStart, lastDelta + lastEnd );
+            return document.substring( lastStart, lastEnd );
         }
         return "";
     }
@@ -399,9 +405,17 @@ public class ModifiedPomXMLEventReader
      */
     public void mark( int index )
     {
+        if ( index >= markStart.length )
+        {
+            int length = Math.max( index + 1, markStart.length * 2 );
+            int oldLength = markStart.length;
+            markStart = Arrays.copyOf( markStart, length );
+            markEnd = Arrays.copyOf( markEnd, length );
+            Arrays.fill( markStart, oldLength, length, -1 );
+            Arrays.fill( markEnd, oldLength, length, -1 );
+        }
         markStart[index] = lastStart;
         markEnd[index] = lastEnd;
-        markDelta[index] = lastDelta;
     }
 
     /**
@@ -433,7 +447,7 @@ public class ModifiedPomXMLEventReader
      */
     private char c( int index )
     {
-        return pom.charAt( nextDelta + index );
+        return pom.charAt( index );
     }
 
     /**
@@ -447,24 +461,7 @@ public class ModifiedPomXMLEventReader
         {
             throw new IllegalStateException();
         }
-        int start = lastDelta + lastStart;
-        int end = lastDelta + lastEnd;
-        if ( replacement.equals( pom.substring( start, end ) ) )
-        {
-            return;
-        }
-        pom.replace( start, end, replacement );
-        int delta = replacement.length() - lastEnd - lastStart;
-        nextDelta += delta;
-        for ( int i = 0; i < MAX_MARKS; i++ )
-        {
-            if ( hasMark( i ) && lastStart == markStart[i] && markEnd[i] == lastEnd )
-            {
-                markEnd[i] += delta;
-            }
-        }
-        lastEnd += delta;
-        modified = true;
+        replace( lastStart, lastEnd, replacement );
     }
 
     /**
@@ -475,7 +472,7 @@ public class ModifiedPomXMLEventReader
      */
     public boolean hasMark( int index )
     {
-        return markStart[index] != -1;
+        return index < markStart.length && markStart[index] != -1;
     }
 
     public String getBetween( int index1, int index2 )
@@ -484,10 +481,7 @@ public class ModifiedPomXMLEventReader
         {
             throw new IllegalStateException();
         }
-        int start = markDelta[index1] + markEnd[index1];
-        int end = markDelta[index2] + markStart[index2];
-        return pom.substring( start, end );
-
+        return document.substring( markEnd[index1], markStart[index2] );
     }
 
     /**
@@ -503,37 +497,7 @@ public class ModifiedPomXMLEventReader
         {
             throw new IllegalStateException();
         }
-        int start = markDelta[index1] + markEnd[index1];
-        int end = markDelta[index2] + markStart[index2];
-        if ( replacement.equals( pom.substring( start, end ) ) )
-        {
-            return;
-        }
-        pom.replace( start, end, replacement );
-        int delta = replacement.length() - ( end - start );
-        nextDelta += delta;
-
-        for ( int i = 0; i < MAX_MARKS; i++ )
-        {
-            if ( i == index1 || i == index2 || markStart[i] == -1 )
-            {
-                continue;
-            }
-            if ( markStart[i] > markStart[index2] )
-            {
-                markDelta[i] += delta;
-            }
-            else if ( markStart[i] == markEnd[index1] && markEnd[i] == markStart[index1] )
-            {
-                markDelta[i] += delta;
-            }
-            else if ( markStart[i] > markEnd[index1] || markEnd[i] < markStart[index2] )
-            {
-                markStart[i] = -1;
-            }
-        }
-
-        modified = true;
+        replace( markEnd[index1], markStart[index2], replacement );
     }
 
     /**
@@ -548,47 +512,81 @@ public class ModifiedPomXMLEventReader
         {
             throw new IllegalStateException();
         }
-        int start = markDelta[index] + markStart[index];
-        int end = markDelta[index] + markEnd[index];
-        if ( replacement.equals( pom.substring( start, end ) ) )
+        replace( markStart[index], markEnd[index], replacement );
+    }
+
+    /**
+     * Replaces the text between two offsets and clears the marks of any events inside the replaced text.
+     *
+     * @param start The start offset, inclusive.
+     * @param end The end offset, exclusive.
+     * @param replacement The replacement.
+     */
+    private void replace( int start, int end, String replacement )
+    {
+        if ( !document.replace( start, end, replacement ) )
         {
             return;
         }
-        pom.replace( start, end, replacement );
-        int delta = replacement.length() - markEnd[index] - markStart[index];
-        nextDelta += delta;
-        if ( lastStart == markStart[index] && lastEnd == markEnd[index] )
+        for ( int i = 0; i < markStart.length; i++ )
         {
-            lastEnd += delta;
+            if ( markStart[i] != -1 && start <= markStart[i] && markEnd[i] <= end && markStart[i] < markEnd[i]
+                && !( markStart[i] == start && markEnd[i] == end ) )
+            {
+                markStart[i] = -1;
+            }
         }
-        else if ( lastStart > markStart[index] )
+        modified = true;
+    }
+
+    /**
+     * Writes any pending edits into the backing string buffer, moving all offsets onto the new text. Only called once
+     * the parser will not report any further offsets.
+     */
+    private void flush()
+    {
+        if ( !document.isEdited() )
         {
-            lastDelta += delta;
+            return;
         }
-        for ( int i = 0; i < MAX_MARKS; i++ )
+        int length = pom.length();
+        int newNextStart = translateStart( nextStart, nextEnd );
+        nextEnd = translateEnd( nextStart, nextEnd );
+        nextStart = newNextStart;
+        if ( lastStart >= 0 )
         {
-            if ( i == index || markStart[i] == -1 )
-            {
-                continue;
-            }
-            if ( markStart[i] > markStart[index] )
-            {
-                markDelta[i] += delta;
-            }
-            else if ( markStart[i] == markStart[index] && markEnd[i] == markEnd[index] )
+            int newLastStart = translateStart( lastStart, lastEnd );
+            lastEnd = translateEnd( lastStart, lastEnd );
+            lastStart = newLastStart;
+        }
+        for ( int i = 0; i < markStart.length; i++ )
+        {
+            if ( markStart[i] != -1 )
             {
-                markDelta[i] += delta;
+                int newMarkStart = translateStart( markStart[i], markEnd[i] );
+                markEnd[i] = translateEnd( markStart[i], markEnd[i] );
+                markStart[i] = newMarkStart;
             }
         }
-        markEnd[index] += delta;
-        modified = true;
+        document.flush();
+        source.replacing( 0, length, pom.length() );
+    }
+
+    private int translateStart( int start, int end )
+    {
+        return start < 0 ? start : document.translate( start, start < end );
+    }
+
+    private int translateEnd( int start, int end )
+    {
+        return end < 0 ? end : document.translate( end, start >= end );
     }
 
     public Model parse()
         throws IOException, XmlPullParserException
     {
         MavenXpp3Reader reader = new MavenXpp3Reader();
-        return reader.read( new StringReader( pom.toString() ) );
+        return reader.read( new CharSequenceReader( document.isEdited() ? document.toStringBuilder() : pom ) );
     }
 
 }
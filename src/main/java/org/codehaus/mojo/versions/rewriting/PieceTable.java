@@ -0,0 +1,220 @@
+package org.codehaus.mojo.versions.rewriting;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A document made of an unmodified base text plus a set of non-overlapping replacements. Every offset is an offset in
+ * the base text, so offsets handed out by a parser reading the base text stay valid however many edits are made, and
+ * an edit costs <code>O(log n)</code> in the number of edits instead of shifting the rest of the text. The edits are
+ * written back into the base text by {@link #flush()}.
+ * <p>
+ * A replacement of an empty region is an insertion. An insertion belongs to the region that is exactly its insertion
+ * point, or to any region that strictly contains it, but not to a non-empty region that merely starts or ends there.
+ *
+ * @since 1.0.1
+ */
+class PieceTable
+{
+
+    /**
+     * The base text.
+     */
+    private final StringBuilder base;
+
+    /**
+     * The replacements, ordered by position in the base text, see {@link #key(int, boolean)}.
+     */
+    private final TreeMap<Long, Piece> edits = new TreeMap<Long, Piece>();
+
+    PieceTable( StringBuilder base )
+    {
+        this.base = base;
+    }
+
+    /**
+     * Returns <code>true</code> if there are edits which have not been flushed yet.
+     *
+     * @return <code>true</code> if there are edits which have not been flushed yet.
+     */
+    boolean isEdited()
+    {
+        return !edits.isEmpty();
+    }
+
+    /**
+     * Returns the current text of a region of the base text.
+     *
+     * @param start the start of the region in the base text, inclusive.
+     * @param end the end of the region in the base text, exclusive.
+     * @return the current text of the region.
+     */
+    String substring( int start, int end )
+    {
+        StringBuilder buf = new StringBuilder( end - start );
+        append( buf, start, end );
+        return buf.toString();
+    }
+
+    /**
+     * Replaces the current text of a region of the base text. Any edits within the region are discarded.
+     *
+     * @param start the start of the region in the base text, inclusive.
+     * @param end the end of the region in the base text, exclusive.
+     * @param replacement the replacement.
+     * @return <code>true</code> if the text changed.
+     * @throws IllegalStateException if the region partially overlaps an earlier edit.
+     */
+    boolean replace( int start, int end, String replacement )
+    {
+        if ( overlaps( start ) || ( start < end && overlaps( end ) ) )
+        {
+            throw new IllegalStateException( "Region " + start + "-" + end + " overlaps an earlier edit" );
+        }
+        if ( replacement.equals( substring( start, end ) ) )
+        {
+            return false;
+        }
+        within( start, end ).clear();
+        if ( !replacement.equals( base.substring( start, end ) ) )
+        {
+            edits.put( key( start, start == end ), new Piece( start, end, replacement ) );
+        }
+        return true;
+    }
+
+    /**
+     * Maps an offset in the base text to the offset of the same point in the current text.
+     *
+     * @param offset the offset in the base text.
+     * @param afterInsertion whether the point is after, rather than before, any text inserted at that offset.
+     * @return the offset in the current text.
+     */
+    int translate( int offset, boolean afterInsertion )
+    {
+        int result = offset;
+        for ( Piece piece : edits.headMap( key( offset, !afterInsertion ), false ).values() )
+        {
+            result += piece.text.length() - ( piece.end - piece.start );
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new string builder holding the current text.
+     *
+     * @return a new string builder holding the current text.
+     */
+    StringBuilder toStringBuilder()
+    {
+        StringBuilder buf = new StringBuilder( base.length() + 64 );
+        append( buf, 0, base.length() );
+        return buf;
+    }
+
+    /**
+     * Writes the edits into the base text, which then becomes the current text.
+     */
+    void flush()
+    {
+        if ( edits.isEmpty() )
+        {
+            return;
+        }
+        StringBuilder buf = toStringBuilder();
+        base.setLength( 0 );
+        base.append( buf );
+        edits.clear();
+    }
+
+    private void append( StringBuilder buf, int start, int end )
+    {
+        int offset = start;
+        for ( Piece piece : within( start, end ).values() )
+        {
+            buf.append( base, offset, piece.start ).append( piece.text );
+            offset = piece.end;
+        }
+        buf.append( base, offset, end );
+    }
+
+    /**
+     * Returns the edits which belong to a region.
+     *
+     * @param start the start of the region in the base text, inclusive.
+     * @param end the end of the region in the base text, exclusive.
+     * @return a live view of the edits which belong to the region.
+     */
+    private NavigableMap<Long, Piece> within( int start, int end )
+    {
+        if ( start == end )
+        {
+            return edits.subMap( key( start, true ), true, key( start, true ), true );
+        }
+        return edits.subMap( key( start, false ), true, key( end, true ), false );
+    }
+
+    /**
+     * Returns <code>true</code> if an offset lies strictly inside a replaced region.
+     *
+     * @param offset the offset in the base text.
+     * @return <code>true</code> if an offset lies strictly inside a replaced region.
+     */
+    private boolean overlaps( int offset )
+    {
+        Map.Entry<Long, Piece> entry = edits.lowerEntry( key( offset, true ) );
+        return entry != null && entry.getValue().end > offset;
+    }
+
+    /**
+     * Orders edits by start, with an insertion before the replacement of a non-empty region starting at the same
+     * offset.
+     *
+     * @param start the start of the edit in the base text.
+     * @param insertion whether the edit is an insertion.
+     * @return the key of the edit.
+     */
+    private static long key( int start, boolean insertion )
+    {
+        return 2L * start + ( insertion ? 0 : 1 );
+    }
+
+    /**
+     * A replacement of a region of the base text.
+     */
+    private static final class Piece
+    {
+        private final int start;
+
+        private final int end;
+
+        private final String text;
+
+        private Piece( int start, int end, String text )
+        {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.metadata.ResolutionGroup;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An {@link ArtifactMetadataSource} which reads the available versions of an artifact straight from the
+ * <code>maven-metadata*.xml</code> files of a repository on the local file system, e.g. a synchronized mirror, instead
+ * of asking the remote repositories. Everything else is delegated.
+ *
+ * @since 1.0.1
+ */
+public class FileSystemMetadataSource
+    implements ArtifactMetadataSource
+{
+    private static final FileFilter METADATA_FILES = new FileFilter()
+    {
+        public boolean accept( File file )
+        {
+            return file.getName().startsWith( "maven-metadata" ) && file.getName().endsWith( ".xml" )
+                && file.isFile();
+        }
+    };
+
+    private final File basedir;
+
+    private final ArtifactMetadataSource delegate;
+
+    /**
+     * Creates a new source.
+     *
+     * @param basedir The root of the repository, in the default layout.
+     * @param delegate The source to delegate everything but the lookup of versions to.
+     */
+    public FileSystemMetadataSource( File basedir, ArtifactMetadataSource delegate )
+    {
+        this.basedir = basedir;
+        this.delegate = delegate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ResolutionGroup retrieve( Artifact artifact, ArtifactRepository localRepository, List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        return delegate.retrieve( artifact, localRepository, remoteRepositories );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Artifact retrieveRelocatedArtifact( Artifact artifact, ArtifactRepository localRepository,
+                                               List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        return delegate.retrieveRelocatedArtifact( artifact, localRepository, remoteRepositories );
+    }
+
+    /**
+     * Reads the versions listed by the <code>maven-metadata*.xml</code> files of the artifact in the repository, the
+     * local and remote repositories are not consulted.
+     *
+     * @param artifact The artifact.
+     * @param localRepository Not used.
+     * @param remoteRepositories Not used.
+     * @return The versions of the artifact, empty if the repository does not have the artifact.
+     * @throws ArtifactMetadataRetrievalException if a metadata file cannot be read.
+     */
+    public List retrieveAvailableVersions( Artifact artifact, ArtifactRepository localRepository,
+                                           List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        File dir = new File( basedir, artifact.getGroupId().replace( '.', '/' ) + '/' + artifact.getArtifactId() );
+        File[] files = dir.listFiles( METADATA_FILES );
+        Set<String> versions = new LinkedHashSet<String>();
+        if ( files != null )
+        {
+            for ( File file : files )
+            {
+                try
+                {
+                    versions.addAll( RepositoryMetadataPoller.readVersions( file ) );
+                }
+                catch ( IOException e )
+                {
+                    throw new ArtifactMetadataRetrievalException( "Could not read " + file + ": " + e.getMessage(),
+                                                                  e );
+                }
+                catch ( XMLStreamException e )
+                {
+                    throw new ArtifactMetadataRetrievalException( "Could not parse " + file + ": " + e.getMessage(),
+                                                                  e );
+                }
+            }
+        }
+        List<ArtifactVersion> result = new ArrayList<ArtifactVersion>( versions.size() );
+        for ( String version : versions )
+        {
+            result.add( new DefaultArtifactVersion( version ) );
+        }
+        return result;
+    }
+}
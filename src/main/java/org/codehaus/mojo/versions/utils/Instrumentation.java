@@ -0,0 +1,423 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.WriterFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records where a goal spends its time: how often each operation ran, how long it took, how many bytes it handled
+ * and how often caches answered, so that thread counts and cache settings can be tuned. The latencies are kept in
+ * histograms with power of two buckets, which is precise enough for percentiles and costs the same however many
+ * operations are recorded. The caches shared by the goals of a build count their hits and misses through
+ * {@link #hit(String)} and {@link #miss(String)}, and each instance reports the part counted during its goal. Safe for
+ * use by several threads.
+ *
+ * @since 1.0.1
+ */
+public class Instrumentation
+{
+    /**
+     * The number of histogram buckets, bucket <code>i</code> holds the operations which took less than
+     * <code>2^i</code> microseconds and bucket 0 those which took less than a microsecond.
+     */
+    private static final int BUCKETS = 40;
+
+    /**
+     * The hits and misses of the shared caches since the plugin was loaded.
+     */
+    private static final ConcurrentMap<String, Cache> SHARED_CACHES = new ConcurrentSkipListMap<String, Cache>();
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentSkipListMap<String, Timer>();
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentSkipListMap<String, Cache>();
+
+    /**
+     * The hits and misses of the shared caches when this instance was created.
+     */
+    private final Map<String, long[]> sharedCachesAtStart = new HashMap<String, long[]>();
+
+    public Instrumentation()
+    {
+        markSharedCaches();
+    }
+
+    /**
+     * Returns an instance if timings are to be logged or written.
+     *
+     * @param timings Whether the timings are logged.
+     * @param timingsFile The file to write the timings to, may be <code>null</code>.
+     * @return the instance or <code>null</code> if nothing is recorded.
+     */
+    public static Instrumentation create( boolean timings, File timingsFile )
+    {
+        return timings || timingsFile != null ? new Instrumentation() : null;
+    }
+
+    /**
+     * Counts a lookup a shared cache answered.
+     *
+     * @param cache The cache.
+     */
+    public static void hit( String cache )
+    {
+        sharedCache( cache ).hits.incrementAndGet();
+    }
+
+    /**
+     * Counts a lookup a shared cache could not answer.
+     *
+     * @param cache The cache.
+     */
+    public static void miss( String cache )
+    {
+        sharedCache( cache ).misses.incrementAndGet();
+    }
+
+    /**
+     * Returns the time to pass to {@link #stop(String, long)} when the operation ends.
+     *
+     * @return the current time.
+     */
+    public long start()
+    {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records an operation.
+     *
+     * @param name The operation.
+     * @param start The time it started, see {@link #start()}.
+     */
+    public void stop( String name, long start )
+    {
+        stop( name, start, 0 );
+    }
+
+    /**
+     * Records an operation which read or wrote data.
+     *
+     * @param name The operation.
+     * @param start The time it started, see {@link #start()}.
+     * @param bytes The number of bytes it read or wrote.
+     */
+    public void stop( String name, long start, long bytes )
+    {
+        timer( name ).record( System.nanoTime() - start, bytes );
+    }
+
+    /**
+     * Records the use of a cache.
+     *
+     * @param name The cache.
+     * @param hits The number of lookups the cache answered.
+     * @param misses The number of lookups the cache could not answer.
+     */
+    public void cache( String name, long hits, long misses )
+    {
+        Cache cache = cache( caches, name );
+        cache.hits.addAndGet( hits );
+        cache.misses.addAndGet( misses );
+    }
+
+    /**
+     * Returns a proxy of an object which records every call of the methods of an interface as an operation named
+     * after the prefix and the method.
+     *
+     * @param type The interface.
+     * @param target The object to call.
+     * @param prefix The prefix of the names of the operations.
+     * @param <T> The interface.
+     * @return The proxy.
+     */
+    public <T> T wrap( Class<T> type, final T target, final String prefix )
+    {
+        return type.cast( Proxy.newProxyInstance( type.getClassLoader(), new Class[]{ type }, new InvocationHandler()
+        {
+            public Object invoke( Object proxy, Method method, Object[] args )
+                throws Throwable
+            {
+                long start = start();
+                try
+                {
+                    return method.invoke( target, args );
+                }
+                catch ( InvocationTargetException e )
+                {
+                    throw e.getCause();
+                }
+                finally
+                {
+                    stop( prefix + method.getName(), start );
+                }
+            }
+        } ) );
+    }
+
+    /**
+     * Returns <code>true</code> if nothing was recorded.
+     *
+     * @return <code>true</code> if nothing was recorded.
+     */
+    public boolean isEmpty()
+    {
+        return timers.isEmpty() && caches.isEmpty();
+    }
+
+    /**
+     * Records the use of the shared caches since this instance was created, then logs and writes what was
+     * recorded. A file which cannot be written is reported as a warning.
+     *
+     * @param log The log.
+     * @param summary Whether to log a table of the operations and caches.
+     * @param file The file to write the operations and caches to as JSON, may be <code>null</code>.
+     */
+    public void report( Log log, boolean summary, File file )
+    {
+        for ( Map.Entry<String, Cache> entry : SHARED_CACHES.entrySet() )
+        {
+            long[] atStart = sharedCachesAtStart.get( entry.getKey() );
+            long hits = entry.getValue().hits.get() - ( atStart == null ? 0 : atStart[0] );
+            long misses = entry.getValue().misses.get() - ( atStart == null ? 0 : atStart[1] );
+            if ( hits + misses > 0 )
+            {
+                cache( entry.getKey(), hits, misses );
+            }
+        }
+        markSharedCaches();
+        if ( summary && !isEmpty() )
+        {
+            logSummary( log );
+        }
+        if ( file != null )
+        {
+            try
+            {
+                writeJson( file );
+            }
+            catch ( IOException e )
+            {
+                log.warn( "Could not write the timings to " + file + ": " + e.getMessage() );
+            }
+        }
+    }
+
+    /**
+     * Logs a table of the operations and caches.
+     *
+     * @param log The log.
+     */
+    public void logSummary( Log log )
+    {
+        log.info( String.format( Locale.ENGLISH, "%-48s %8s %10s %9s %9s %9s %9s %12s", "Operation", "Count",
+                                 "Total ms", "Mean ms", "p50 ms", "p99 ms", "Max ms", "Bytes" ) );
+        for ( Map.Entry<String, Timer> entry : timers.entrySet() )
+        {
+            Timer timer = entry.getValue();
+            long count = timer.count.get();
+            log.info( String.format( Locale.ENGLISH, "%-48s %8d %10.1f %9.2f %9.2f %9.2f %9.2f %12d",
+                                     entry.getKey(), count, millis( timer.total.get() ),
+                                     millis( timer.total.get() ) / Math.max( 1, count ),
+                                     millis( timer.percentile( 0.5 ) ), millis( timer.percentile( 0.99 ) ),
+                                     millis( timer.max.get() ), timer.bytes.get() ) );
+        }
+        for ( Map.Entry<String, Cache> entry : caches.entrySet() )
+        {
+            Cache cache = entry.getValue();
+            log.info( String.format( Locale.ENGLISH, "%-48s %8d hits %8d misses (%.1f%% hit rate)", entry.getKey(),
+                                     cache.hits.get(), cache.misses.get(), 100 * cache.hitRate() ) );
+        }
+    }
+
+    /**
+     * Writes the operations and caches as a JSON object.
+     *
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeJson( File file )
+        throws IOException
+    {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        Writer out = WriterFactory.newWriter( file, "UTF-8" );
+        try
+        {
+            out.write( "{\"operations\":{" );
+            String separator = "";
+            for ( Map.Entry<String, Timer> entry : timers.entrySet() )
+            {
+                Timer timer = entry.getValue();
+                out.write( separator + quote( entry.getKey() ) + ":{\"count\":" + timer.count.get() + ",\"totalNanos\":"
+                    + timer.total.get() + ",\"maxNanos\":" + timer.max.get() + ",\"p50Nanos\":"
+                    + timer.percentile( 0.5 ) + ",\"p90Nanos\":" + timer.percentile( 0.9 ) + ",\"p99Nanos\":"
+                    + timer.percentile( 0.99 ) + ",\"bytes\":" + timer.bytes.get() + ",\"histogramMicros\":{" );
+                String bucketSeparator = "";
+                for ( int i = 0; i < BUCKETS; i++ )
+                {
+                    long n = timer.histogram.get( i );
+                    if ( n > 0 )
+                    {
+                        out.write( bucketSeparator + "\"<" + ( 1L << i ) + "\":" + n );
+                        bucketSeparator = ",";
+                    }
+                }
+                out.write( "}}" );
+                separator = ",";
+            }
+            out.write( "},\"caches\":{" );
+            separator = "";
+            for ( Map.Entry<String, Cache> entry : caches.entrySet() )
+            {
+                Cache cache = entry.getValue();
+                out.write( separator + quote( entry.getKey() ) + ":{\"hits\":" + cache.hits.get() + ",\"misses\":"
+                    + cache.misses.get() + "}" );
+                separator = ",";
+            }
+            out.write( "}}\n" );
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
+    private void markSharedCaches()
+    {
+        sharedCachesAtStart.clear();
+        for ( Map.Entry<String, Cache> entry : SHARED_CACHES.entrySet() )
+        {
+            sharedCachesAtStart.put( entry.getKey(), new long[]{ entry.getValue().hits.get(),
+                entry.getValue().misses.get() } );
+        }
+    }
+
+    private static Cache sharedCache( String name )
+    {
+        return cache( SHARED_CACHES, name );
+    }
+
+    private static Cache cache( ConcurrentMap<String, Cache> caches, String name )
+    {
+        Cache cache = caches.get( name );
+        if ( cache == null )
+        {
+            caches.putIfAbsent( name, new Cache() );
+            cache = caches.get( name );
+        }
+        return cache;
+    }
+
+    private Timer timer( String name )
+    {
+        Timer timer = timers.get( name );
+        if ( timer == null )
+        {
+            timers.putIfAbsent( name, new Timer() );
+            timer = timers.get( name );
+        }
+        return timer;
+    }
+
+    private static double millis( long nanos )
+    {
+        return nanos / 1e6;
+    }
+
+    private static String quote( String value )
+    {
+        return '"' + value.replace( "\\", "\\\\" ).replace( "\"", "\\\"" ) + '"';
+    }
+
+    private static final class Timer
+    {
+        private final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong total = new AtomicLong();
+
+        private final AtomicLong max = new AtomicLong();
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        private final AtomicLongArray histogram = new AtomicLongArray( BUCKETS );
+
+        private void record( long nanos, long bytes )
+        {
+            count.incrementAndGet();
+            total.addAndGet( nanos );
+            this.bytes.addAndGet( bytes );
+            long previous = max.get();
+            while ( nanos > previous && !max.compareAndSet( previous, nanos ) )
+            {
+                previous = max.get();
+            }
+            long micros = nanos / 1000;
+            int bucket = micros == 0 ? 0 : 64 - Long.numberOfLeadingZeros( micros );
+            histogram.incrementAndGet( Math.min( bucket, BUCKETS - 1 ) );
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding a percentile, capped by the maximum.
+         */
+        private long percentile( double fraction )
+        {
+            long rank = (long) Math.ceil( fraction * count.get() );
+            long seen = 0;
+            for ( int i = 0; i < BUCKETS; i++ )
+            {
+                seen += histogram.get( i );
+                if ( seen >= rank && seen > 0 )
+                {
+                    return Math.min( ( 1L << i ) * 1000, max.get() );
+                }
+            }
+            return max.get();
+        }
+    }
+
+    private static final class Cache
+    {
+        private final AtomicLong hits = new AtomicLong();
+
+        private final AtomicLong misses = new AtomicLong();
+
+        private double hitRate()
+        {
+            long lookups = hits.get() + misses.get();
+            return lookups == 0 ? 0 : (double) hits.get() / lookups;
+        }
+    }
+}
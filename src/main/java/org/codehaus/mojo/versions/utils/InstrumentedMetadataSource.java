@@ -0,0 +1,99 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.metadata.ResolutionGroup;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+
+import java.util.List;
+
+/**
+ * An {@link ArtifactMetadataSource} which records the lookups of available versions in an {@link Instrumentation},
+ * per repository when a lookup asks a single repository. Everything is delegated.
+ *
+ * @since 1.0.1
+ */
+public class InstrumentedMetadataSource
+    implements ArtifactMetadataSource
+{
+    private final ArtifactMetadataSource delegate;
+
+    private final Instrumentation instrumentation;
+
+    /**
+     * Creates a new source.
+     *
+     * @param delegate The source to delegate to.
+     * @param instrumentation Where to record the lookups.
+     */
+    public InstrumentedMetadataSource( ArtifactMetadataSource delegate, Instrumentation instrumentation )
+    {
+        this.delegate = delegate;
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ResolutionGroup retrieve( Artifact artifact, ArtifactRepository localRepository, List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        return delegate.retrieve( artifact, localRepository, remoteRepositories );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Artifact retrieveRelocatedArtifact( Artifact artifact, ArtifactRepository localRepository,
+                                               List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        return delegate.retrieveRelocatedArtifact( artifact, localRepository, remoteRepositories );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List retrieveAvailableVersions( Artifact artifact, ArtifactRepository localRepository,
+                                           List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        String name = "metadata";
+        if ( remoteRepositories != null && remoteRepositories.size() == 1 )
+        {
+            name += " " + ( (ArtifactRepository) remoteRepositories.get( 0 ) ).getId();
+        }
+        long start = instrumentation.start();
+        boolean failed = true;
+        try
+        {
+            List versions = delegate.retrieveAvailableVersions( artifact, localRepository, remoteRepositories );
+            failed = false;
+            return versions;
+        }
+        finally
+        {
+            instrumentation.stop( failed ? name + " (failed)" : name, start );
+        }
+    }
+}
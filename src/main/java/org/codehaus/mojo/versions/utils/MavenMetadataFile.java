@@ -0,0 +1,157 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.util.IOUtil;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The parts of a <code>maven-metadata.xml</code> file the version lookups need, read with a streaming parser.
+ *
+ * @since 1.0.1
+ */
+final class MavenMetadataFile
+{
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    /**
+     * <code>/metadata/groupId</code>, or <code>null</code>.
+     */
+    String groupId;
+
+    /**
+     * <code>/metadata/artifactId</code>, or <code>null</code> for the metadata of a group.
+     */
+    String artifactId;
+
+    /**
+     * <code>/metadata/version</code>, which is only set by the metadata of a version.
+     */
+    String version;
+
+    /**
+     * <code>/metadata/versioning/versions/version</code>, in the order of the file.
+     */
+    final Set<String> versions = new LinkedHashSet<String>();
+
+    /**
+     * The timestamp and build number of the latest snapshot, as <code>timestamp-buildNumber</code>, or
+     * <code>null</code>.
+     */
+    String snapshot;
+
+    private MavenMetadataFile()
+    {
+    }
+
+    /**
+     * Reads a metadata file.
+     *
+     * @param file The file.
+     * @return The metadata.
+     * @throws IOException if the file cannot be read.
+     * @throws XMLStreamException if the file cannot be parsed.
+     */
+    static MavenMetadataFile read( File file )
+        throws IOException, XMLStreamException
+    {
+        MavenMetadataFile metadata = new MavenMetadataFile();
+        String timestamp = null;
+        String buildNumber = null;
+        InputStream in = new FileInputStream( file );
+        try
+        {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader( in );
+            try
+            {
+                String[] path = new String[4];
+                int depth = 0;
+                while ( reader.hasNext() )
+                {
+                    int event = reader.next();
+                    if ( event == XMLStreamConstants.END_ELEMENT )
+                    {
+                        depth--;
+                    }
+                    else if ( event == XMLStreamConstants.START_ELEMENT )
+                    {
+                        String name = reader.getLocalName();
+                        String parent = depth > 0 ? path[depth - 1] : null;
+                        if ( depth == 1 && "groupId".equals( name ) )
+                        {
+                            metadata.groupId = reader.getElementText().trim();
+                        }
+                        else if ( depth == 1 && "artifactId".equals( name ) )
+                        {
+                            metadata.artifactId = reader.getElementText().trim();
+                        }
+                        else if ( depth == 1 && "version".equals( name ) )
+                        {
+                            metadata.version = reader.getElementText().trim();
+                        }
+                        else if ( depth == 3 && "versions".equals( parent ) && "version".equals( name ) )
+                        {
+                            metadata.versions.add( reader.getElementText().trim() );
+                        }
+                        else if ( depth == 3 && "snapshot".equals( parent ) && "timestamp".equals( name ) )
+                        {
+                            timestamp = reader.getElementText().trim();
+                        }
+                        else if ( depth == 3 && "snapshot".equals( parent ) && "buildNumber".equals( name ) )
+                        {
+                            buildNumber = reader.getElementText().trim();
+                        }
+                        else
+                        {
+                            if ( depth < path.length )
+                            {
+                                path[depth] = name;
+                            }
+                            depth++;
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+        if ( timestamp != null )
+        {
+            metadata.snapshot = buildNumber == null ? timestamp : timestamp + "-" + buildNumber;
+        }
+        return metadata;
+    }
+}
@@ -0,0 +1,80 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Builds the chain of {@link ArtifactMetadataSource}s the goals and reports look up available versions through.
+ *
+ * @since 1.0.1
+ */
+public final class MetadataSources
+{
+    private MetadataSources()
+    {
+        throw new IllegalAccessError( "Utility classes should never be instantiated" );
+    }
+
+    /**
+     * Returns the source of the available versions of artifacts. The versions come from the version index if there
+     * is one, then from the metadata directory if there is one and otherwise from the repositories, which are asked
+     * concurrently and skipped once they fail too often.
+     *
+     * @param remote The source asking the repositories.
+     * @param session The build, the repositories failing in it are skipped by all its goals.
+     * @param metadataDirectory The directory of pre-fetched metadata, may be <code>null</code>.
+     * @param indexFile The version index, may be <code>null</code>.
+     * @param lookupTimeout The seconds to wait for the repositories to answer a lookup.
+     * @param lookupRetries The times to ask a failed repository again.
+     * @param lookupFailureThreshold The lookups in a row a repository may fail before it is skipped.
+     * @param failOnLookupError Whether a failing repository fails the lookup.
+     * @param instrumentation Where to record the lookups, may be <code>null</code>.
+     * @param log The log.
+     * @return the source.
+     * @throws IOException if the version index cannot be read.
+     */
+    public static ArtifactMetadataSource create( ArtifactMetadataSource remote, MavenSession session,
+                                                 File metadataDirectory, File indexFile, int lookupTimeout,
+                                                 int lookupRetries, int lookupFailureThreshold,
+                                                 boolean failOnLookupError, Instrumentation instrumentation,
+                                                 Log log )
+        throws IOException
+    {
+        ArtifactMetadataSource source;
+        if ( metadataDirectory == null )
+        {
+            ArtifactMetadataSource recorded =
+                instrumentation == null ? remote : new InstrumentedMetadataSource( remote, instrumentation );
+            source = new ResilientMetadataSource( recorded, session, lookupTimeout * 1000L, lookupRetries,
+                                                  lookupFailureThreshold, failOnLookupError, log );
+        }
+        else
+        {
+            source = new FileSystemMetadataSource( metadataDirectory, remote );
+        }
+        return indexFile == null ? source : new VersionIndexMetadataSource( VersionIndex.open( indexFile ), source );
+    }
+}
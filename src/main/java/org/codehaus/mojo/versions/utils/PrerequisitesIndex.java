@@ -0,0 +1,342 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Knows the minimum version of Maven required by released artifacts, i.e. the highest <code>prerequisites/maven</code>
+ * of the artifact's pom and its parents. Only the <code>prerequisites</code> and <code>parent</code> elements of each
+ * pom are read, the full project is only built when these use expressions. As released poms never change, the
+ * answers for non-snapshot versions are kept in a properties file shared between runs.
+ *
+ * @since 1.0.1
+ */
+public class PrerequisitesIndex
+{
+    /**
+     * Resolves the poms the index reads.
+     */
+    public interface PomSource
+    {
+        /**
+         * Resolves a pom.
+         *
+         * @param groupId the groupId.
+         * @param artifactId the artifactId.
+         * @param version the version.
+         * @return the pom file or <code>null</code> if it cannot be resolved.
+         */
+        File getPom( String groupId, String artifactId, String version );
+
+        /**
+         * Builds the project of a pom to find the minimum Maven version it requires, used when the pom does not
+         * declare it literally.
+         *
+         * @param groupId the groupId.
+         * @param artifactId the artifactId.
+         * @param version the version.
+         * @return the minimum Maven version, the empty string if there is none or <code>null</code> if the project
+         *         cannot be built.
+         */
+        String buildRequiredMavenVersion( String groupId, String artifactId, String version );
+    }
+
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    private static final String NONE = "";
+
+    private final PomSource source;
+
+    private final File cacheFile;
+
+    private final Log log;
+
+    /**
+     * The minimum Maven version keyed by <code>groupId:artifactId:version</code>, {@link #NONE} if there is none.
+     */
+    private final Map<String, String> index = new HashMap<String, String>();
+
+    private final Properties persisted = new Properties();
+
+    private boolean dirty;
+
+    /**
+     * Creates a new index.
+     *
+     * @param source resolves the poms to read.
+     * @param cacheFile the file persisting the index between runs or <code>null</code> to not persist it.
+     * @param log the log to report cache problems to.
+     */
+    public PrerequisitesIndex( PomSource source, File cacheFile, Log log )
+    {
+        this.source = source;
+        this.cacheFile = cacheFile;
+        this.log = log;
+        if ( cacheFile != null && cacheFile.isFile() )
+        {
+            InputStream in = null;
+            try
+            {
+                in = new FileInputStream( cacheFile );
+                persisted.load( in );
+            }
+            catch ( IOException e )
+            {
+                log.debug( "Ignoring unreadable prerequisites cache " + cacheFile + ": " + e.getMessage() );
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+        }
+    }
+
+    /**
+     * Returns the minimum version of Maven required by an artifact.
+     *
+     * @param groupId the groupId.
+     * @param artifactId the artifactId.
+     * @param version the version.
+     * @param defaultValue the value to return if neither the pom nor its parents require a version of Maven.
+     * @return the minimum version of Maven or <code>null</code> if the pom cannot be resolved.
+     */
+    public String getRequiredMavenVersion( String groupId, String artifactId, String version, String defaultValue )
+    {
+        String required = lookup( groupId, artifactId, version, new HashSet<String>() );
+        return NONE.equals( required ) ? defaultValue : required;
+    }
+
+    /**
+     * Writes the index back to its cache file if it learned anything new.
+     */
+    public void save()
+    {
+        if ( cacheFile == null || !dirty )
+        {
+            return;
+        }
+        OutputStream out = null;
+        try
+        {
+            cacheFile.getParentFile().mkdirs();
+            out = new FileOutputStream( cacheFile );
+            persisted.store( out, "Minimum Maven version required by each release, see versions:display-plugin-updates" );
+            dirty = false;
+        }
+        catch ( IOException e )
+        {
+            log.debug( "Could not write prerequisites cache " + cacheFile + ": " + e.getMessage() );
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
+    private String lookup( String groupId, String artifactId, String version, Set<String> path )
+    {
+        String key = groupId + ":" + artifactId + ":" + version;
+        String required = index.get( key );
+        if ( required == null )
+        {
+            required = persisted.getProperty( key );
+        }
+        if ( required == null && path.add( key ) )
+        {
+            Instrumentation.miss( "prerequisites" );
+            required = read( groupId, artifactId, version, path );
+            if ( required != null && !version.endsWith( "-SNAPSHOT" ) )
+            {
+                persisted.setProperty( key, required );
+                dirty = true;
+            }
+        }
+        else
+        {
+            Instrumentation.hit( "prerequisites" );
+        }
+        if ( required != null )
+        {
+            index.put( key, required );
+        }
+        return required;
+    }
+
+    private String read( String groupId, String artifactId, String version, Set<String> path )
+    {
+        File pom = source.getPom( groupId, artifactId, version );
+        if ( pom == null )
+        {
+            return null;
+        }
+        Header header;
+        try
+        {
+            header = Header.read( pom );
+        }
+        catch ( IOException e )
+        {
+            log.debug( "Could not read " + pom + ": " + e.getMessage() );
+            return null;
+        }
+        catch ( XMLStreamException e )
+        {
+            log.debug( "Could not parse " + pom + ": " + e.getMessage() );
+            return null;
+        }
+        if ( header.usesExpressions() )
+        {
+            return source.buildRequiredMavenVersion( groupId, artifactId, version );
+        }
+        String required = header.maven == null ? NONE : header.maven;
+        if ( header.parentArtifactId != null )
+        {
+            String inherited = lookup( header.parentGroupId, header.parentArtifactId, header.parentVersion, path );
+            if ( inherited == null )
+            {
+                return null;
+            }
+            required = max( required, inherited );
+        }
+        return required;
+    }
+
+    private static String max( String a, String b )
+    {
+        if ( NONE.equals( a ) )
+        {
+            return b;
+        }
+        if ( NONE.equals( b ) )
+        {
+            return a;
+        }
+        ArtifactVersion va = new DefaultArtifactVersion( a );
+        ArtifactVersion vb = new DefaultArtifactVersion( b );
+        return va.compareTo( vb ) < 0 ? b : a;
+    }
+
+    /**
+     * The parts of a pom the index needs.
+     */
+    private static final class Header
+    {
+        private String maven;
+
+        private String parentGroupId;
+
+        private String parentArtifactId;
+
+        private String parentVersion;
+
+        private boolean usesExpressions()
+        {
+            return isExpression( maven ) || isExpression( parentGroupId ) || isExpression( parentArtifactId )
+                || isExpression( parentVersion ) || ( parentArtifactId != null
+                && ( parentGroupId == null || parentVersion == null ) );
+        }
+
+        private static boolean isExpression( String value )
+        {
+            return value != null && value.contains( "${" );
+        }
+
+        private static Header read( File pom )
+            throws IOException, XMLStreamException
+        {
+            Header header = new Header();
+            InputStream in = new FileInputStream( pom );
+            try
+            {
+                XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader( in );
+                try
+                {
+                    String[] path = new String[3];
+                    int depth = 0;
+                    while ( reader.hasNext() )
+                    {
+                        int event = reader.next();
+                        if ( event == XMLStreamConstants.END_ELEMENT )
+                        {
+                            depth--;
+                        }
+                        else if ( event == XMLStreamConstants.START_ELEMENT )
+                        {
+                            String name = reader.getLocalName();
+                            if ( depth == 2 && "prerequisites".equals( path[1] ) && "maven".equals( name ) )
+                            {
+                                header.maven = reader.getElementText().trim();
+                            }
+                            else if ( depth == 2 && "parent".equals( path[1] ) && "groupId".equals( name ) )
+                            {
+                                header.parentGroupId = reader.getElementText().trim();
+                            }
+                            else if ( depth == 2 && "parent".equals( path[1] ) && "artifactId".equals( name ) )
+                            {
+                                header.parentArtifactId = reader.getElementText().trim();
+                            }
+                            else if ( depth == 2 && "parent".equals( path[1] ) && "version".equals( name ) )
+                            {
+                                header.parentVersion = reader.getElementText().trim();
+                            }
+                            else
+                            {
+                                if ( depth < path.length )
+                                {
+                                    path[depth] = name;
+                                }
+                                depth++;
+                            }
+                        }
+                    }
+                }
+                finally
+                {
+                    reader.close();
+                }
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+            return header;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+
+import java.util.List;
+
+/**
+ * An {@link ArtifactMetadataSource} which can tell whether a version of an artifact exists without waiting for the
+ * complete list of its versions.
+ *
+ * @since 1.0.1
+ */
+public interface ProbingMetadataSource
+    extends ArtifactMetadataSource
+{
+    /**
+     * Checks whether any of the repositories has a version of the artifact, returning as soon as one of them has it.
+     *
+     * @param artifact The artifact.
+     * @param version The version to look for.
+     * @param localRepository The local repository.
+     * @param remoteRepositories The remote repositories, those most likely to have the version first.
+     * @return <code>true</code> if a repository has the version.
+     * @throws ArtifactMetadataRetrievalException if no repository has the version and the repositories which could
+     *             not be asked make the check fail.
+     */
+    boolean hasVersion( Artifact artifact, String version, ArtifactRepository localRepository,
+                        List remoteRepositories )
+        throws ArtifactMetadataRetrievalException;
+}
@@ -19,6 +19,12 @@ package org.codehaus.mojo.versions.utils;
  * under the License.
  */
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
 /**
  * Utility methods to help with regex manipulation.
  *
@@ -48,6 +54,23 @@ public final class RegexUtils
      */
     public static final String REGEX_QUOTE_END_ESCAPED = REGEX_QUOTE_END + '\\' + REGEX_QUOTE_END + REGEX_QUOTE_START;
 
+    /**
+     * The maximum number of compiled wildcard rules to keep.
+     */
+    private static final int MAX_WILDCARD_MATCHERS = 512;
+
+    /**
+     * The compiled wildcard rules, keyed by rule and whether they are exact, least recently used first.
+     */
+    private static final Map<String, WildcardMatcher> WILDCARD_MATCHERS =
+        new LinkedHashMap<String, WildcardMatcher>( 64, 0.75f, true )
+        {
+            protected boolean removeEldestEntry( Map.Entry<String, WildcardMatcher> eldest )
+            {
+                return size() > MAX_WILDCARD_MATCHERS;
+            }
+        };
+
     private RegexUtils()
     {
         throw new IllegalAccessError( "Utility classes should never be instantiated" );
@@ -169,4 +192,173 @@ public final class RegexUtils
         }
         return regex.toString();
     }
+
+    /**
+     * Tests a value against a wildcard rule, where <code>?</code> matches any character and <code>*</code> matches
+     * any sequence of characters.
+     *
+     * @param wildcardRule the wildcard rule.
+     * @param exactMatch <code>true</code> to match the entire value, <code>false</code> to match the start of the
+     *            value.
+     * @param value the value to test.
+     * @return <code>true</code> if the value matches the rule.
+     * @since 1.0.1
+     */
+    public static boolean matches( String wildcardRule, boolean exactMatch, String value )
+    {
+        return compileWildcards( wildcardRule, exactMatch ).matches( value );
+    }
+
+    /**
+     * Compiles a wildcard rule, see {@link #convertWildcardsToRegex(String, boolean)}. Rules without <code>?</code>
+     * are matched without regular expressions and recently used rules are kept compiled.
+     *
+     * @param wildcardRule the wildcard rule.
+     * @param exactMatch <code>true</code> to match the entire value, <code>false</code> to match the start of the
+     *            value.
+     * @return the compiled rule.
+     * @since 1.0.1
+     */
+    public static WildcardMatcher compileWildcards( String wildcardRule, boolean exactMatch )
+    {
+        String key = ( exactMatch ? "=" : "^" ) + wildcardRule;
+        synchronized ( WILDCARD_MATCHERS )
+        {
+            WildcardMatcher matcher = WILDCARD_MATCHERS.get( key );
+            if ( matcher != null )
+            {
+                return matcher;
+            }
+        }
+        WildcardMatcher matcher;
+        if ( wildcardRule.indexOf( '?' ) != -1 )
+        {
+            matcher = new RegexMatcher( Pattern.compile( convertWildcardsToRegex( wildcardRule, exactMatch ) ) );
+        }
+        else if ( exactMatch && wildcardRule.indexOf( '*' ) == -1 )
+        {
+            matcher = new LiteralMatcher( wildcardRule );
+        }
+        else
+        {
+            matcher = new SegmentsMatcher( exactMatch ? wildcardRule : wildcardRule + '*' );
+        }
+        synchronized ( WILDCARD_MATCHERS )
+        {
+            WILDCARD_MATCHERS.put( key, matcher );
+        }
+        return matcher;
+    }
+
+    /**
+     * A compiled wildcard rule.
+     *
+     * @since 1.0.1
+     */
+    public abstract static class WildcardMatcher
+    {
+        /**
+         * Tests a value against the rule.
+         *
+         * @param value the value to test.
+         * @return <code>true</code> if the value matches the rule.
+         */
+        public abstract boolean matches( String value );
+    }
+
+    /**
+     * A rule without wildcards.
+     */
+    private static final class LiteralMatcher
+        extends WildcardMatcher
+    {
+        private final String literal;
+
+        private LiteralMatcher( String literal )
+        {
+            this.literal = literal;
+        }
+
+        public boolean matches( String value )
+        {
+            return literal.equals( value );
+        }
+    }
+
+    /**
+     * A rule whose only wildcard is <code>*</code>, matched as literal segments in order.
+     */
+    private static final class SegmentsMatcher
+        extends WildcardMatcher
+    {
+        private final String[] segments;
+
+        private final int minLength;
+
+        private SegmentsMatcher( String wildcardRule )
+        {
+            List<String> list = new ArrayList<String>();
+            int start = 0;
+            int next;
+            while ( ( next = wildcardRule.indexOf( '*', start ) ) != -1 )
+            {
+                list.add( wildcardRule.substring( start, next ) );
+                start = next + 1;
+            }
+            list.add( wildcardRule.substring( start ) );
+            segments = list.toArray( new String[list.size()] );
+            int length = 0;
+            for ( String segment : segments )
+            {
+                length += segment.length();
+            }
+            minLength = length;
+        }
+
+        public boolean matches( String value )
+        {
+            final String first = segments[0];
+            final String last = segments[segments.length - 1];
+            if ( value.length() < minLength || !value.startsWith( first ) || !value.endsWith( last ) )
+            {
+                return false;
+            }
+            int pos = first.length();
+            final int limit = value.length() - last.length();
+            for ( int i = 1; i < segments.length - 1; i++ )
+            {
+                final String segment = segments[i];
+                if ( segment.length() == 0 )
+                {
+                    continue;
+                }
+                int index = value.indexOf( segment, pos );
+                if ( index == -1 || index + segment.length() > limit )
+                {
+                    return false;
+                }
+                pos = index + segment.length();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A rule using <code>?</code>, matched as a regular expression.
+     */
+    private static final class RegexMatcher
+        extends WildcardMatcher
+    {
+        private final Pattern pattern;
+
+        private RegexMatcher( Pattern pattern )
+        {
+            this.pattern = pattern;
+        }
+
+        public boolean matches( String value )
+        {
+            return pattern.matcher( value ).matches();
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.wagon.events.TransferEvent;
+import org.apache.maven.wagon.events.TransferListener;
+
+/**
+ * Remembers the timestamp a repository reported for the last resource a wagon transferred. The wagons leave the time
+ * of the download on the files they write, which cannot be compared with the timestamps of the repository, so
+ * conditional transfers must be given this timestamp instead.
+ *
+ * @since 1.0.1
+ */
+public class RemoteTimestamp
+    implements TransferListener
+{
+    private volatile long lastModified;
+
+    /**
+     * Returns the timestamp the repository reported for the last resource transferred.
+     *
+     * @return the timestamp or <code>0</code> if the repository did not report one or nothing was transferred.
+     */
+    public long getLastModified()
+    {
+        return lastModified;
+    }
+
+    /**
+     * Forgets the timestamp of the last resource transferred, to be called before each transfer.
+     */
+    public void reset()
+    {
+        lastModified = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void transferInitiated( TransferEvent transferEvent )
+    {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void transferStarted( TransferEvent transferEvent )
+    {
+        lastModified = transferEvent.getResource().getLastModified();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void transferProgress( TransferEvent transferEvent, byte[] buffer, int length )
+    {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void transferCompleted( TransferEvent transferEvent )
+    {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void transferError( TransferEvent transferEvent )
+    {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void debug( String message )
+    {
+    }
+}
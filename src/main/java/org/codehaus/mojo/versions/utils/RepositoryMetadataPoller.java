@@ -0,0 +1,291 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.manager.WagonConfigurationException;
+import org.apache.maven.artifact.manager.WagonManager;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.wagon.ConnectionException;
+import org.apache.maven.wagon.ResourceDoesNotExistException;
+import org.apache.maven.wagon.TransferFailedException;
+import org.apache.maven.wagon.UnsupportedProtocolException;
+import org.apache.maven.wagon.Wagon;
+import org.apache.maven.wagon.authentication.AuthenticationException;
+import org.apache.maven.wagon.authorization.AuthorizationException;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Polls the <code>maven-metadata.xml</code> of artifacts in remote repositories. The poller remembers what each
+ * repository returned, so every poll after the first only asks for metadata which changed since it was last
+ * downloaded and transfers nothing for the rest. What changed is decided by the repository: the poller keeps the
+ * timestamp the repository reported for each download, never the local clock.
+ *
+ * @since 1.0.1
+ */
+public class RepositoryMetadataPoller
+{
+    private final List<ArtifactRepository> repositories;
+
+    private final WagonManager wagonManager;
+
+    private final Settings settings;
+
+    private final Log log;
+
+    /**
+     * The metadata last downloaded, keyed by repository id and then by <code>groupId:artifactId</code>.
+     */
+    private final Map<String, Map<String, Metadata>> downloaded = new HashMap<String, Map<String, Metadata>>();
+
+    /**
+     * Creates a new poller.
+     *
+     * @param repositories The repositories to poll.
+     * @param wagonManager The wagon manager to connect to the repositories with.
+     * @param settings The settings, for proxies.
+     * @param log The log.
+     */
+    public RepositoryMetadataPoller( List<ArtifactRepository> repositories, WagonManager wagonManager,
+                                     Settings settings, Log log )
+    {
+        this.repositories = repositories;
+        this.wagonManager = wagonManager;
+        this.settings = settings;
+        this.log = log;
+    }
+
+    /**
+     * Polls the repositories for the versions of artifacts. A repository which cannot be reached keeps contributing the
+     * versions it returned last time.
+     *
+     * @param keys The artifacts, as <code>groupId:artifactId</code>.
+     * @return The versions found in any of the repositories, keyed by <code>groupId:artifactId</code>.
+     */
+    public Map<String, Set<String>> poll( Collection<String> keys )
+    {
+        Map<String, Set<String>> result = new HashMap<String, Set<String>>();
+        for ( String key : keys )
+        {
+            result.put( key, new LinkedHashSet<String>() );
+        }
+        for ( ArtifactRepository repository : repositories )
+        {
+            Map<String, Metadata> metadata = downloaded.get( repository.getId() );
+            if ( metadata == null )
+            {
+                metadata = new HashMap<String, Metadata>();
+                downloaded.put( repository.getId(), metadata );
+            }
+            poll( repository, keys, metadata );
+            for ( String key : keys )
+            {
+                Metadata m = metadata.get( key );
+                if ( m != null )
+                {
+                    result.get( key ).addAll( m.versions );
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds the versions of a poll which are not known yet to the known versions.
+     *
+     * @param known The versions known so far keyed by <code>groupId:artifactId</code>, to which the new versions are
+     *            added.
+     * @param found The versions found by a poll keyed by <code>groupId:artifactId</code>.
+     * @return The new versions keyed by <code>groupId:artifactId</code>, only holding the artifacts with new versions.
+     */
+    public static Map<String, Set<String>> addNewVersions( Map<String, Set<String>> known,
+                                                           Map<String, Set<String>> found )
+    {
+        Map<String, Set<String>> added = new LinkedHashMap<String, Set<String>>();
+        for ( Map.Entry<String, Set<String>> entry : found.entrySet() )
+        {
+            Set<String> knownVersions = known.get( entry.getKey() );
+            if ( knownVersions == null )
+            {
+                knownVersions = new LinkedHashSet<String>();
+                known.put( entry.getKey(), knownVersions );
+            }
+            Set<String> versions = new LinkedHashSet<String>( entry.getValue() );
+            versions.removeAll( knownVersions );
+            if ( !versions.isEmpty() )
+            {
+                knownVersions.addAll( versions );
+                added.put( entry.getKey(), versions );
+            }
+        }
+        return added;
+    }
+
+    private void poll( ArtifactRepository repository, Collection<String> keys, Map<String, Metadata> metadata )
+    {
+        Wagon wagon;
+        try
+        {
+            wagon = WagonUtils.createWagon( repository.getId(), repository.getUrl(), wagonManager, settings, log );
+        }
+        catch ( UnsupportedProtocolException e )
+        {
+            log.warn( "Unsupported protocol for " + repository.getUrl() );
+            return;
+        }
+        catch ( WagonConfigurationException e )
+        {
+            log.warn( "Could not configure the connection to " + repository.getUrl() + ": " + e.getMessage() );
+            return;
+        }
+        catch ( ConnectionException e )
+        {
+            log.warn( "Could not connect to " + repository.getUrl() + ": " + e.getMessage() );
+            return;
+        }
+        catch ( AuthenticationException e )
+        {
+            log.warn( "Authentication failure connecting to " + repository.getUrl() + ": " + e.getMessage() );
+            return;
+        }
+        RemoteTimestamp remoteTimestamp = new RemoteTimestamp();
+        wagon.addTransferListener( remoteTimestamp );
+        try
+        {
+            for ( String key : keys )
+            {
+                Metadata previous = metadata.get( key );
+                Metadata current = download( wagon, repository, key, previous, remoteTimestamp );
+                if ( current != null )
+                {
+                    metadata.put( key, current );
+                }
+            }
+        }
+        finally
+        {
+            wagon.removeTransferListener( remoteTimestamp );
+            try
+            {
+                wagon.disconnect();
+            }
+            catch ( ConnectionException e )
+            {
+                log.warn( "Could not disconnect wagon!", e );
+            }
+        }
+    }
+
+    /**
+     * Downloads the metadata of an artifact if it changed since it was last downloaded.
+     *
+     * @return The new metadata or <code>null</code> if it did not change or could not be downloaded.
+     */
+    private Metadata download( Wagon wagon, ArtifactRepository repository, String key, Metadata previous,
+                               RemoteTimestamp remoteTimestamp )
+    {
+        int split = key.indexOf( ':' );
+        String resource =
+            key.substring( 0, split ).replace( '.', '/' ) + '/' + key.substring( split + 1 ) + "/maven-metadata.xml";
+        File file = null;
+        try
+        {
+            file = File.createTempFile( "maven-metadata", ".xml" );
+            remoteTimestamp.reset();
+            if ( !wagon.getIfNewer( resource, file, previous == null ? 0 : previous.lastModified ) )
+            {
+                return null;
+            }
+            log.debug( "Downloaded " + resource + " from " + repository.getId() );
+            // a repository without a timestamp is asked for the whole file again next time
+            return new Metadata( remoteTimestamp.getLastModified(), readVersions( file ) );
+        }
+        catch ( ResourceDoesNotExistException e )
+        {
+            return previous == null ? null : new Metadata( 0, Collections.<String>emptySet() );
+        }
+        catch ( TransferFailedException e )
+        {
+            log.warn( "Could not transfer " + resource + " from " + repository.getUrl() + ": " + e.getMessage() );
+        }
+        catch ( AuthorizationException e )
+        {
+            log.warn( "Authorization failure downloading " + resource + " from " + repository.getUrl() );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Could not read " + resource + " from " + repository.getUrl() + ": " + e.getMessage() );
+        }
+        catch ( XMLStreamException e )
+        {
+            log.warn( "Could not parse " + resource + " from " + repository.getUrl() + ": " + e.getMessage() );
+        }
+        finally
+        {
+            if ( file != null )
+            {
+                file.delete();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the versions listed by a <code>maven-metadata.xml</code> file.
+     *
+     * @param file The file.
+     * @return The versions.
+     * @throws IOException if the file cannot be read.
+     * @throws XMLStreamException if the file cannot be parsed.
+     */
+    static Set<String> readVersions( File file )
+        throws IOException, XMLStreamException
+    {
+        return MavenMetadataFile.read( file ).versions;
+    }
+
+    /**
+     * The metadata of an artifact in a repository.
+     */
+    private static final class Metadata
+    {
+        private final long lastModified;
+
+        private final Set<String> versions;
+
+        private Metadata( long lastModified, Set<String> versions )
+        {
+            this.lastModified = lastModified;
+            this.versions = versions;
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.metadata.ResolutionGroup;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * An {@link ArtifactMetadataSource} which asks each remote repository for the available versions of an artifact on
+ * its own, so that one slow or broken repository cannot hold up or fail the lookup. The repositories are asked
+ * concurrently, so a lookup takes as long as the slowest repository rather than all of them together, and each
+ * repository is retried a bounded number of times with exponential backoff, within a single time limit for the
+ * whole lookup. A repository which fails
+ * {@link #failureThreshold} lookups in a row is skipped for the rest of the build. The versions found by the
+ * repositories which did answer are returned, unless none of them did. Everything else is delegated.
+ *
+ * @since 1.0.1
+ */
+public class ResilientMetadataSource
+    implements ProbingMetadataSource
+{
+    /**
+     * The delay before the first retry, doubled for every further retry.
+     */
+    static final long BACKOFF_MILLIS = 500;
+
+    /**
+     * The number of lookups each repository failed in a row within a build, keyed by repository id, shared by every
+     * module and goal of the build. {@link Integer#MAX_VALUE} marks a repository which is skipped.
+     */
+    private static final Map<MavenSession, Map<String, Integer>> FAILURES =
+        new WeakHashMap<MavenSession, Map<String, Integer>>();
+
+    /**
+     * Runs the requests so that they can be abandoned when they take too long. The threads are daemons, a request
+     * which ignores the interrupt cannot keep the build from ending.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool( new ThreadFactory()
+    {
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = new Thread( r, "versions-metadata-lookup" );
+            thread.setDaemon( true );
+            return thread;
+        }
+    } );
+
+    private final ArtifactMetadataSource delegate;
+
+    private final long timeoutMillis;
+
+    private final int retries;
+
+    private final int failureThreshold;
+
+    private final boolean failOnError;
+
+    private final long backoffMillis;
+
+    private final Log log;
+
+    private final Map<String, Integer> failures;
+
+    /**
+     * Creates a new source.
+     *
+     * @param delegate The source to ask the repositories through.
+     * @param session The build to share the health of the repositories with, or <code>null</code> to keep it to this
+     *            source.
+     * @param timeoutMillis How long to wait for the repositories to answer a lookup, retries included, <code>0</code>
+     *            to wait as long as it takes.
+     * @param retries How many times to ask a repository again after it failed to answer.
+     * @param failureThreshold How many lookups in a row a repository may fail before it is skipped for the rest of
+     *            the build, <code>0</code> to never skip it.
+     * @param failOnError Whether a lookup fails when any repository failed to answer, rather than only when all of
+     *            them did.
+     * @param log The log to report failed repositories to.
+     */
+    public ResilientMetadataSource( ArtifactMetadataSource delegate, MavenSession session, long timeoutMillis,
+                                    int retries, int failureThreshold, boolean failOnError, Log log )
+    {
+        this( delegate, session, timeoutMillis, retries, failureThreshold, failOnError, BACKOFF_MILLIS, log );
+    }
+
+    ResilientMetadataSource( ArtifactMetadataSource delegate, MavenSession session, long timeoutMillis, int retries,
+                             int failureThreshold, boolean failOnError, long backoffMillis, Log log )
+    {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        this.retries = Math.max( 0, retries );
+        this.failureThreshold = failureThreshold;
+        this.failOnError = failOnError;
+        this.backoffMillis = backoffMillis;
+        this.log = log;
+        if ( session == null )
+        {
+            failures = new HashMap<String, Integer>();
+        }
+        else
+        {
+            synchronized ( FAILURES )
+            {
+                Map<String, Integer> shared = FAILURES.get( session );
+                if ( shared == null )
+                {
+                    shared = new HashMap<String, Integer>();
+                    FAILURES.put( session, shared );
+                }
+                failures = shared;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ResolutionGroup retrieve( Artifact artifact, ArtifactRepository localRepository, List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        return delegate.retrieve( artifact, localRepository, remoteRepositories );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Artifact retrieveRelocatedArtifact( Artifact artifact, ArtifactRepository localRepository,
+                                               List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        return delegate.retrieveRelocatedArtifact( artifact, localRepository, remoteRepositories );
+    }
+
+    /**
+     * Asks every remote repository which is not skipped for the versions of the artifact, all at once, and waits for
+     * their answers until the time limit of the lookup.
+     *
+     * @param artifact The artifact.
+     * @param localRepository The local repository.
+     * @param remoteRepositories The remote repositories.
+     * @return The versions found by the repositories which answered.
+     * @throws ArtifactMetadataRetrievalException if no repository answered, or any repository did not answer and
+     *             the source fails on errors.
+     */
+    public List retrieveAvailableVersions( Artifact artifact, ArtifactRepository localRepository,
+                                           List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        if ( remoteRepositories == null || remoteRepositories.isEmpty() )
+        {
+            return delegate.retrieveAvailableVersions( artifact, localRepository, remoteRepositories );
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( timeoutMillis );
+        List<String> failed = new ArrayList<String>();
+        Map<ArtifactRepository, Future<List>> lookups = new LinkedHashMap<ArtifactRepository, Future<List>>();
+        for ( Object remoteRepository : remoteRepositories )
+        {
+            ArtifactRepository repository = (ArtifactRepository) remoteRepository;
+            if ( isSkipped( repository ) )
+            {
+                failed.add( repository.getId() );
+            }
+            else
+            {
+                lookups.put( repository, EXECUTOR.submit( new Lookup( artifact, localRepository, repository,
+                                                                      deadline ) ) );
+            }
+        }
+        Map<String, ArtifactVersion> versions = new LinkedHashMap<String, ArtifactVersion>();
+        ArtifactMetadataRetrievalException cause = null;
+        int answered = 0;
+        try
+        {
+            for ( Map.Entry<ArtifactRepository, Future<List>> lookup : lookups.entrySet() )
+            {
+                ArtifactRepository repository = lookup.getKey();
+                try
+                {
+                    for ( Object version : await( artifact, repository, lookup.getValue(), deadline ) )
+                    {
+                        versions.put( version.toString(), (ArtifactVersion) version );
+                    }
+                    answered++;
+                    succeeded( repository );
+                }
+                catch ( ArtifactMetadataRetrievalException e )
+                {
+                    failed.add( repository.getId() );
+                    cause = e;
+                    failed( repository, e );
+                }
+            }
+        }
+        finally
+        {
+            for ( Future<List> lookup : lookups.values() )
+            {
+                lookup.cancel( true );
+            }
+        }
+        if ( !failed.isEmpty() )
+        {
+            String message = "Could not look up the versions of " + ArtifactUtils.versionlessKey( artifact ) + " in "
+                + failed;
+            if ( answered == 0 || failOnError )
+            {
+                throw new ArtifactMetadataRetrievalException( message, cause, artifact );
+            }
+            log.warn( message + ", using the versions found in the other repositories" );
+            return new PartialVersions( versions.values() );
+        }
+        return new ArrayList<ArtifactVersion>( versions.values() );
+    }
+
+    /**
+     * Asks every remote repository which is not skipped for the versions of the artifact, all at once, and returns as
+     * soon as one of them has the version, abandoning the others. The repositories are asked on the threads of this
+     * source, so that a check costs no threads of its own.
+     *
+     * @param artifact The artifact.
+     * @param version The version to look for.
+     * @param localRepository The local repository.
+     * @param remoteRepositories The remote repositories, those most likely to have the version first.
+     * @return <code>true</code> if a repository has the version.
+     * @throws ArtifactMetadataRetrievalException if no repository has the version and no repository answered, or
+     *             any repository did not answer and the source fails on errors.
+     */
+    public boolean hasVersion( Artifact artifact, String version, ArtifactRepository localRepository,
+                               List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        if ( remoteRepositories == null || remoteRepositories.isEmpty() )
+        {
+            return containsVersion( delegate.retrieveAvailableVersions( artifact, localRepository,
+                                                                        remoteRepositories ), version );
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( timeoutMillis );
+        List<String> failed = new ArrayList<String>();
+        CompletionService<List> completion = new ExecutorCompletionService<List>( EXECUTOR );
+        Map<Future<List>, ArtifactRepository> lookups = new LinkedHashMap<Future<List>, ArtifactRepository>();
+        for ( Object remoteRepository : remoteRepositories )
+        {
+            ArtifactRepository repository = (ArtifactRepository) remoteRepository;
+            if ( isSkipped( repository ) )
+            {
+                failed.add( repository.getId() );
+            }
+            else
+            {
+                lookups.put( completion.submit( new Lookup( artifact, localRepository, repository, deadline ) ),
+                             repository );
+            }
+        }
+        Map<Future<List>, ArtifactRepository> pending = new HashMap<Future<List>, ArtifactRepository>( lookups );
+        ArtifactMetadataRetrievalException cause = null;
+        int answered = 0;
+        try
+        {
+            while ( !pending.isEmpty() )
+            {
+                Future<List> lookup = timeoutMillis > 0
+                    ? completion.poll( deadline - System.nanoTime(), TimeUnit.NANOSECONDS ) : completion.take();
+                if ( lookup == null )
+                {
+                    break;
+                }
+                ArtifactRepository repository = pending.remove( lookup );
+                try
+                {
+                    List versions = await( artifact, repository, lookup, deadline );
+                    answered++;
+                    succeeded( repository );
+                    if ( containsVersion( versions, version ) )
+                    {
+                        return true;
+                    }
+                }
+                catch ( ArtifactMetadataRetrievalException e )
+                {
+                    failed.add( repository.getId() );
+                    cause = e;
+                    failed( repository, e );
+                }
+            }
+            for ( ArtifactRepository repository : pending.values() )
+            {
+                ArtifactMetadataRetrievalException e = new ArtifactMetadataRetrievalException(
+                    repository.getId() + " did not answer within " + timeoutMillis + "ms", new TimeoutException(),
+                    artifact );
+                failed.add( repository.getId() );
+                cause = e;
+                failed( repository, e );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new ArtifactMetadataRetrievalException( "Interrupted", e, artifact );
+        }
+        finally
+        {
+            for ( Future<List> lookup : lookups.keySet() )
+            {
+                lookup.cancel( true );
+            }
+        }
+        if ( !failed.isEmpty() )
+        {
+            String message = "Could not check " + ArtifactUtils.versionlessKey( artifact ) + ":" + version + " in "
+                + failed;
+            if ( answered == 0 || failOnError )
+            {
+                throw new ArtifactMetadataRetrievalException( message, cause, artifact );
+            }
+            log.warn( message + ", none of the other repositories has it" );
+        }
+        return false;
+    }
+
+    private static boolean containsVersion( List versions, String version )
+    {
+        for ( Object candidate : versions )
+        {
+            if ( version.equals( candidate.toString() ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns <code>true</code> if a list of versions returned by a {@link ResilientMetadataSource} misses the
+     * versions of repositories which did not answer, so that it should not be remembered.
+     *
+     * @param versions The versions.
+     * @return <code>true</code> if some repositories did not answer the lookup.
+     */
+    public static boolean isPartial( List versions )
+    {
+        return versions instanceof PartialVersions;
+    }
+
+    private List await( Artifact artifact, ArtifactRepository repository, Future<List> lookup, long deadline )
+        throws ArtifactMetadataRetrievalException
+    {
+        try
+        {
+            return timeoutMillis > 0 ? lookup.get( deadline - System.nanoTime(), TimeUnit.NANOSECONDS )
+                            : lookup.get();
+        }
+        catch ( TimeoutException e )
+        {
+            throw new ArtifactMetadataRetrievalException( repository.getId() + " did not answer within "
+                + timeoutMillis + "ms", e, artifact );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new ArtifactMetadataRetrievalException( "Interrupted", e, artifact );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof ArtifactMetadataRetrievalException )
+            {
+                throw (ArtifactMetadataRetrievalException) e.getCause();
+            }
+            throw new ArtifactMetadataRetrievalException( e.getCause().getMessage(), e.getCause(), artifact );
+        }
+    }
+
+    /**
+     * The versions found when some repositories did not answer.
+     */
+    private static final class PartialVersions
+        extends ArrayList<ArtifactVersion>
+    {
+        private PartialVersions( Collection<ArtifactVersion> versions )
+        {
+            super( versions );
+        }
+    }
+
+    /**
+     * Asks a single repository, retrying with exponential backoff as long as the retries and the time limit of the
+     * lookup allow.
+     */
+    private final class Lookup
+        implements Callable<List>
+    {
+        private final Artifact artifact;
+
+        private final ArtifactRepository localRepository;
+
+        private final ArtifactRepository repository;
+
+        private final long deadline;
+
+        private Lookup( Artifact artifact, ArtifactRepository localRepository, ArtifactRepository repository,
+                        long deadline )
+        {
+            this.artifact = artifact;
+            this.localRepository = localRepository;
+            this.repository = repository;
+            this.deadline = deadline;
+        }
+
+        public List call()
+            throws ArtifactMetadataRetrievalException
+        {
+            for ( int attempt = 0;; attempt++ )
+            {
+                try
+                {
+                    return delegate.retrieveAvailableVersions( artifact, localRepository,
+                                                               Collections.singletonList( repository ) );
+                }
+                catch ( ArtifactMetadataRetrievalException e )
+                {
+                    long backoff = backoffMillis << Math.min( attempt, 16 );
+                    if ( attempt >= retries || ( timeoutMillis > 0
+                        && deadline - System.nanoTime() <= TimeUnit.MILLISECONDS.toNanos( backoff ) ) )
+                    {
+                        throw e;
+                    }
+                    log.debug( "Retrying " + ArtifactUtils.versionlessKey( artifact ) + " in " + repository.getId()
+                        + " after: " + e.getMessage() );
+                    try
+                    {
+                        Thread.sleep( backoff );
+                    }
+                    catch ( InterruptedException ie )
+                    {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isSkipped( ArtifactRepository repository )
+    {
+        synchronized ( failures )
+        {
+            Integer count = failures.get( repository.getId() );
+            return count != null && count == Integer.MAX_VALUE;
+        }
+    }
+
+    private void succeeded( ArtifactRepository repository )
+    {
+        synchronized ( failures )
+        {
+            failures.remove( repository.getId() );
+        }
+    }
+
+    private void failed( ArtifactRepository repository, ArtifactMetadataRetrievalException e )
+    {
+        boolean skip;
+        synchronized ( failures )
+        {
+            Integer count = failures.get( repository.getId() );
+            if ( count != null && count == Integer.MAX_VALUE )
+            {
+                return;
+            }
+            count = count == null ? 1 : count + 1;
+            skip = failureThreshold > 0 && count >= failureThreshold;
+            failures.put( repository.getId(), skip ? Integer.MAX_VALUE : count );
+        }
+        if ( skip )
+        {
+            log.warn( "Skipping repository " + repository.getId() + " (" + repository.getUrl()
+                + ") for the rest of the build, it failed " + failureThreshold + " lookups in a row: "
+                + e.getMessage() );
+        }
+        else
+        {
+            log.debug( "Repository " + repository.getId() + " failed a lookup: " + e.getMessage() );
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the results of the display goals in a machine readable format, one record per artifact or property as soon
+ * as it is known.
+ *
+ * @since 1.0.1
+ */
+public abstract class UpdatesWriter
+{
+    /**
+     * The format of the human readable display, which is not written by an {@link UpdatesWriter}.
+     */
+    public static final String TEXT = "text";
+
+    /**
+     * JSON Lines, one JSON object per line.
+     */
+    public static final String JSON = "json";
+
+    /**
+     * Comma separated values, with a header line.
+     */
+    public static final String CSV = "csv";
+
+    private static final String[] FIELDS = { "project", "section", "key", "current", "latest" };
+
+    /**
+     * The destination.
+     */
+    protected final Writer out;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param out The destination.
+     */
+    protected UpdatesWriter( Writer out )
+    {
+        this.out = out;
+    }
+
+    /**
+     * Creates a writer for a format.
+     *
+     * @param format The format, {@link #JSON} or {@link #CSV}.
+     * @param out The destination.
+     * @param empty Whether the destination is empty, so that a CSV header is written first.
+     * @return The writer.
+     * @throws IOException if the header cannot be written.
+     * @throws IllegalArgumentException if the format is not supported.
+     */
+    public static UpdatesWriter newInstance( String format, Writer out, boolean empty )
+        throws IOException
+    {
+        if ( JSON.equalsIgnoreCase( format ) )
+        {
+            return new JsonLines( out );
+        }
+        if ( CSV.equalsIgnoreCase( format ) )
+        {
+            UpdatesWriter writer = new Csv( out );
+            if ( empty )
+            {
+                writer.writeRecord( FIELDS );
+            }
+            return writer;
+        }
+        throw new IllegalArgumentException( "Unsupported output format " + format + ", use " + TEXT + ", " + JSON
+            + " or " + CSV );
+    }
+
+    /**
+     * Writes the result for an artifact or property.
+     *
+     * @param project The project, as <code>groupId:artifactId:version</code>.
+     * @param section The part of the project, e.g. <code>Dependencies</code>.
+     * @param key The artifact, as <code>groupId:artifactId</code>, or the property, as <code>${name}</code>.
+     * @param currentVersion The version currently used.
+     * @param latestVersion The version to update to or <code>null</code> if the current version is the latest.
+     * @throws IOException if the record cannot be written.
+     */
+    public void write( String project, String section, String key, String currentVersion, String latestVersion )
+        throws IOException
+    {
+        writeRecord( new String[] { project, section, key, currentVersion, latestVersion } );
+        out.flush();
+    }
+
+    /**
+     * Closes the destination.
+     *
+     * @throws IOException if the destination cannot be closed.
+     */
+    public void close()
+        throws IOException
+    {
+        out.close();
+    }
+
+    /**
+     * Writes a record and its line separator.
+     *
+     * @param values The values of the record, in the order of the fields.
+     * @throws IOException if the record cannot be written.
+     */
+    protected abstract void writeRecord( String[] values )
+        throws IOException;
+
+    /**
+     * Writes each record as a JSON object on a line of its own.
+     */
+    private static final class JsonLines
+        extends UpdatesWriter
+    {
+        private JsonLines( Writer out )
+        {
+            super( out );
+        }
+
+        protected void writeRecord( String[] values )
+            throws IOException
+        {
+            out.write( '{' );
+            for ( int i = 0; i < FIELDS.length; i++ )
+            {
+                if ( i > 0 )
+                {
+                    out.write( ',' );
+                }
+                out.write( '"' );
+                out.write( FIELDS[i] );
+                out.write( "\":" );
+                if ( values[i] == null )
+                {
+                    out.write( "null" );
+                }
+                else
+                {
+                    writeString( values[i] );
+                }
+            }
+            out.write( "}\n" );
+        }
+
+        private void writeString( String value )
+            throws IOException
+        {
+            out.write( '"' );
+            for ( int i = 0; i < value.length(); i++ )
+            {
+                char c = value.charAt( i );
+                switch ( c )
+                {
+                    case '"':
+                        out.write( "\\\"" );
+                        break;
+                    case '\\':
+                        out.write( "\\\\" );
+                        break;
+                    case '\n':
+                        out.write( "\\n" );
+                        break;
+                    case '\r':
+                        out.write( "\\r" );
+                        break;
+                    case '\t':
+                        out.write( "\\t" );
+                        break;
+                    default:
+                        if ( c < 0x20 )
+                        {
+                            out.write( String.format( "\\u%04x", (int) c ) );
+                        }
+                        else
+                        {
+                            out.write( c );
+                        }
+                }
+            }
+            out.write( '"' );
+        }
+    }
+
+    /**
+     * Writes each record as a line of comma separated values, quoting values as described by RFC 4180.
+     */
+    private static final class Csv
+        extends UpdatesWriter
+    {
+        private Csv( Writer out )
+        {
+            super( out );
+        }
+
+        protected void writeRecord( String[] values )
+            throws IOException
+        {
+            for ( int i = 0; i < values.length; i++ )
+            {
+                if ( i > 0 )
+                {
+                    out.write( ',' );
+                }
+                String value = values[i] == null ? "" : values[i];
+                if ( value.indexOf( ',' ) != -1 || value.indexOf( '"' ) != -1 || value.indexOf( '\n' ) != -1
+                    || value.indexOf( '\r' ) != -1 )
+                {
+                    out.write( '"' );
+                    out.write( value.replace( "\"", "\"\"" ) );
+                    out.write( '"' );
+                }
+                else
+                {
+                    out.write( value );
+                }
+            }
+            out.write( "\r\n" );
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A read-only index of the versions of every artifact of a repository, written by <code>versions:build-index</code>
+ * into a single file which is memory mapped and searched in place.
+ * <p>
+ * The file starts with a header (the magic number, the format version and the number of artifacts), followed by the
+ * offset of the record of each artifact, sorted by <code>groupId:artifactId</code>, followed by the records. A record
+ * holds the <code>groupId:artifactId</code> and each version, with the timestamp and build number of the latest
+ * deployment of snapshot versions. Strings are UTF-8 prefixed by their length as an unsigned short, numbers are big
+ * endian. As the file is mapped in one piece it cannot be larger than 2GB.
+ *
+ * @since 1.0.1
+ */
+public final class VersionIndex
+{
+    private static final int MAGIC = 0x4d564958;
+
+    private static final int FORMAT = 1;
+
+    private static final int HEADER_SIZE = 12;
+
+    private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    private VersionIndex( ByteBuffer buffer )
+        throws IOException
+    {
+        if ( buffer.limit() < HEADER_SIZE || buffer.getInt( 0 ) != MAGIC )
+        {
+            throw new IOException( "Not a version index" );
+        }
+        if ( buffer.getInt( 4 ) != FORMAT )
+        {
+            throw new IOException( "Unsupported version index format " + buffer.getInt( 4 ) );
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt( 8 );
+    }
+
+    /**
+     * Maps an index file into memory.
+     *
+     * @param file The index file.
+     * @return The index.
+     * @throws IOException if the file cannot be read or is not an index.
+     */
+    public static VersionIndex open( File file )
+        throws IOException
+    {
+        RandomAccessFile raf = new RandomAccessFile( file, "r" );
+        try
+        {
+            FileChannel channel = raf.getChannel();
+            return new VersionIndex( channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() ) );
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    /**
+     * Returns the number of artifacts in the index.
+     *
+     * @return the number of artifacts in the index.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the versions of an artifact.
+     *
+     * @param groupId The groupId.
+     * @param artifactId The artifactId.
+     * @return The versions, in the order of the repository metadata, or <code>null</code> if the artifact is not in
+     *         the index.
+     */
+    public List<String> getVersions( String groupId, String artifactId )
+    {
+        Map<String, String> versions = lookup( groupId, artifactId );
+        return versions == null ? null : new ArrayList<String>( versions.keySet() );
+    }
+
+    /**
+     * Returns the timestamp and build number of the latest deployment of a snapshot version.
+     *
+     * @param groupId The groupId.
+     * @param artifactId The artifactId.
+     * @param version The snapshot version.
+     * @return The timestamp and build number, as <code>timestamp-buildNumber</code>, or <code>null</code> if the
+     *         index does not know them.
+     */
+    public String getSnapshot( String groupId, String artifactId, String version )
+    {
+        Map<String, String> versions = lookup( groupId, artifactId );
+        return versions == null ? null : versions.get( version );
+    }
+
+    /**
+     * Finds the record of an artifact by binary search.
+     *
+     * @return The snapshot, or <code>null</code>, keyed by version or <code>null</code> if the artifact is not in the
+     *         index.
+     */
+    private Map<String, String> lookup( String groupId, String artifactId )
+    {
+        String key = groupId + ':' + artifactId;
+        // a view of our own, as positions are not thread safe
+        ByteBuffer in = buffer.duplicate();
+        int low = 0;
+        int high = size - 1;
+        while ( low <= high )
+        {
+            int mid = ( low + high ) >>> 1;
+            in.position( in.getInt( HEADER_SIZE + 4 * mid ) );
+            int cmp = readString( in ).compareTo( key );
+            if ( cmp < 0 )
+            {
+                low = mid + 1;
+            }
+            else if ( cmp > 0 )
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                int count = in.getInt();
+                Map<String, String> versions = new LinkedHashMap<String, String>( count * 2 );
+                for ( int i = 0; i < count; i++ )
+                {
+                    String version = readString( in );
+                    String snapshot = readString( in );
+                    versions.put( version, snapshot.length() == 0 ? null : snapshot );
+                }
+                return versions;
+            }
+        }
+        return null;
+    }
+
+    private static String readString( ByteBuffer in )
+    {
+        byte[] bytes = new byte[in.getShort() & 0xffff];
+        in.get( bytes );
+        return new String( bytes, UTF_8 );
+    }
+
+    /**
+     * Scans a repository in the default layout for the versions of every artifact, from the
+     * <code>maven-metadata*.xml</code> files of each artifact and, for the timestamps of snapshots, of each snapshot
+     * version.
+     *
+     * @param repository The root of the repository.
+     * @param log The log to report unreadable metadata to.
+     * @return The snapshot, or <code>null</code>, keyed by version keyed by <code>groupId:artifactId</code>, sorted.
+     */
+    public static Map<String, Map<String, String>> scan( File repository, Log log )
+    {
+        Map<String, Map<String, String>> artifacts = new TreeMap<String, Map<String, String>>();
+        Map<String, String> snapshots = new HashMap<String, String>();
+        scan( repository, artifacts, snapshots, log );
+        for ( Map.Entry<String, String> snapshot : snapshots.entrySet() )
+        {
+            int split = snapshot.getKey().lastIndexOf( ':' );
+            Map<String, String> versions = artifacts.get( snapshot.getKey().substring( 0, split ) );
+            String version = snapshot.getKey().substring( split + 1 );
+            if ( versions != null && versions.containsKey( version ) )
+            {
+                versions.put( version, snapshot.getValue() );
+            }
+        }
+        return artifacts;
+    }
+
+    private static void scan( File dir, Map<String, Map<String, String>> artifacts, Map<String, String> snapshots,
+                              Log log )
+    {
+        File[] files = dir.listFiles();
+        if ( files == null )
+        {
+            return;
+        }
+        // the same repository always gives the same index
+        Arrays.sort( files );
+        for ( File file : files )
+        {
+            if ( file.isDirectory() )
+            {
+                scan( file, artifacts, snapshots, log );
+                continue;
+            }
+            if ( !file.getName().startsWith( "maven-metadata" ) || !file.getName().endsWith( ".xml" ) )
+            {
+                continue;
+            }
+            MavenMetadataFile metadata;
+            try
+            {
+                metadata = MavenMetadataFile.read( file );
+            }
+            catch ( IOException e )
+            {
+                log.warn( "Could not read " + file + ": " + e.getMessage() );
+                continue;
+            }
+            catch ( XMLStreamException e )
+            {
+                log.warn( "Could not parse " + file + ": " + e.getMessage() );
+                continue;
+            }
+            if ( metadata.groupId == null || metadata.artifactId == null )
+            {
+                // the plugins of a group
+                continue;
+            }
+            String key = metadata.groupId + ':' + metadata.artifactId;
+            if ( metadata.version != null && metadata.snapshot != null )
+            {
+                String snapshotKey = key + ':' + metadata.version;
+                String previous = snapshots.get( snapshotKey );
+                if ( previous == null || previous.compareTo( metadata.snapshot ) < 0 )
+                {
+                    snapshots.put( snapshotKey, metadata.snapshot );
+                }
+            }
+            if ( !metadata.versions.isEmpty() )
+            {
+                Map<String, String> versions = artifacts.get( key );
+                if ( versions == null )
+                {
+                    versions = new LinkedHashMap<String, String>();
+                    artifacts.put( key, versions );
+                }
+                for ( String version : metadata.versions )
+                {
+                    if ( !versions.containsKey( version ) )
+                    {
+                        versions.put( version, null );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes an index file.
+     *
+     * @param artifacts The snapshot, or <code>null</code>, keyed by version keyed by <code>groupId:artifactId</code>,
+     *            as returned by {@link #scan(File, Log)}.
+     * @param file The index file, replaced once the new index is complete.
+     * @throws IOException if the index cannot be written or would be larger than 2GB.
+     */
+    public static void write( Map<String, Map<String, String>> artifacts, File file )
+        throws IOException
+    {
+        List<String> keys = new ArrayList<String>( artifacts.keySet() );
+        Collections.sort( keys );
+
+        long offset = HEADER_SIZE + 4L * keys.size();
+        int[] offsets = new int[keys.size()];
+        for ( int i = 0; i < keys.size(); i++ )
+        {
+            if ( offset > Integer.MAX_VALUE )
+            {
+                throw new IOException( "The index would be larger than 2GB" );
+            }
+            offsets[i] = (int) offset;
+            offset += 2 + encode( keys.get( i ) ).length + 4;
+            for ( Map.Entry<String, String> version : artifacts.get( keys.get( i ) ).entrySet() )
+            {
+                offset += 2 + encode( version.getKey() ).length + 2 + encode( version.getValue() ).length;
+            }
+        }
+        if ( offset > Integer.MAX_VALUE )
+        {
+            throw new IOException( "The index would be larger than 2GB" );
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        parent.mkdirs();
+        File tmp = File.createTempFile( file.getName(), ".tmp", parent );
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tmp ) ) );
+        try
+        {
+            out.writeInt( MAGIC );
+            out.writeInt( FORMAT );
+            out.writeInt( keys.size() );
+            for ( int o : offsets )
+            {
+                out.writeInt( o );
+            }
+            for ( String key : keys )
+            {
+                Map<String, String> versions = artifacts.get( key );
+                writeString( out, key );
+                out.writeInt( versions.size() );
+                for ( Map.Entry<String, String> version : versions.entrySet() )
+                {
+                    writeString( out, version.getKey() );
+                    writeString( out, version.getValue() );
+                }
+            }
+            out.close();
+            out = null;
+            if ( file.exists() && !file.delete() || !tmp.renameTo( file ) )
+            {
+                throw new IOException( "Could not replace " + file );
+            }
+        }
+        finally
+        {
+            IOUtil.close( out );
+            tmp.delete();
+        }
+    }
+
+    private static byte[] encode( String value )
+        throws IOException
+    {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes( UTF_8 );
+        if ( bytes.length > 0xffff )
+        {
+            throw new IOException( "Cannot index a string of " + bytes.length + " bytes" );
+        }
+        return bytes;
+    }
+
+    private static void writeString( DataOutputStream out, String value )
+        throws IOException
+    {
+        byte[] bytes = encode( value );
+        out.writeShort( bytes.length );
+        out.write( bytes );
+    }
+}
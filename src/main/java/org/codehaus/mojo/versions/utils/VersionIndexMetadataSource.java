@@ -0,0 +1,135 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.metadata.ResolutionGroup;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link ArtifactMetadataSource} which answers the available versions of the artifacts in a {@link VersionIndex}
+ * from the index and delegates everything else, including the artifacts the index does not know.
+ *
+ * @since 1.0.1
+ */
+public class VersionIndexMetadataSource
+    implements ProbingMetadataSource
+{
+    private final VersionIndex index;
+
+    private final ArtifactMetadataSource delegate;
+
+    /**
+     * Creates a new source.
+     *
+     * @param index The index.
+     * @param delegate The source to delegate to.
+     */
+    public VersionIndexMetadataSource( VersionIndex index, ArtifactMetadataSource delegate )
+    {
+        this.index = index;
+        this.delegate = delegate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ResolutionGroup retrieve( Artifact artifact, ArtifactRepository localRepository, List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        return delegate.retrieve( artifact, localRepository, remoteRepositories );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Artifact retrieveRelocatedArtifact( Artifact artifact, ArtifactRepository localRepository,
+                                               List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        return delegate.retrieveRelocatedArtifact( artifact, localRepository, remoteRepositories );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List retrieveAvailableVersions( Artifact artifact, ArtifactRepository localRepository,
+                                           List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        List<String> versions = index.getVersions( artifact.getGroupId(), artifact.getArtifactId() );
+        if ( versions == null )
+        {
+            Instrumentation.miss( "version index" );
+            return delegate.retrieveAvailableVersions( artifact, localRepository, remoteRepositories );
+        }
+        Instrumentation.hit( "version index" );
+        List<ArtifactVersion> result = new ArrayList<ArtifactVersion>( versions.size() );
+        for ( String version : versions )
+        {
+            result.add( new DefaultArtifactVersion( version ) );
+        }
+        return result;
+    }
+
+    /**
+     * Checks the index for the version if it knows the artifact, and otherwise has the delegate check the
+     * repositories.
+     *
+     * @param artifact The artifact.
+     * @param version The version to look for.
+     * @param localRepository The local repository.
+     * @param remoteRepositories The remote repositories, those most likely to have the version first.
+     * @return <code>true</code> if the version is available.
+     * @throws ArtifactMetadataRetrievalException if the delegate cannot check the repositories.
+     */
+    public boolean hasVersion( Artifact artifact, String version, ArtifactRepository localRepository,
+                               List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        List<String> versions = index.getVersions( artifact.getGroupId(), artifact.getArtifactId() );
+        if ( versions != null )
+        {
+            Instrumentation.hit( "version index" );
+            return versions.contains( version );
+        }
+        Instrumentation.miss( "version index" );
+        if ( delegate instanceof ProbingMetadataSource )
+        {
+            return ( (ProbingMetadataSource) delegate ).hasVersion( artifact, version, localRepository,
+                                                                     remoteRepositories );
+        }
+        for ( Object candidate : delegate.retrieveAvailableVersions( artifact, localRepository, remoteRepositories ) )
+        {
+            if ( version.equals( candidate.toString() ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,111 @@
+package org.codehaus.mojo.versions;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Tests the reactor and dependency artifact lookups of {@link AbstractVersionsDependencyUpdaterMojo}.
+ */
+public class AbstractVersionsDependencyUpdaterMojoTest
+    extends TestCase
+{
+    private AbstractVersionsDependencyUpdaterMojo mojo;
+
+    protected void setUp()
+        throws Exception
+    {
+        mojo = new AbstractVersionsDependencyUpdaterMojo()
+        {
+            protected void update( ModifiedPomXMLEventReader pom )
+            {
+            }
+        };
+    }
+
+    public void testIsProducedByReactor()
+    {
+        mojo.reactorProjects = Arrays.asList( project( "g", "a" ), project( "g", "b" ) );
+
+        assertTrue( mojo.isProducedByReactor( dependency( "g", "a", "jar", null ) ) );
+        assertTrue( mojo.isProducedByReactor( dependency( "g", "b", "pom", "tests" ) ) );
+        assertFalse( mojo.isProducedByReactor( dependency( "g", "c", "jar", null ) ) );
+        assertFalse( mojo.isProducedByReactor( dependency( "h", "a", "jar", null ) ) );
+    }
+
+    public void testFindArtifact()
+        throws Exception
+    {
+        Artifact jar = artifact( "g", "a", "jar", null );
+        Artifact tests = artifact( "g", "a", "jar", "tests" );
+        Set<Artifact> artifacts = new LinkedHashSet<Artifact>( Arrays.asList( jar, tests ) );
+        MavenProject project = project( "g", "p" );
+        project.setDependencyArtifacts( artifacts );
+        mojo.setProject( project );
+
+        assertSame( jar, mojo.findArtifact( dependency( "g", "a", "jar", null ) ) );
+        assertSame( tests, mojo.findArtifact( dependency( "g", "a", "jar", "tests" ) ) );
+        assertNull( mojo.findArtifact( dependency( "g", "a", "pom", null ) ) );
+
+        Artifact pom = artifact( "g", "a", "pom", null );
+        project.setDependencyArtifacts( new LinkedHashSet<Artifact>( Arrays.asList( pom ) ) );
+        assertSame( pom, mojo.findArtifact( dependency( "g", "a", "pom", null ) ) );
+        assertNull( mojo.findArtifact( dependency( "g", "a", "jar", null ) ) );
+    }
+
+    private static MavenProject project( String groupId, String artifactId )
+    {
+        Model model = new Model();
+        model.setGroupId( groupId );
+        model.setArtifactId( artifactId );
+        model.setVersion( "1.0" );
+        return new MavenProject( model );
+    }
+
+    private static Dependency dependency( String groupId, String artifactId, String type, String classifier )
+    {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( groupId );
+        dependency.setArtifactId( artifactId );
+        dependency.setVersion( "1.0" );
+        dependency.setType( type );
+        dependency.setClassifier( classifier );
+        return dependency;
+    }
+
+    private static Artifact artifact( String groupId, String artifactId, String type, String classifier )
+        throws Exception
+    {
+        return new DefaultArtifact( groupId, artifactId, VersionRange.createFromVersionSpec( "1.0" ), "compile", type,
+                                    classifier, new DefaultArtifactHandler( type ) );
+    }
+}
@@ -0,0 +1,80 @@
+package org.codehaus.mojo.versions;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tests the propagation of parent versions by {@link UpdateChildModulesMojo}.
+ */
+public class UpdateChildModulesMojoTest
+    extends TestCase
+{
+    public void testCascadesThroughInheritedVersions()
+    {
+        Map<String, Model> reactor = new LinkedHashMap<String, Model>();
+        reactor.put( "a/b/c", model( "c", null, "b", "1.0" ) );
+        reactor.put( "a/b", model( "b", null, "a", "1.0" ) );
+        reactor.put( "a/d", model( "d", "3.0", "a", "1.0" ) );
+        reactor.put( "a/d/e", model( "e", null, "d", "2.0" ) );
+        reactor.put( "a/f", model( "f", null, "a", "2.0" ) );
+        reactor.put( "a", model( "a", "2.0", "root", "1.0" ) );
+
+        Map<String, String> changes = new UpdateChildModulesMojo().getParentVersionChanges( reactor );
+
+        Map<String, String> expected = new LinkedHashMap<String, String>();
+        expected.put( "a/b", "2.0" );
+        expected.put( "a/d", "2.0" );
+        expected.put( "a/b/c", "2.0" );
+        expected.put( "a/d/e", "3.0" );
+        assertEquals( expected, changes );
+    }
+
+    public void testUpToDate()
+    {
+        Map<String, Model> reactor = new LinkedHashMap<String, Model>();
+        reactor.put( "", model( "a", "1.0", null, null ) );
+        reactor.put( "b", model( "b", null, "a", "1.0" ) );
+
+        assertTrue( new UpdateChildModulesMojo().getParentVersionChanges( reactor ).isEmpty() );
+    }
+
+    private static Model model( String artifactId, String version, String parentArtifactId, String parentVersion )
+    {
+        Model model = new Model();
+        model.setGroupId( "g" );
+        model.setArtifactId( artifactId );
+        model.setVersion( version );
+        if ( parentArtifactId != null )
+        {
+            Parent parent = new Parent();
+            parent.setGroupId( "g" );
+            parent.setArtifactId( parentArtifactId );
+            parent.setVersion( parentVersion );
+            model.setParent( parent );
+        }
+        return model;
+    }
+}
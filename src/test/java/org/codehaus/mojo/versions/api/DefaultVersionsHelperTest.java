@@ -22,16 +22,24 @@ package org.codehaus.mojo.versions.api;
 import junit.framework.TestCase;
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.factory.ArtifactFactory;
 import org.apache.maven.artifact.factory.DefaultArtifactFactory;
 import org.apache.maven.artifact.manager.DefaultWagonManager;
 import org.apache.maven.artifact.manager.WagonConfigurationException;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
 import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
 import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
 import org.apache.maven.artifact.repository.DefaultArtifactRepository;
 import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
 import org.apache.maven.artifact.resolver.DefaultArtifactResolver;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
@@ -45,8 +53,15 @@ import org.apache.maven.wagon.repository.Repository;
 import org.apache.maven.execution.MavenSession;
 import org.codehaus.mojo.versions.Property;
 import org.codehaus.mojo.versions.ordering.VersionComparators;
+import org.codehaus.mojo.versions.utils.ResilientMetadataSource;
+import org.codehaus.plexus.util.FileUtils;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
@@ -56,10 +71,14 @@ import static org.junit.Assert.assertThat;
 import static org.junit.matchers.JUnitMatchers.hasItem;
 import static org.junit.matchers.JUnitMatchers.hasItems;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.same;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Test {@link DefaultVersionsHelper}
@@ -160,6 +179,74 @@ public class DefaultVersionsHelperTest
                       helper.getVersionComparator( "com.mycompany.maven", "old-maven-plugin" ) );
     }
 
+    public void testRulesCachedLocally()
+        throws Exception
+    {
+        File dir = File.createTempFile( "rules", "" );
+        dir.delete();
+        dir.mkdirs();
+        try
+        {
+            File rules = new File( dir, "rules.xml" );
+            FileUtils.copyURLToFile( getClass().getResource( "rules.xml" ), rules );
+            String rulesUri = rules.toURI().toURL().toExternalForm();
+            String localRepository = "file://" + new File( dir, "repository" ).getAbsolutePath();
+            MavenSession session = mock( MavenSession.class );
+
+            createHelper( rulesUri, localRepository, new Settings(), session );
+            assertTrue( rules.delete() );
+
+            VersionsHelper helper = createHelper( rulesUri, localRepository, new Settings(), session );
+            assertEquals( "reused within the session", VersionComparators.getVersionComparator( "mercury" ),
+                          helper.getVersionComparator( "org.apache.maven", "plugins" ) );
+
+            Settings offline = new Settings();
+            offline.setOffline( true );
+            helper = createHelper( rulesUri, localRepository, offline, mock( MavenSession.class ) );
+            assertEquals( "read from the local copy", VersionComparators.getVersionComparator( "mercury" ),
+                          helper.getVersionComparator( "org.apache.maven", "plugins" ) );
+        }
+        finally
+        {
+            FileUtils.deleteDirectory( dir );
+        }
+    }
+
+    public void testChangedRulesTransferredWhenOlderThanTheLocalCopy()
+        throws Exception
+    {
+        File dir = File.createTempFile( "rules", "" );
+        dir.delete();
+        dir.mkdirs();
+        try
+        {
+            // well behind the local clock, as a repository with a slow clock would report it
+            final long remoteTime = 1000000000000L;
+            File rules = new File( dir, "rules.xml" );
+            FileUtils.copyURLToFile( getClass().getResource( "rules.xml" ), rules );
+            assertTrue( rules.setLastModified( remoteTime ) );
+            String rulesUri = rules.toURI().toURL().toExternalForm();
+            String localRepository = "file://" + new File( dir, "repository" ).getAbsolutePath();
+
+            VersionsHelper helper =
+                createHelper( rulesUri, localRepository, new Settings(), mock( MavenSession.class ) );
+            assertEquals( VersionComparators.getVersionComparator( "mercury" ),
+                          helper.getVersionComparator( "org.apache.maven", "plugins" ) );
+
+            String changed = FileUtils.fileRead( rules ).replace( "groupId=\"*.maven\" comparisonMethod=\"mercury\"",
+                                                                  "groupId=\"*.maven\" comparisonMethod=\"numeric\"" );
+            FileUtils.fileWrite( rules.getPath(), changed );
+            assertTrue( rules.setLastModified( remoteTime + 60000L ) );
+
+            helper = createHelper( rulesUri, localRepository, new Settings(), mock( MavenSession.class ) );
+            assertEquals( VersionComparators.getVersionComparator( "numeric" ),
+                          helper.getVersionComparator( "org.apache.maven", "plugins" ) );
+        }
+        finally
+        {
+            FileUtils.deleteDirectory( dir );
+        }
+    }
 
     public void testMVERSIONS159_ExcludedAndNotIncluded()
         throws MojoExecutionException
@@ -175,6 +262,196 @@ public class DefaultVersionsHelperTest
         assertTrue( result.isEmpty() );
     }
 
+    public void testRepositoriesLikelyToHaveTheVersionAreAskedFirst()
+    {
+        ArtifactRepository releases = repository( "releases", true, false );
+        ArtifactRepository mixed = repository( "mixed", true, true );
+        ArtifactRepository snapshots = repository( "snapshots", false, true );
+        List<ArtifactRepository> repositories = asList( releases, mixed, snapshots );
+
+        assertEquals( asList( snapshots, mixed, releases ), DefaultVersionsHelper.prioritize( repositories, true ) );
+        assertEquals( asList( releases, mixed, snapshots ), DefaultVersionsHelper.prioritize( repositories, false ) );
+    }
+
+    public void testExistsVersionDoesNotWaitForSlowRepositories()
+        throws Exception
+    {
+        final ArtifactRepository central = repository( "central", true, false );
+        final ArtifactRepository snapshots = repository( "snapshots", false, true );
+        final ArtifactMetadataSource metadataSource = mock( ArtifactMetadataSource.class );
+        when( metadataSource.retrieveAvailableVersions( any( Artifact.class ), any( ArtifactRepository.class ),
+                                                        anyList() ) ).thenAnswer( new Answer<List>()
+        {
+            public List answer( InvocationOnMock invocation )
+                throws Throwable
+            {
+                List repositories = (List) invocation.getArguments()[2];
+                if ( repositories.contains( central ) )
+                {
+                    Thread.sleep( 10000 );
+                    return new ArrayList();
+                }
+                return asList( new DefaultArtifactVersion( "1.0" ), new DefaultArtifactVersion( "1.1-SNAPSHOT" ) );
+            }
+        } );
+        final Artifact artifact = mock( Artifact.class );
+        when( artifact.getGroupId() ).thenReturn( "com.mycompany.maven" );
+        when( artifact.getArtifactId() ).thenReturn( "artifact-one" );
+
+        VersionsHelper helper = createHelper( null, metadataSource, asList( central, snapshots ), "", new Settings(),
+                                              mock( MavenSession.class ) );
+
+        long start = System.currentTimeMillis();
+        assertTrue( helper.existsVersion( artifact, "1.1-SNAPSHOT", false ) );
+        assertTrue( System.currentTimeMillis() - start < 5000 );
+    }
+
+    public void testExistsVersionSkipsIgnoredVersions()
+        throws Exception
+    {
+        final ArtifactMetadataSource metadataSource = mock( ArtifactMetadataSource.class );
+        when( metadataSource.retrieveAvailableVersions( any( Artifact.class ), any( ArtifactRepository.class ),
+                                                        anyList() ) ).thenReturn(
+            new ArrayList<ArtifactVersion>( asList( new DefaultArtifactVersion( "1.0" ),
+                                                    new DefaultArtifactVersion( "1.1-beta" ) ) ) );
+        final Artifact artifact = mock( Artifact.class );
+        when( artifact.getGroupId() ).thenReturn( "com.mycompany.maven" );
+        when( artifact.getArtifactId() ).thenReturn( "artifact-one" );
+
+        final String resourcePath = "/" + getClass().getPackage().getName().replace( '.', '/' ) + "/rules.xml";
+        VersionsHelper helper = createHelper( getClass().getResource( resourcePath ).toExternalForm(), metadataSource,
+                                              asList( repository( "central", true, false ) ), "", new Settings(),
+                                              mock( MavenSession.class ) );
+
+        assertTrue( helper.existsVersion( artifact, "1.0", false ) );
+        assertFalse( helper.existsVersion( artifact, "1.1-beta", false ) );
+    }
+
+    public void testDependencyUpdatesAreSummarized()
+        throws Exception
+    {
+        final ArtifactMetadataSource metadataSource = mock( ArtifactMetadataSource.class );
+        when( metadataSource.retrieveAvailableVersions( any( Artifact.class ), any( ArtifactRepository.class ),
+                                                        anyList() ) ).thenReturn(
+            new ArrayList<ArtifactVersion>( asList( new DefaultArtifactVersion( "1.0" ),
+                                                    new DefaultArtifactVersion( "1.1" ),
+                                                    new DefaultArtifactVersion( "2.0" ) ) ) );
+        final String resourcePath = "/" + getClass().getPackage().getName().replace( '.', '/' ) + "/rules.xml";
+        final String rulesUri = getClass().getResource( resourcePath ).toExternalForm();
+        VersionsHelper helper = createHelper( artifactFactory(), rulesUri, metadataSource, new ArrayList(), "",
+                                              new Settings(), mock( MavenSession.class ) );
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( "com.mycompany.maven" );
+        dependency.setArtifactId( "artifact-one" );
+        dependency.setVersion( "1.0" );
+
+        Map<Dependency, UpdatesSummary> summaries =
+            helper.lookupDependenciesUpdatesSummaries( Collections.singleton( dependency ), false );
+
+        UpdatesSummary summary = summaries.get( dependency );
+        assertEquals( "1.0", summary.getCurrentVersion().toString() );
+        assertEquals( "[1.1, 2.0]", Arrays.toString( summary.getAllUpdates() ) );
+        assertEquals( "2.0", summary.getNewestUpdate( UpdateScope.MAJOR ).toString() );
+    }
+
+    public void testPropertyVersionsAreOnlyReusedForTheSameRepositories()
+        throws Exception
+    {
+        final ArtifactRepository central = repository( "central", true, false );
+        final ArtifactRepository extra = repository( "extra", true, false );
+        final ArtifactMetadataSource metadataSource = mock( ArtifactMetadataSource.class );
+        when( metadataSource.retrieveAvailableVersions( any( Artifact.class ), any( ArtifactRepository.class ),
+                                                        anyList() ) ).thenReturn(
+            new ArrayList<ArtifactVersion>( asList( new DefaultArtifactVersion( "1.0" ) ) ) );
+        final MavenSession session = mock( MavenSession.class );
+
+        resolveProperty( metadataSource, asList( central ), session );
+        resolveProperty( metadataSource, asList( central, extra ), session );
+        resolveProperty( metadataSource, asList( central ), session );
+
+        verify( metadataSource, times( 2 ) ).retrieveAvailableVersions( any( Artifact.class ),
+                                                                         any( ArtifactRepository.class ), anyList() );
+    }
+
+    public void testPartialPropertyVersionsAreNotReused()
+        throws Exception
+    {
+        final ArtifactRepository central = repository( "central", true, false );
+        final ArtifactRepository broken = repository( "broken", true, false );
+        final ArtifactMetadataSource metadataSource = mock( ArtifactMetadataSource.class );
+        when( metadataSource.retrieveAvailableVersions( any( Artifact.class ), any( ArtifactRepository.class ),
+                                                        anyList() ) ).thenAnswer( new Answer<List>()
+        {
+            public List answer( InvocationOnMock invocation )
+                throws Throwable
+            {
+                if ( ( (List) invocation.getArguments()[2] ).contains( broken ) )
+                {
+                    throw new ArtifactMetadataRetrievalException( "broken is down" );
+                }
+                return new ArrayList<ArtifactVersion>( asList( new DefaultArtifactVersion( "1.0" ) ) );
+            }
+        } );
+        final MavenSession session = mock( MavenSession.class );
+        final ArtifactMetadataSource resilient =
+            new ResilientMetadataSource( metadataSource, null, 0, 0, 0, false, mock( Log.class ) );
+
+        assertEquals( "1.0", resolveProperty( resilient, asList( central, broken ), session ) );
+        assertEquals( "1.0", resolveProperty( resilient, asList( central, broken ), session ) );
+
+        verify( metadataSource, times( 4 ) ).retrieveAvailableVersions( any( Artifact.class ),
+                                                                         any( ArtifactRepository.class ), anyList() );
+    }
+
+    private static ArtifactFactory artifactFactory()
+    {
+        final Answer<Artifact> dependencyArtifact = new Answer<Artifact>()
+        {
+            public Artifact answer( InvocationOnMock invocation )
+            {
+                Object[] args = invocation.getArguments();
+                return new DefaultArtifact( (String) args[0], (String) args[1], (VersionRange) args[2],
+                                            (String) args[5], (String) args[3], (String) args[4],
+                                            new DefaultArtifactHandler( "jar" ) );
+            }
+        };
+        final ArtifactFactory artifactFactory = mock( ArtifactFactory.class );
+        when( artifactFactory.createDependencyArtifact( anyString(), anyString(), any( VersionRange.class ),
+                                                        anyString(), anyString(), anyString() ) ).thenAnswer(
+            dependencyArtifact );
+        when( artifactFactory.createDependencyArtifact( anyString(), anyString(), any( VersionRange.class ),
+                                                        anyString(), anyString(), anyString(), anyBoolean() ) ).thenAnswer(
+            dependencyArtifact );
+        return artifactFactory;
+    }
+
+    private String resolveProperty( ArtifactMetadataSource metadataSource, List remoteRepositories,
+                                    MavenSession session )
+        throws Exception
+    {
+        final String resourcePath = "/" + getClass().getPackage().getName().replace( '.', '/' ) + "/rules.xml";
+        final String rulesUri = getClass().getResource( resourcePath ).toExternalForm();
+        VersionsHelper helper = createHelper( artifactFactory(), rulesUri, metadataSource, remoteRepositories, "",
+                                              new Settings(), session );
+
+        Dependency dependency = new Dependency();
+        dependency.setGroupId( "com.mycompany.maven" );
+        dependency.setArtifactId( "artifact-one" );
+        dependency.setVersion( "1.0" );
+        Property property = new Property( "one.version" );
+        property.setDependencies( new Dependency[]{ dependency } );
+        Map<Property, PropertyVersions> result =
+            helper.getVersionPropertiesMap( new MavenProject( new Model() ), new Property[]{ property }, null, null,
+                                            false );
+        return result.get( property ).getVersions( true )[0].toString();
+    }
+
+    private static ArtifactRepository repository( String id, boolean releases, boolean snapshots )
+    {
+        return new DefaultArtifactRepository( id, "file:///" + id, new DefaultRepositoryLayout(),
+                                              new ArtifactRepositoryPolicy( snapshots, null, null ),
+                                              new ArtifactRepositoryPolicy( releases, null, null ) );
+    }
 
     private VersionsHelper createHelper()
         throws MojoExecutionException
@@ -192,6 +469,37 @@ public class DefaultVersionsHelperTest
 
     private VersionsHelper createHelper( String rulesUri, ArtifactMetadataSource metadataSource )
         throws MojoExecutionException
+    {
+        return createHelper( rulesUri, metadataSource, "", new Settings(), mock( MavenSession.class ) );
+    }
+
+    private VersionsHelper createHelper( String rulesUri, String localRepository, Settings settings,
+                                         MavenSession session )
+        throws MojoExecutionException
+    {
+        return createHelper( rulesUri, new MavenMetadataSource(), localRepository, settings, session );
+    }
+
+    private VersionsHelper createHelper( String rulesUri, ArtifactMetadataSource metadataSource,
+                                         String localRepository, Settings settings, MavenSession session )
+        throws MojoExecutionException
+    {
+        return createHelper( rulesUri, metadataSource, new ArrayList(), localRepository, settings, session );
+    }
+
+    private VersionsHelper createHelper( String rulesUri, ArtifactMetadataSource metadataSource,
+                                         List remoteRepositories, String localRepository, Settings settings,
+                                         MavenSession session )
+        throws MojoExecutionException
+    {
+        return createHelper( new DefaultArtifactFactory(), rulesUri, metadataSource, remoteRepositories,
+                             localRepository, settings, session );
+    }
+
+    private VersionsHelper createHelper( ArtifactFactory artifactFactory, String rulesUri,
+                                         ArtifactMetadataSource metadataSource, List remoteRepositories,
+                                         String localRepository, Settings settings, MavenSession session )
+        throws MojoExecutionException
     {
         final DefaultWagonManager wagonManager = new DefaultWagonManager()
         {
@@ -203,10 +511,10 @@ public class DefaultVersionsHelperTest
         };
 
         VersionsHelper helper =
-            new DefaultVersionsHelper( new DefaultArtifactFactory(), new DefaultArtifactResolver(), metadataSource, new ArrayList(),
+            new DefaultVersionsHelper( artifactFactory, new DefaultArtifactResolver(), metadataSource, remoteRepositories,
                                        new ArrayList(),
-                                       new DefaultArtifactRepository( "", "", new DefaultRepositoryLayout() ),
-                                       wagonManager, new Settings(), "", rulesUri, mock( Log.class ), mock( MavenSession.class ),
+                                       new DefaultArtifactRepository( "", localRepository, new DefaultRepositoryLayout() ),
+                                       wagonManager, settings, "", rulesUri, mock( Log.class ), session,
                                        new DefaultPathTranslator());
         return helper;
     }
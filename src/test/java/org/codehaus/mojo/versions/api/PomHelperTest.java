@@ -4,14 +4,26 @@ import junit.framework.TestCase;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.mojo.versions.change.VersionChange;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.stax2.XMLInputFactory2;
 
 import javax.xml.stream.XMLInputFactory;
 import java.io.File;
 import java.io.StringReader;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests the methods of {@link PomHelper}.
@@ -76,6 +88,104 @@ public class PomHelperTest
         assertNotSame( oldVersion, newVersion );
     }
 
+    /**
+     * Tests that several dependency changes are applied in a single pass, across dependencies, dependencyManagement
+     * and profiles, and that only the applied changes are reported.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testSetDependencyVersions()
+        throws Exception
+    {
+        URL url = getClass().getResource( "PomHelperTest.setDependencyVersions.pom.xml" );
+        StringBuilder input = PomHelper.readXmlFile( new File( url.getPath() ) );
+
+        XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
+        inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
+
+        ModifiedPomXMLEventReader pom = new ModifiedPomXMLEventReader( input, inputFactory );
+
+        VersionChange managed = new VersionChange( "org.group1", "managed", "1.0", "1.1" );
+        VersionChange sibling = new VersionChange( "org.myorg", "sibling", "1.0-SNAPSHOT", "1.0" );
+        VersionChange direct = new VersionChange( "org.group1", "direct", "2.0", "2.1" );
+        VersionChange missing = new VersionChange( "org.group1", "untouched", "4.0", "4.1" );
+
+        Set<VersionChange> applied =
+            PomHelper.setDependencyVersions( pom, Arrays.asList( managed, sibling, direct, missing ) );
+
+        assertEquals( 3, applied.size() );
+        assertTrue( applied.containsAll( Arrays.asList( managed, sibling, direct ) ) );
+
+        Model model = PomHelper.getRawModel( pom );
+        assertEquals( "1.1", model.getDependencyManagement().getDependencies().get( 0 ).getVersion() );
+        assertEquals( "1.0", model.getDependencyManagement().getDependencies().get( 1 ).getVersion() );
+        assertEquals( "2.1", model.getDependencies().get( 0 ).getVersion() );
+        assertEquals( "3.0", model.getDependencies().get( 1 ).getVersion() );
+        assertEquals( "2.1", model.getProfiles().get( 0 ).getDependencies().get( 0 ).getVersion() );
+    }
+
+    /**
+     * Tests that a dependency coordinate referring to a property the pom does not define is reported to the log.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testSetDependencyVersionsLogsUnresolvedProperties()
+        throws Exception
+    {
+        StringBuilder input = new StringBuilder( "<project><artifactId>app</artifactId><dependencies>"
+            + "<dependency><groupId>${undefined.group}</groupId><artifactId>${project.artifactId}-api</artifactId>"
+            + "<version>1.0</version></dependency></dependencies></project>" );
+        XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
+        inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
+        ModifiedPomXMLEventReader pom = new ModifiedPomXMLEventReader( input, inputFactory );
+        Log log = mock( Log.class );
+        when( log.isDebugEnabled() ).thenReturn( true );
+
+        VersionChange change = new VersionChange( "${undefined.group}", "app-api", "1.0", "1.1" );
+        assertEquals( 1, PomHelper.setDependencyVersions( pom, Arrays.asList( change ), log ).size() );
+
+        verify( log ).debug( "expression: undefined.group no value" );
+        verify( log, never() ).debug( "expression: project.artifactId no value" );
+    }
+
+    /**
+     * Tests that several plugin changes are applied in a single pass, across build plugins, pluginManagement,
+     * reporting and profiles, and that only the applied changes are reported.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testSetPluginVersions()
+        throws Exception
+    {
+        URL url = getClass().getResource( "PomHelperTest.setPluginVersions.pom.xml" );
+        StringBuilder input = PomHelper.readXmlFile( new File( url.getPath() ) );
+
+        XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
+        inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
+
+        ModifiedPomXMLEventReader pom = new ModifiedPomXMLEventReader( input, inputFactory );
+
+        VersionChange compiler =
+            new VersionChange( PomHelper.APACHE_MAVEN_PLUGINS_GROUPID, "maven-compiler-plugin", "3.1", "3.6.1" );
+        VersionChange helper = new VersionChange( "org.codehaus.mojo", "build-helper-maven-plugin", "1.9", "3.0" );
+        VersionChange javadoc =
+            new VersionChange( PomHelper.APACHE_MAVEN_PLUGINS_GROUPID, "maven-javadoc-plugin", "2.9", "2.10" );
+        VersionChange missing = new VersionChange( "org.codehaus.mojo", "exec-maven-plugin", "1.0", "1.6" );
+
+        Set<VersionChange> applied =
+            PomHelper.setPluginVersions( pom, Arrays.asList( compiler, helper, javadoc, missing ) );
+
+        assertEquals( 3, applied.size() );
+        assertTrue( applied.containsAll( Arrays.asList( compiler, helper, javadoc ) ) );
+
+        Model model = PomHelper.getRawModel( pom );
+        assertEquals( "3.6.1", model.getBuild().getPluginManagement().getPlugins().get( 0 ).getVersion() );
+        assertEquals( "3.0", model.getBuild().getPlugins().get( 0 ).getVersion() );
+        assertEquals( "1.9", model.getBuild().getPlugins().get( 1 ).getVersion() );
+        assertEquals( "2.10", model.getReporting().getPlugins().get( 0 ).getVersion() );
+        assertEquals( "3.6.1", model.getProfiles().get( 0 ).getBuild().getPlugins().get( 0 ).getVersion() );
+    }
+
     public void testGroupIdNotOnChildPom()
             throws Exception
     {
@@ -163,4 +273,62 @@ public class PomHelperTest
 
     }
 
+    /**
+     * Tests that raw models are only read again when the file changes or is written by the plugin.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testRawModelCache()
+        throws Exception
+    {
+        File pom = File.createTempFile( "pom", ".xml" );
+        try
+        {
+            FileUtils.fileWrite( pom.getPath(), "<project><artifactId>a</artifactId><version>1.0</version></project>" );
+            Model model = PomHelper.getRawModel( pom );
+            assertSame( model, PomHelper.getRawModel( pom ) );
+
+            Model copy = PomHelper.copyModel( model );
+            copy.setVersion( "3.0" );
+            assertEquals( "1.0", PomHelper.getRawModel( pom ).getVersion() );
+
+            long lastModified = pom.lastModified();
+            FileUtils.fileWrite( pom.getPath(), "<project><artifactId>a</artifactId><version>2.0</version></project>" );
+            pom.setLastModified( lastModified );
+            PomHelper.invalidateRawModel( pom );
+            assertEquals( "2.0", PomHelper.getRawModel( pom ).getVersion() );
+        }
+        finally
+        {
+            pom.delete();
+        }
+    }
+
+    /**
+     * Tests the lightweight expression evaluation.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testEvaluate()
+        throws Exception
+    {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put( "a", "1" );
+        properties.put( "b", "${a}.${a}" );
+        properties.put( "c", "v${b}-${missing}" );
+        properties.put( "self", "x${self}" );
+        properties.put( "loop1", "${loop2}" );
+        properties.put( "loop2", "${loop1}" );
+
+        assertNull( PomHelper.evaluate( null, properties ) );
+        assertEquals( "plain", PomHelper.evaluate( "plain", properties ) );
+        assertEquals( "1", PomHelper.evaluate( "${a}", properties ) );
+        assertEquals( "v1.1-${missing}", PomHelper.evaluate( "${c}", properties ) );
+        assertEquals( "[1.1,v1.1-${missing})", PomHelper.evaluate( "[${b},${c})", properties ) );
+        assertEquals( "${a}-1", PomHelper.evaluate( "$${a}-${a}", properties ) );
+        assertEquals( "$1", PomHelper.evaluate( "$$1", properties ) );
+        assertEquals( "${unclosed", PomHelper.evaluate( "${unclosed", properties ) );
+        assertEquals( "x${self}", PomHelper.evaluate( "${self}", properties ) );
+        assertEquals( "${loop1}", PomHelper.evaluate( "${loop1}", properties ) );
+    }
 }
@@ -20,6 +20,7 @@
 package org.codehaus.mojo.versions.branch;
 
 import com.google.common.collect.ImmutableList;
+import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.codehaus.mojo.versions.api.PomHelper;
 import org.junit.Test;
@@ -30,6 +31,7 @@ import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -60,6 +62,51 @@ public class BranchHelperTest {
         );
     }
 
+    @Test
+    public void referenceCycle() {
+        Model model = new Model();
+        model.setArtifactId("cycle");
+        model.addProperty("a", "${b}");
+        model.addProperty("b", "${a}");
+        model.addProperty("c", "${d}");
+        model.addProperty("d", "1.0-SNAPSHOT");
+        model.addDependency(dependency("lib-a", "${a}"));
+        model.addDependency(dependency("lib-c", "${c}"));
+
+        Set<PropertyInstance> changes = BranchHelper.propertyChanges(ImmutableList.of(model), artifact -> true);
+
+        assertThat(changes).containsExactly(new PropertyInstance("cycle", null, "d", "1.0-SNAPSHOT"));
+    }
+
+    @Test
+    public void sharedArtifactResolvedOnce() {
+        Model root = new Model();
+        root.setArtifactId("root");
+        root.addProperty("lib", "1.0-SNAPSHOT");
+        root.addDependency(dependency("lib", "${lib}"));
+        Model module = new Model();
+        module.setArtifactId("module");
+        module.addProperty("alias", "${lib}");
+        module.addDependency(dependency("lib", "${alias}"));
+
+        AtomicInteger lookups = new AtomicInteger();
+        Set<PropertyInstance> changes = BranchHelper.propertyChanges(ImmutableList.of(root, module), artifact -> {
+            lookups.incrementAndGet();
+            return true;
+        });
+
+        assertThat(changes).containsExactly(new PropertyInstance("root", null, "lib", "1.0-SNAPSHOT"));
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    private static Dependency dependency(String artifactId, String version) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("localhost");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        return dependency;
+    }
+
     private static Model model(String resource) throws URISyntaxException, IOException {
         return PomHelper.getRawModel(new File(BranchHelperTest.class.getResource(resource).toURI()));
     }
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.codehaus.mojo.versions.branch;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BranchLookupCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void remembersFoundArtifactsAndExpiresMissingOnes() {
+        File file = new File(folder.getRoot(), "cache/BR-1.properties");
+        BranchLookupCache cache = BranchLookupCache.load(file, 1000, new SystemStreamLog());
+        cache.put("g:found:1-BR-1-SNAPSHOT", true, 0);
+        cache.put("g:missing:1-BR-1-SNAPSHOT", false, 0);
+        cache.save();
+
+        BranchLookupCache loaded = BranchLookupCache.load(file, 1000, new SystemStreamLog());
+        assertThat(loaded.get("g:found:1-BR-1-SNAPSHOT", Long.MAX_VALUE)).isEqualTo(Optional.of(true));
+        assertThat(loaded.get("g:missing:1-BR-1-SNAPSHOT", 999)).isEqualTo(Optional.of(false));
+        assertThat(loaded.get("g:missing:1-BR-1-SNAPSHOT", 1000)).isEqualTo(Optional.empty());
+        assertThat(loaded.get("g:other:1-BR-1-SNAPSHOT", 0)).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    public void doesNotRememberMissingArtifactsWithoutTtl() {
+        BranchLookupCache cache = BranchLookupCache.load(null, 0, new SystemStreamLog());
+        cache.put("g:missing:1-BR-1-SNAPSHOT", false, 0);
+        cache.save();
+
+        assertThat(cache.get("g:missing:1-BR-1-SNAPSHOT", 0)).isEqualTo(Optional.empty());
+    }
+}
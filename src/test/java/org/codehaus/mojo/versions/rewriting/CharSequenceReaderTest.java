@@ -0,0 +1,105 @@
+package org.codehaus.mojo.versions.rewriting;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.model.Model;
+import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.change.VersionChange;
+import org.codehaus.stax2.XMLInputFactory2;
+
+import javax.xml.stream.XMLInputFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests {@link CharSequenceReader} and its use while rewriting a pom.
+ */
+public class CharSequenceReaderTest
+    extends TestCase
+{
+    public void testEditBeforePositionShiftsIt()
+        throws Exception
+    {
+        StringBuilder buffer = new StringBuilder( "abcdef" );
+        CharSequenceReader reader = new CharSequenceReader( buffer );
+        char[] chars = new char[3];
+
+        assertEquals( 3, reader.read( chars, 0, 3 ) );
+        assertEquals( "abc", new String( chars ) );
+
+        reader.replacing( 0, 2, 4 );
+        buffer.replace( 0, 2, "wxyz" );
+
+        assertEquals( 3, reader.read( chars, 0, 3 ) );
+        assertEquals( "def", new String( chars ) );
+        assertEquals( -1, reader.read( chars, 0, 3 ) );
+    }
+
+    public void testEditAfterPositionDetaches()
+        throws Exception
+    {
+        StringBuilder buffer = new StringBuilder( "abcdef" );
+        CharSequenceReader reader = new CharSequenceReader( buffer );
+        char[] chars = new char[2];
+
+        assertEquals( 2, reader.read( chars, 0, 2 ) );
+
+        reader.replacing( 3, 5, 0 );
+        buffer.replace( 3, 5, "" );
+
+        char[] rest = new char[10];
+        assertEquals( 4, reader.read( rest, 0, 10 ) );
+        assertEquals( "cdef", new String( rest, 0, 4 ) );
+    }
+
+    /**
+     * Rewrites a pom larger than the parser's input buffer, so that edits happen while the parser still has to read
+     * from the buffer being edited.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testRewriteLargePom()
+        throws Exception
+    {
+        StringBuilder input = new StringBuilder( "<project>\n  <dependencies>\n" );
+        List<VersionChange> changes = new ArrayList<VersionChange>();
+        for ( int i = 0; i < 500; i++ )
+        {
+            input.append( "    <dependency>\n      <groupId>org.group</groupId>\n" );
+            input.append( "      <artifactId>artifact-" ).append( i ).append( "</artifactId>\n" );
+            input.append( "      <version>1.0</version>\n    </dependency>\n" );
+            changes.add( new VersionChange( "org.group", "artifact-" + i, "1.0", "1.0." + i ) );
+        }
+        input.append( "  </dependencies>\n</project>\n" );
+
+        XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
+        inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
+        ModifiedPomXMLEventReader pom = new ModifiedPomXMLEventReader( input, inputFactory );
+
+        assertEquals( 500, PomHelper.setDependencyVersions( pom, changes ).size() );
+
+        Model model = PomHelper.getRawModel( pom );
+        for ( int i = 0; i < 500; i++ )
+        {
+            assertEquals( "1.0." + i, model.getDependencies().get( i ).getVersion() );
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.codehaus.mojo.versions.rewriting;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.codehaus.stax2.XMLInputFactory2;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.events.XMLEvent;
+
+/**
+ * Tests the edits of {@link ModifiedPomXMLEventReader}.
+ */
+public class ModifiedPomXMLEventReaderTest
+    extends TestCase
+{
+    private static ModifiedPomXMLEventReader newReader( StringBuilder pom )
+        throws Exception
+    {
+        XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
+        inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
+        return new ModifiedPomXMLEventReader( pom, inputFactory );
+    }
+
+    public void testReplaceMarkTwice()
+        throws Exception
+    {
+        StringBuilder pom = new StringBuilder( "<project><a>1</a><b>2</b></project>" );
+        ModifiedPomXMLEventReader reader = newReader( pom );
+        while ( reader.hasNext() )
+        {
+            XMLEvent event = reader.nextEvent();
+            if ( event.isStartElement() && "a".equals( event.asStartElement().getName().getLocalPart() ) )
+            {
+                reader.mark( 0 );
+                reader.replaceMark( 0, "<a id=\"x\">" );
+                reader.replaceMark( 0, "<a>" );
+                assertEquals( "<a>", reader.getMarkVerbatim( 0 ) );
+                reader.replaceMark( 0, "<alpha>" );
+                assertEquals( "<alpha>", reader.getVerbatim() );
+            }
+            if ( event.isEndElement() && "a".equals( event.asEndElement().getName().getLocalPart() ) )
+            {
+                reader.replace( "</alpha>" );
+            }
+        }
+
+        assertTrue( reader.isModified() );
+        assertEquals( "<project><alpha>1</alpha><b>2</b></project>", pom.toString() );
+    }
+
+    public void testMoreThanThreeMarksEditedAfterThePass()
+        throws Exception
+    {
+        StringBuilder pom = new StringBuilder( "<project>" );
+        StringBuilder expected = new StringBuilder( "<project>" );
+        for ( int i = 0; i < 10; i++ )
+        {
+            pom.append( "<v>" ).append( i ).append( "</v>" );
+            expected.append( "<v>" ).append( i ).append( ".0</v>" );
+        }
+        pom.append( "</project>" );
+        expected.append( "</project>" );
+
+        ModifiedPomXMLEventReader reader = newReader( pom );
+        int count = 0;
+        while ( reader.hasNext() )
+        {
+            XMLEvent event = reader.nextEvent();
+            if ( event.isStartElement() && "v".equals( event.asStartElement().getName().getLocalPart() ) )
+            {
+                reader.mark( 2 * count );
+            }
+            if ( event.isEndElement() && "v".equals( event.asEndElement().getName().getLocalPart() ) )
+            {
+                reader.mark( 2 * count + 1 );
+                count++;
+            }
+        }
+
+        for ( int i = 0; i < count; i++ )
+        {
+            reader.replaceBetween( 2 * i, 2 * i + 1, reader.getBetween( 2 * i, 2 * i + 1 ) + ".0" );
+        }
+        reader.close();
+
+        assertEquals( 10, count );
+        assertEquals( expected.toString(), pom.toString() );
+    }
+
+    public void testEditsAreKeptAcrossRewind()
+        throws Exception
+    {
+        StringBuilder pom = new StringBuilder( "<project><v>1</v></project>" );
+        ModifiedPomXMLEventReader reader = newReader( pom );
+        for ( int pass = 2; pass <= 3; pass++ )
+        {
+            reader.rewind();
+            while ( reader.hasNext() )
+            {
+                XMLEvent event = reader.nextEvent();
+                if ( event.isStartElement() )
+                {
+                    reader.mark( 0 );
+                }
+                if ( event.isEndElement() && "v".equals( event.asEndElement().getName().getLocalPart() ) )
+                {
+                    reader.mark( 1 );
+                    reader.replaceBetween( 0, 1, Integer.toString( pass * 10 ) );
+                    assertEquals( "<project><v>" + pass * 10 + "</v></project>",
+                                  reader.asStringBuilder().toString() );
+                }
+            }
+        }
+
+        assertEquals( "<project><v>30</v></project>", pom.toString() );
+    }
+}
@@ -0,0 +1,96 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Tests {@link FileSystemMetadataSource}.
+ */
+public class FileSystemMetadataSourceTest
+    extends TestCase
+{
+    private File dir;
+
+    protected void setUp()
+        throws Exception
+    {
+        dir = File.createTempFile( "repository", "" );
+        dir.delete();
+        dir.mkdirs();
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( dir );
+    }
+
+    public void testReadsEveryMetadataFile()
+        throws Exception
+    {
+        metadata( "maven-metadata.xml", "1.0", "1.1" );
+        metadata( "maven-metadata-central.xml", "1.1", "2.0" );
+        metadata( "maven-metadata.xml.sha1" );
+
+        FileSystemMetadataSource source = new FileSystemMetadataSource( dir, null );
+        List versions = source.retrieveAvailableVersions( artifact( "org.example", "a" ), null, null );
+
+        Set<String> found = new TreeSet<String>();
+        for ( Object version : versions )
+        {
+            found.add( ( (ArtifactVersion) version ).toString() );
+        }
+        assertEquals( "[1.0, 1.1, 2.0]", found.toString() );
+        assertTrue( source.retrieveAvailableVersions( artifact( "org.example", "b" ), null, null ).isEmpty() );
+    }
+
+    private void metadata( String name, String... versions )
+        throws Exception
+    {
+        StringBuilder buf = new StringBuilder( "<metadata><versioning><versions>" );
+        for ( String version : versions )
+        {
+            buf.append( "<version>" ).append( version ).append( "</version>" );
+        }
+        buf.append( "</versions></versioning></metadata>" );
+        File file = new File( dir, "org/example/a/" + name );
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file.getPath(), buf.toString() );
+    }
+
+    private static Artifact artifact( String groupId, String artifactId )
+        throws Exception
+    {
+        return new DefaultArtifact( groupId, artifactId, VersionRange.createFromVersionSpec( "1.0" ), "compile", "jar",
+                                    null, new DefaultArtifactHandler( "jar" ) );
+    }
+}
@@ -0,0 +1,148 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests {@link Instrumentation}.
+ */
+public class InstrumentationTest
+    extends TestCase
+{
+    public void testWritesOperationsAndCaches()
+        throws Exception
+    {
+        Instrumentation instrumentation = new Instrumentation();
+        assertTrue( instrumentation.isEmpty() );
+        instrumentation.stop( "pom write", instrumentation.start(), 42 );
+        instrumentation.stop( "pom write", instrumentation.start(), 8 );
+        instrumentation.cache( "version index", 3, 1 );
+
+        File file = File.createTempFile( "timings", ".json" );
+        try
+        {
+            instrumentation.writeJson( file );
+            String json = FileUtils.fileRead( file );
+            assertTrue( json, json.startsWith( "{\"operations\":{\"pom write\":{\"count\":2," ) );
+            assertTrue( json, json.contains( "\"bytes\":50," ) );
+            assertTrue( json, json.endsWith( "\"caches\":{\"version index\":{\"hits\":3,\"misses\":1}}}\n" ) );
+        }
+        finally
+        {
+            file.delete();
+        }
+        assertFalse( instrumentation.isEmpty() );
+    }
+
+    public void testReportsTheSharedCachesUsedSinceItWasCreated()
+        throws Exception
+    {
+        Instrumentation.hit( "test cache" );
+        Instrumentation instrumentation = new Instrumentation();
+        Instrumentation.hit( "test cache" );
+        Instrumentation.hit( "test cache" );
+        Instrumentation.miss( "test cache" );
+
+        File file = File.createTempFile( "timings", ".json" );
+        try
+        {
+            Log log = mock( Log.class );
+            instrumentation.report( log, true, file );
+            assertTrue( FileUtils.fileRead( file ).contains( "\"test cache\":{\"hits\":2,\"misses\":1}" ) );
+            verify( log, atLeastOnce() ).info( anyString() );
+
+            Instrumentation.miss( "test cache" );
+            instrumentation.report( log, false, file );
+            assertTrue( FileUtils.fileRead( file ).contains( "\"test cache\":{\"hits\":2,\"misses\":2}" ) );
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    public void testReportsUnwritableFilesAsWarnings()
+    {
+        Instrumentation instrumentation = new Instrumentation();
+        instrumentation.stop( "pom write", instrumentation.start() );
+        Log log = mock( Log.class );
+
+        instrumentation.report( log, false, new File( "target/no-such-dir\u0000/timings.json" ) );
+
+        verify( log ).warn( startsWith( "Could not write the timings to " ) );
+        verify( log, never() ).info( anyString() );
+    }
+
+    public void testIsOnlyCreatedWhenTimingsAreAskedFor()
+    {
+        assertNull( Instrumentation.create( false, null ) );
+        assertNotNull( Instrumentation.create( true, null ) );
+        assertNotNull( Instrumentation.create( false, new File( "timings.json" ) ) );
+    }
+
+    public void testRecordsCallsThroughTheProxy()
+        throws Exception
+    {
+        Instrumentation instrumentation = new Instrumentation();
+        Callable<?> failing = instrumentation.wrap( Callable.class, new Callable<Object>()
+        {
+            public Object call()
+                throws Exception
+            {
+                throw new IOException( "down" );
+            }
+        }, "test." );
+
+        try
+        {
+            failing.call();
+            fail( "expected IOException" );
+        }
+        catch ( IOException e )
+        {
+            assertEquals( "down", e.getMessage() );
+        }
+
+        File file = File.createTempFile( "timings", ".json" );
+        try
+        {
+            instrumentation.writeJson( file );
+            assertTrue( FileUtils.fileRead( file ).contains( "\"test.call\":{\"count\":1," ) );
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+}
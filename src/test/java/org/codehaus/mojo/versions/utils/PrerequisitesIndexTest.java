@@ -0,0 +1,135 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link PrerequisitesIndex}.
+ */
+public class PrerequisitesIndexTest
+    extends TestCase
+{
+    private File dir;
+
+    protected void setUp()
+        throws Exception
+    {
+        dir = File.createTempFile( "prerequisites", "" );
+        dir.delete();
+        dir.mkdirs();
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( dir );
+    }
+
+    public void testInheritsHighestPrerequisite()
+        throws Exception
+    {
+        RecordingSource source = new RecordingSource();
+        source.pom( "parent", "1", "<prerequisites><maven>3.0</maven></prerequisites>" );
+        source.pom( "plugin", "1", "<parent><groupId>g</groupId><artifactId>parent</artifactId>"
+            + "<version>1</version></parent><prerequisites><maven>2.2.1</maven></prerequisites>" );
+        source.pom( "plugin", "2", "<build><plugins/></build>" );
+
+        PrerequisitesIndex index = new PrerequisitesIndex( source, null, new SystemStreamLog() );
+
+        assertEquals( "3.0", index.getRequiredMavenVersion( "g", "plugin", "1", "2.0" ) );
+        assertEquals( "2.0", index.getRequiredMavenVersion( "g", "plugin", "2", "2.0" ) );
+        assertNull( index.getRequiredMavenVersion( "g", "plugin", "3", "2.0" ) );
+        assertEquals( "3.0", index.getRequiredMavenVersion( "g", "plugin", "1", "2.0" ) );
+        assertEquals( 4, source.resolved.size() );
+    }
+
+    public void testBuildsProjectForExpressions()
+        throws Exception
+    {
+        RecordingSource source = new RecordingSource();
+        source.pom( "plugin", "1", "<prerequisites><maven>${maven.version}</maven></prerequisites>" );
+        source.built.put( "plugin:1", "3.3.9" );
+
+        PrerequisitesIndex index = new PrerequisitesIndex( source, null, new SystemStreamLog() );
+
+        assertEquals( "3.3.9", index.getRequiredMavenVersion( "g", "plugin", "1", "2.0" ) );
+    }
+
+    public void testPersistsReleasesBetweenRuns()
+        throws Exception
+    {
+        File cacheFile = new File( dir, "cache/prerequisites.properties" );
+        RecordingSource source = new RecordingSource();
+        source.pom( "plugin", "1", "<prerequisites><maven>3.0</maven></prerequisites>" );
+        source.pom( "plugin", "2-SNAPSHOT", "<prerequisites><maven>3.1</maven></prerequisites>" );
+
+        PrerequisitesIndex index = new PrerequisitesIndex( source, cacheFile, new SystemStreamLog() );
+        assertEquals( "3.0", index.getRequiredMavenVersion( "g", "plugin", "1", "2.0" ) );
+        assertEquals( "3.1", index.getRequiredMavenVersion( "g", "plugin", "2-SNAPSHOT", "2.0" ) );
+        index.save();
+
+        RecordingSource next = new RecordingSource();
+        next.pom( "plugin", "2-SNAPSHOT", "<prerequisites><maven>3.2</maven></prerequisites>" );
+        index = new PrerequisitesIndex( next, cacheFile, new SystemStreamLog() );
+        assertEquals( "3.0", index.getRequiredMavenVersion( "g", "plugin", "1", "2.0" ) );
+        assertEquals( "3.2", index.getRequiredMavenVersion( "g", "plugin", "2-SNAPSHOT", "2.0" ) );
+        assertEquals( 1, next.resolved.size() );
+    }
+
+    private class RecordingSource
+        implements PrerequisitesIndex.PomSource
+    {
+        private final Map<String, File> poms = new HashMap<String, File>();
+
+        private final Map<String, String> built = new HashMap<String, String>();
+
+        private final List<String> resolved = new ArrayList<String>();
+
+        private void pom( String artifactId, String version, String body )
+            throws Exception
+        {
+            File file = new File( dir, artifactId + "-" + version + ".pom" );
+            FileUtils.fileWrite( file.getPath(), "<project><modelVersion>4.0.0</modelVersion><groupId>g</groupId>"
+                + "<artifactId>" + artifactId + "</artifactId><version>" + version + "</version>" + body
+                + "</project>" );
+            poms.put( artifactId + ":" + version, file );
+        }
+
+        public File getPom( String groupId, String artifactId, String version )
+        {
+            resolved.add( artifactId + ":" + version );
+            return poms.get( artifactId + ":" + version );
+        }
+
+        public String buildRequiredMavenVersion( String groupId, String artifactId, String version )
+        {
+            return built.get( artifactId + ":" + version );
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import junit.framework.TestCase;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tests {@link RegexUtils}.
+ */
+public class RegexUtilsTest
+    extends TestCase
+{
+    private static final String[] RULES =
+        { "", "*", "**", "com", "com.foo.bar", "com*", "*bar", "com*bar", "c*oo*r", "co*.foo.b?r", "com?foo.bar",
+            "a*a", "*.*", "com.bar*", "\\E*", "a+b*" };
+
+    private static final String[] VALUES =
+        { "", "a", "aa", "com", "com-bar", "com.foo.bar", "com.foo.bar.baz", "bar", "\\E", "a+b", "ab" };
+
+    public void testCompiledWildcardsMatchLikeRegex()
+    {
+        for ( String rule : RULES )
+        {
+            for ( boolean exactMatch : new boolean[] { true, false } )
+            {
+                Pattern pattern = Pattern.compile( RegexUtils.convertWildcardsToRegex( rule, exactMatch ) );
+                for ( String value : VALUES )
+                {
+                    assertEquals( "'" + rule + "' " + ( exactMatch ? "matches" : "starts" ) + " '" + value + "'",
+                                  pattern.matcher( value ).matches(),
+                                  RegexUtils.matches( rule, exactMatch, value ) );
+                }
+            }
+        }
+    }
+
+    public void testCompiledWildcardsAreReused()
+    {
+        assertSame( RegexUtils.compileWildcards( "com.*", true ), RegexUtils.compileWildcards( "com.*", true ) );
+        assertNotSame( RegexUtils.compileWildcards( "com", true ), RegexUtils.compileWildcards( "com", false ) );
+    }
+}
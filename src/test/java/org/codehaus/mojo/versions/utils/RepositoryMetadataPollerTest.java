@@ -0,0 +1,196 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.artifact.manager.DefaultWagonManager;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.DefaultArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.wagon.ConnectionException;
+import org.apache.maven.wagon.Wagon;
+import org.apache.maven.wagon.events.TransferEvent;
+import org.apache.maven.wagon.observers.AbstractTransferListener;
+import org.apache.maven.wagon.providers.file.FileWagon;
+import org.apache.maven.wagon.repository.Repository;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests {@link RepositoryMetadataPoller}.
+ */
+public class RepositoryMetadataPollerTest
+    extends TestCase
+{
+    /**
+     * A timestamp well behind the local clock, as a repository with a slow clock would report it.
+     */
+    private static final long REMOTE_TIME = 1000000000000L;
+
+    private File repository;
+
+    private final AtomicInteger transfers = new AtomicInteger();
+
+    private volatile boolean reachable = true;
+
+    private RepositoryMetadataPoller poller;
+
+    protected void setUp()
+        throws Exception
+    {
+        repository = File.createTempFile( "repository", "" );
+        repository.delete();
+        repository.mkdirs();
+        DefaultWagonManager wagonManager = new DefaultWagonManager()
+        {
+            public Wagon getWagon( Repository repository )
+            {
+                FileWagon wagon = new FileWagon()
+                {
+                    protected void openConnectionInternal()
+                        throws ConnectionException
+                    {
+                        if ( !reachable )
+                        {
+                            throw new ConnectionException( "unreachable" );
+                        }
+                        super.openConnectionInternal();
+                    }
+                };
+                wagon.addTransferListener( new AbstractTransferListener()
+                {
+                    public void transferStarted( TransferEvent transferEvent )
+                    {
+                        transfers.incrementAndGet();
+                    }
+                } );
+                return wagon;
+            }
+        };
+        ArtifactRepository remote =
+            new DefaultArtifactRepository( "remote", repository.toURI().toString(), new DefaultRepositoryLayout() );
+        poller = new RepositoryMetadataPoller( Collections.singletonList( remote ), wagonManager, new Settings(),
+                                               mock( Log.class ) );
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( repository );
+    }
+
+    public void testPollsOnlyChangedMetadata()
+        throws Exception
+    {
+        deploy( "org.example:a", REMOTE_TIME, "1.0" );
+        deploy( "org.example:b", REMOTE_TIME, "2.0" );
+
+        Map<String, Set<String>> known = poller.poll( Arrays.asList( "org.example:a", "org.example:b" ) );
+        assertEquals( Collections.singleton( "1.0" ), known.get( "org.example:a" ) );
+        assertEquals( Collections.singleton( "2.0" ), known.get( "org.example:b" ) );
+        assertEquals( 2, transfers.get() );
+
+        Map<String, Set<String>> found = poller.poll( Arrays.asList( "org.example:a", "org.example:b" ) );
+        assertEquals( 2, transfers.get() );
+        assertTrue( RepositoryMetadataPoller.addNewVersions( known, found ).isEmpty() );
+
+        // still behind the local clock, so only the timestamp of the repository tells the change apart
+        deploy( "org.example:a", REMOTE_TIME + 60000L, "1.0", "1.1" );
+        found = poller.poll( Arrays.asList( "org.example:a", "org.example:b" ) );
+        assertEquals( 3, transfers.get() );
+        Map<String, Set<String>> added = RepositoryMetadataPoller.addNewVersions( known, found );
+        assertEquals( Collections.singletonMap( "org.example:a", Collections.singleton( "1.1" ) ), added );
+        assertEquals( new HashSet<String>( Arrays.asList( "1.0", "1.1" ) ), known.get( "org.example:a" ) );
+    }
+
+    public void testUnreachableRepositoryKeepsItsVersions()
+        throws Exception
+    {
+        deploy( "org.example:a", REMOTE_TIME, "1.0" );
+        poller.poll( Collections.singleton( "org.example:a" ) );
+
+        reachable = false;
+        Map<String, Set<String>> found = poller.poll( Collections.singleton( "org.example:a" ) );
+
+        assertEquals( Collections.singleton( "1.0" ), found.get( "org.example:a" ) );
+    }
+
+    public void testRemovedMetadataClearsItsVersions()
+        throws Exception
+    {
+        deploy( "org.example:a", REMOTE_TIME, "1.0" );
+        poller.poll( Collections.singleton( "org.example:a" ) );
+
+        FileUtils.deleteDirectory( new File( repository, "org/example/a" ) );
+        Map<String, Set<String>> found = poller.poll( Collections.singleton( "org.example:a" ) );
+
+        assertTrue( found.get( "org.example:a" ).isEmpty() );
+    }
+
+    public void testReadVersions()
+        throws Exception
+    {
+        File file = File.createTempFile( "maven-metadata", ".xml" );
+        try
+        {
+            FileUtils.fileWrite( file.getPath(), "<?xml version=\"1.0\" encoding=\"UTF-8\"?><metadata>"
+                + "<groupId>g</groupId><artifactId>a</artifactId><version>1.0</version><versioning>"
+                + "<latest>2.0-SNAPSHOT</latest><release>1.1</release><versions><version>1.0</version>"
+                + "<version> 1.1 </version><version>2.0-SNAPSHOT</version></versions>"
+                + "<lastUpdated>20160101000000</lastUpdated></versioning></metadata>" );
+
+            assertEquals( Arrays.asList( "1.0", "1.1", "2.0-SNAPSHOT" ),
+                          new ArrayList<String>( RepositoryMetadataPoller.readVersions( file ) ) );
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    private void deploy( String key, long lastModified, String... versions )
+        throws Exception
+    {
+        int split = key.indexOf( ':' );
+        File file = new File( repository, key.substring( 0, split ).replace( '.', '/' ) + '/'
+            + key.substring( split + 1 ) + "/maven-metadata.xml" );
+        file.getParentFile().mkdirs();
+        StringBuilder xml = new StringBuilder( "<?xml version=\"1.0\" encoding=\"UTF-8\"?><metadata><versioning>"
+            + "<versions>" );
+        for ( String version : versions )
+        {
+            xml.append( "<version>" ).append( version ).append( "</version>" );
+        }
+        FileUtils.fileWrite( file.getPath(), xml.append( "</versions></versioning></metadata>" ).toString() );
+        assertTrue( file.setLastModified( lastModified ) );
+    }
+}
@@ -0,0 +1,312 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
+import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
+import org.apache.maven.artifact.metadata.ResolutionGroup;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.DefaultArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Tests {@link ResilientMetadataSource}.
+ */
+public class ResilientMetadataSourceTest
+    extends TestCase
+{
+    private final ArtifactRepository central = repository( "central" );
+
+    private final ArtifactRepository broken = repository( "broken" );
+
+    private final ArtifactRepository slow = repository( "slow" );
+
+    public void testMergesTheVersionsOfEveryRepository()
+        throws Exception
+    {
+        FakeSource delegate = new FakeSource();
+        delegate.versions.put( "central", Arrays.asList( "1.0", "1.1" ) );
+        delegate.versions.put( "slow", Arrays.asList( "1.1", "2.0" ) );
+
+        List versions = source( delegate, 0, 3, false ).retrieveAvailableVersions( artifact(), null,
+                                                                                   Arrays.asList( central, slow ) );
+
+        assertEquals( "[1.0, 1.1, 2.0]", toString( versions ) );
+    }
+
+    public void testRetriesAndReturnsPartialResults()
+        throws Exception
+    {
+        FakeSource delegate = new FakeSource();
+        delegate.versions.put( "central", Arrays.asList( "1.0" ) );
+        delegate.failures.put( "slow", 1 );
+        delegate.versions.put( "slow", Arrays.asList( "2.0" ) );
+
+        List versions = source( delegate, 2, 3, false ).retrieveAvailableVersions( artifact(), null,
+                                                                                   Arrays.asList( central, broken,
+                                                                                                  slow ) );
+
+        assertEquals( "[1.0, 2.0]", toString( versions ) );
+        assertEquals( "[broken, broken, broken, central, slow, slow]", delegate.sortedCalls() );
+    }
+
+    public void testFailsWhenNoRepositoryAnswers()
+        throws Exception
+    {
+        try
+        {
+            source( new FakeSource(), 0, 3, false ).retrieveAvailableVersions( artifact(), null,
+                                                                               Collections.singletonList( broken ) );
+            fail( "expected ArtifactMetadataRetrievalException" );
+        }
+        catch ( ArtifactMetadataRetrievalException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "broken" ) );
+        }
+    }
+
+    public void testFailsOnAnyErrorWhenAsked()
+        throws Exception
+    {
+        FakeSource delegate = new FakeSource();
+        delegate.versions.put( "central", Arrays.asList( "1.0" ) );
+        try
+        {
+            source( delegate, 0, 3, true ).retrieveAvailableVersions( artifact(), null,
+                                                                      Arrays.asList( central, broken ) );
+            fail( "expected ArtifactMetadataRetrievalException" );
+        }
+        catch ( ArtifactMetadataRetrievalException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "broken" ) );
+        }
+    }
+
+    public void testGivesUpOnSlowRepositories()
+        throws Exception
+    {
+        FakeSource delegate = new FakeSource();
+        delegate.versions.put( "central", Arrays.asList( "1.0" ) );
+        delegate.delays.put( "slow", 10000L );
+
+        long start = System.currentTimeMillis();
+        List versions = new ResilientMetadataSource( delegate, null, 100, 0, 3, false, 1, new SystemStreamLog() )
+            .retrieveAvailableVersions( artifact(), null, Arrays.asList( slow, central ) );
+
+        assertEquals( "[1.0]", toString( versions ) );
+        assertTrue( System.currentTimeMillis() - start < 5000 );
+    }
+
+    public void testAsksTheRepositoriesConcurrently()
+        throws Exception
+    {
+        FakeSource delegate = new FakeSource();
+        delegate.versions.put( "central", Arrays.asList( "1.0" ) );
+        delegate.versions.put( "slow", Arrays.asList( "2.0" ) );
+        delegate.delays.put( "central", 1000L );
+        delegate.delays.put( "slow", 1000L );
+        delegate.failures.put( "slow", 1 );
+
+        long start = System.currentTimeMillis();
+        List versions = new ResilientMetadataSource( delegate, null, 0, 1, 3, false, 500, new SystemStreamLog() )
+            .retrieveAvailableVersions( artifact(), null, Arrays.asList( central, slow, broken ) );
+
+        assertEquals( "[1.0, 2.0]", toString( versions ) );
+        // central answers after 1s while slow fails after 1s, backs off 0.5s and answers 1s later
+        assertTrue( System.currentTimeMillis() - start < 3000 );
+    }
+
+    public void testHasVersionDoesNotWaitForSlowRepositories()
+        throws Exception
+    {
+        FakeSource delegate = new FakeSource();
+        delegate.versions.put( "central", Arrays.asList( "1.0" ) );
+        delegate.delays.put( "slow", 10000L );
+
+        long start = System.currentTimeMillis();
+        assertTrue( new ResilientMetadataSource( delegate, null, 0, 0, 3, false, 1, new SystemStreamLog() )
+                        .hasVersion( artifact(), "1.0", null, Arrays.asList( slow, central ) ) );
+        assertTrue( System.currentTimeMillis() - start < 5000 );
+    }
+
+    public void testHasVersionWhenNoRepositoryHasIt()
+        throws Exception
+    {
+        FakeSource delegate = new FakeSource();
+        delegate.versions.put( "central", Arrays.asList( "1.0" ) );
+
+        assertFalse( source( delegate, 0, 3, false ).hasVersion( artifact(), "2.0", null,
+                                                                 Arrays.asList( central, broken ) ) );
+        try
+        {
+            source( delegate, 0, 3, true ).hasVersion( artifact(), "2.0", null, Arrays.asList( central, broken ) );
+            fail( "expected ArtifactMetadataRetrievalException" );
+        }
+        catch ( ArtifactMetadataRetrievalException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().contains( "broken" ) );
+        }
+    }
+
+    public void testRetriesStopAtTheTimeLimit()
+        throws Exception
+    {
+        FakeSource delegate = new FakeSource();
+        delegate.versions.put( "central", Arrays.asList( "1.0" ) );
+
+        long start = System.currentTimeMillis();
+        List versions = new ResilientMetadataSource( delegate, null, 1000, 10, 3, false, 400, new SystemStreamLog() )
+            .retrieveAvailableVersions( artifact(), null, Arrays.asList( central, broken ) );
+
+        assertEquals( "[1.0]", toString( versions ) );
+        assertTrue( System.currentTimeMillis() - start < 2000 );
+        assertEquals( "[broken, broken, central]", delegate.sortedCalls() );
+    }
+
+    public void testSkipsRepositoriesWhichKeepFailing()
+        throws Exception
+    {
+        FakeSource delegate = new FakeSource();
+        delegate.versions.put( "central", Arrays.asList( "1.0" ) );
+        ResilientMetadataSource source = source( delegate, 0, 2, false );
+
+        for ( int i = 0; i < 4; i++ )
+        {
+            assertEquals( "[1.0]", toString( source.retrieveAvailableVersions( artifact(), null,
+                                                                              Arrays.asList( central, broken ) ) ) );
+        }
+
+        assertEquals( "[broken, broken, central, central, central, central]", delegate.sortedCalls() );
+    }
+
+    private static ResilientMetadataSource source( FakeSource delegate, int retries, int failureThreshold,
+                                                   boolean failOnError )
+    {
+        return new ResilientMetadataSource( delegate, null, 0, retries, failureThreshold, failOnError, 1,
+                                            new SystemStreamLog() );
+    }
+
+    private static String toString( List versions )
+    {
+        Set<String> result = new TreeSet<String>();
+        for ( Object version : versions )
+        {
+            result.add( version.toString() );
+        }
+        return result.toString();
+    }
+
+    private static ArtifactRepository repository( String id )
+    {
+        return new DefaultArtifactRepository( id, "http://" + id + ".example.org/", new DefaultRepositoryLayout() );
+    }
+
+    private static Artifact artifact()
+        throws Exception
+    {
+        return new DefaultArtifact( "org.example", "a", VersionRange.createFromVersionSpec( "1.0" ), "compile", "jar",
+                                    null, new DefaultArtifactHandler( "jar" ) );
+    }
+
+    /**
+     * Answers from {@link #versions}, fails for repositories without versions and for the first
+     * {@link #failures} calls to a repository.
+     */
+    private static class FakeSource
+        implements ArtifactMetadataSource
+    {
+        private final Map<String, List<String>> versions = new HashMap<String, List<String>>();
+
+        private final Map<String, Integer> failures = new HashMap<String, Integer>();
+
+        private final List<String> calls = Collections.synchronizedList( new ArrayList<String>() );
+
+        private final Map<String, Long> delays = new HashMap<String, Long>();
+
+        private String sortedCalls()
+        {
+            List<String> sorted = new ArrayList<String>( calls );
+            Collections.sort( sorted );
+            return sorted.toString();
+        }
+
+        public ResolutionGroup retrieve( Artifact artifact, ArtifactRepository localRepository,
+                                         List remoteRepositories )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        public Artifact retrieveRelocatedArtifact( Artifact artifact, ArtifactRepository localRepository,
+                                                   List remoteRepositories )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        public List retrieveAvailableVersions( Artifact artifact, ArtifactRepository localRepository,
+                                               List remoteRepositories )
+            throws ArtifactMetadataRetrievalException
+        {
+            String id = ( (ArtifactRepository) remoteRepositories.get( 0 ) ).getId();
+            calls.add( id );
+            if ( delays.containsKey( id ) )
+            {
+                try
+                {
+                    Thread.sleep( delays.get( id ) );
+                }
+                catch ( InterruptedException e )
+                {
+                    throw new ArtifactMetadataRetrievalException( "interrupted" );
+                }
+            }
+            synchronized ( failures )
+            {
+                Integer remaining = failures.get( id );
+                if ( !versions.containsKey( id ) || ( remaining != null && remaining > 0 ) )
+                {
+                    failures.put( id, remaining == null ? 0 : remaining - 1 );
+                    throw new ArtifactMetadataRetrievalException( id + " is down" );
+                }
+            }
+            List<DefaultArtifactVersion> result = new ArrayList<DefaultArtifactVersion>();
+            for ( String version : versions.get( id ) )
+            {
+                result.add( new DefaultArtifactVersion( version ) );
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+
+import java.io.StringWriter;
+
+/**
+ * Tests {@link UpdatesWriter}.
+ */
+public class UpdatesWriterTest
+    extends TestCase
+{
+    public void testJsonLines()
+        throws Exception
+    {
+        StringWriter out = new StringWriter();
+        UpdatesWriter writer = UpdatesWriter.newInstance( "json", out, true );
+        writer.write( "g:p:1", "Dependencies", "g:a", "1.0", "2.0" );
+        writer.write( "g:p:1", "Properties", "${a\"b}", "[1,2)\t", null );
+        writer.close();
+
+        assertEquals( "{\"project\":\"g:p:1\",\"section\":\"Dependencies\",\"key\":\"g:a\",\"current\":\"1.0\","
+            + "\"latest\":\"2.0\"}\n{\"project\":\"g:p:1\",\"section\":\"Properties\",\"key\":\"${a\\\"b}\","
+            + "\"current\":\"[1,2)\\t\",\"latest\":null}\n", out.toString() );
+    }
+
+    public void testCsv()
+        throws Exception
+    {
+        StringWriter out = new StringWriter();
+        UpdatesWriter writer = UpdatesWriter.newInstance( "CSV", out, true );
+        writer.write( "g:p:1", "Dependencies", "g:a", "[1,2)", null );
+        writer.write( "g:p:1", "Properties", "${a\"b}", "1.0", "2.0" );
+
+        assertEquals( "project,section,key,current,latest\r\ng:p:1,Dependencies,g:a,\"[1,2)\",\r\n"
+            + "g:p:1,Properties,\"${a\"\"b}\",1.0,2.0\r\n", out.toString() );
+
+        out = new StringWriter();
+        UpdatesWriter.newInstance( "csv", out, false ).write( "g:p:1", "Plugins", "g:a", "1.0", null );
+        assertEquals( "g:p:1,Plugins,g:a,1.0,\r\n", out.toString() );
+    }
+
+    public void testUnsupportedFormat()
+        throws Exception
+    {
+        try
+        {
+            UpdatesWriter.newInstance( "xml", new StringWriter(), true );
+            fail();
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // expected
+        }
+    }
+}
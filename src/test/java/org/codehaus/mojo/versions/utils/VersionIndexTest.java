@@ -0,0 +1,117 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Tests {@link VersionIndex}.
+ */
+public class VersionIndexTest
+    extends TestCase
+{
+    private File dir;
+
+    protected void setUp()
+        throws Exception
+    {
+        dir = File.createTempFile( "index", "" );
+        dir.delete();
+        dir.mkdirs();
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( dir );
+    }
+
+    public void testScanWriteAndLookup()
+        throws Exception
+    {
+        File repository = new File( dir, "repository" );
+        write( repository, "org/example/a/maven-metadata-central.xml", "<metadata><groupId>org.example</groupId>"
+            + "<artifactId>a</artifactId><versioning><versions><version>1.0</version><version>1.1</version>"
+            + "</versions></versioning></metadata>" );
+        write( repository, "org/example/a/maven-metadata-local.xml", "<metadata><groupId>org.example</groupId>"
+            + "<artifactId>a</artifactId><versioning><versions><version>1.1</version>"
+            + "<version>2.0-SNAPSHOT</version></versions></versioning></metadata>" );
+        write( repository, "org/example/a/2.0-SNAPSHOT/maven-metadata-central.xml", "<metadata>"
+            + "<groupId>org.example</groupId><artifactId>a</artifactId><version>2.0-SNAPSHOT</version><versioning>"
+            + "<snapshot><timestamp>20160102.030405</timestamp><buildNumber>7</buildNumber></snapshot>"
+            + "</versioning></metadata>" );
+        write( repository, "org/example/maven-metadata.xml", "<metadata><plugins><plugin><prefix>p</prefix>"
+            + "<artifactId>p-maven-plugin</artifactId></plugin></plugins></metadata>" );
+        for ( int i = 0; i < 20; i++ )
+        {
+            write( repository, "org/example/b" + i + "/maven-metadata.xml", "<metadata><groupId>org.example</groupId>"
+                + "<artifactId>b" + i + "</artifactId><versioning><versions><version>" + i
+                + "</version></versions></versioning></metadata>" );
+        }
+
+        Map<String, Map<String, String>> artifacts = VersionIndex.scan( repository, new SystemStreamLog() );
+        File file = new File( dir, "versions.idx" );
+        VersionIndex.write( artifacts, file );
+        VersionIndex index = VersionIndex.open( file );
+
+        assertEquals( 21, index.size() );
+        assertEquals( Arrays.asList( "1.0", "1.1", "2.0-SNAPSHOT" ), index.getVersions( "org.example", "a" ) );
+        assertEquals( "20160102.030405-7", index.getSnapshot( "org.example", "a", "2.0-SNAPSHOT" ) );
+        assertNull( index.getSnapshot( "org.example", "a", "1.0" ) );
+        for ( int i = 0; i < 20; i++ )
+        {
+            assertEquals( Arrays.asList( Integer.toString( i ) ), index.getVersions( "org.example", "b" + i ) );
+        }
+        assertNull( index.getVersions( "org.example", "c" ) );
+        assertNull( index.getVersions( "org.example", "" ) );
+        assertNull( index.getVersions( "org.example", "p-maven-plugin" ) );
+    }
+
+    public void testRejectsOtherFiles()
+        throws Exception
+    {
+        File file = new File( dir, "versions.idx" );
+        FileUtils.fileWrite( file.getPath(), "not an index" );
+        try
+        {
+            VersionIndex.open( file );
+            fail();
+        }
+        catch ( IOException e )
+        {
+            // expected
+        }
+    }
+
+    private static void write( File repository, String path, String content )
+        throws Exception
+    {
+        File file = new File( repository, path );
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file.getPath(), content );
+    }
+}